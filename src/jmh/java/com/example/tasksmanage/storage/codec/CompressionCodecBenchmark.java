@@ -0,0 +1,125 @@
+package com.example.tasksmanage.storage.codec;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Throughput of the codec picked per MIME type against the previous "gzip everything at the default
+ * level" behaviour. The encode benchmarks also report {@code originalBytes} and {@code storedBytes}
+ * rates as secondary results; stored over original is the compression ratio.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:java}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionCodecBenchmark {
+    private static final int PAYLOAD_SIZE = 1024 * 1024;
+
+    @Param({"text/plain", "application/pdf", "image/png", "image/jpeg"})
+    public String contentType;
+
+    private CompressionCodec selected;
+    private byte[] payload;
+    private byte[] encoded;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Sizes {
+        public long originalBytes;
+        public long storedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            originalBytes = 0;
+            storedBytes = 0;
+        }
+
+        byte[] count(byte[] original, byte[] stored) {
+            originalBytes += original.length;
+            storedBytes += stored.length;
+            return stored;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CompressionCodecRegistry registry = new CompressionCodecRegistry(List.of(new IdentityCodec(), new GzipCodec()));
+        selected = registry.forContentType(contentType);
+        payload = samplePayload(contentType);
+        encoded = encode(selected, payload);
+    }
+
+    @Benchmark
+    public byte[] encodeSelected(Sizes sizes) throws IOException {
+        return sizes.count(payload, encode(selected, payload));
+    }
+
+    @Benchmark
+    public byte[] encodeGzipDefaultLevel(Sizes sizes) throws IOException {
+        return sizes.count(payload, gzipDefaultLevel(payload));
+    }
+
+    @Benchmark
+    public void decodeSelected(Blackhole blackhole) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = selected.decode(new ByteArrayInputStream(encoded))) {
+            int len;
+            while ((len = in.read(buffer)) > 0) blackhole.consume(len);
+        }
+    }
+
+    private static byte[] encode(CompressionCodec codec, byte[] data) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length);
+        try (OutputStream out = codec.encode(bos)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] gzipDefaultLevel(byte[] data) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+            gzip.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    // Text is log-like lines; PDF mixes text operators with binary (already deflated) streams;
+    // images are random bytes, i.e. as incompressible as real PNG/JPEG payloads
+    private static byte[] samplePayload(String contentType) {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(PAYLOAD_SIZE);
+        if (contentType.startsWith("image/")) {
+            byte[] bytes = new byte[PAYLOAD_SIZE];
+            random.nextBytes(bytes);
+            return bytes;
+        }
+        boolean pdf = contentType.equals("application/pdf");
+        byte[] binary = new byte[2048];
+        while (out.size() < PAYLOAD_SIZE) {
+            String line = "task " + random.nextInt(100_000) + " moved to " + (random.nextBoolean() ? "DONE" : "IN_PROGRESS")
+                    + " by user-" + random.nextInt(500) + " at 2024-05-" + (10 + random.nextInt(20)) + "\n";
+            out.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+            if (pdf && random.nextInt(20) == 0) {
+                random.nextBytes(binary);
+                out.writeBytes(binary);
+            }
+        }
+        return out.toByteArray();
+    }
+}
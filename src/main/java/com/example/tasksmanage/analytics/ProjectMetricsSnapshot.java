@@ -0,0 +1,111 @@
+package com.example.tasksmanage.analytics;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Materialized metrics of one project: task counts by status, priority and assignee, the open
+ * tasks' due dates (for the time-dependent overdue count) and per-day created/completed deltas
+ * from which the burndown series is accumulated.
+ * <p>
+ * Instances are mutated only through {@link #apply}; readers get copies. Days are those of the
+ * given zone, which must be the one the aggregate queries bucket timestamps by.
+ */
+public class ProjectMetricsSnapshot {
+    private final ZoneId zone;
+    private long total;
+    private final Map<String, Long> byStatus = new HashMap<>();
+    private final Map<String, Long> byPriority = new HashMap<>();
+    private final Map<UUID, Long> byAssignee = new HashMap<>();
+    private final NavigableMap<Long, Long> openByDueDate = new TreeMap<>();
+    private final NavigableMap<LocalDate, Long> createdPerDay = new TreeMap<>();
+    private final NavigableMap<LocalDate, Long> completedPerDay = new TreeMap<>();
+
+    public ProjectMetricsSnapshot(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Adds ({@code sign = 1}) or removes ({@code sign = -1}) one task's contribution.
+     */
+    public synchronized void apply(TaskFacts facts, int sign) {
+        total += sign;
+        add(byStatus, facts.status, sign);
+        add(byPriority, facts.priority, sign);
+        add(byAssignee, facts.assigneeId, sign);
+        add(openByDueDate, facts.openDueMillis, sign);
+        add(createdPerDay, TaskFacts.day(facts.createdMillis, zone), sign);
+        add(completedPerDay, TaskFacts.day(facts.completedMillis, zone), sign);
+    }
+
+    // Loaders used when building a snapshot from aggregate rows
+
+    synchronized void putStatus(String status, long count) {
+        // Tasks without a status still count towards the total
+        total += count;
+        add(byStatus, status, count);
+    }
+    synchronized void putPriority(String priority, long count) { add(byPriority, priority, count); }
+    synchronized void putAssignee(UUID assigneeId, long count) { add(byAssignee, assigneeId, count); }
+    synchronized void putOpenDueDate(Date dueDate, long count) { add(openByDueDate, dueDate != null ? dueDate.getTime() : null, count); }
+    synchronized void putCreated(LocalDate day, long count) { add(createdPerDay, day, count); }
+    synchronized void putCompleted(LocalDate day, long count) { add(completedPerDay, day, count); }
+
+    public synchronized long totalTasks() {
+        return total;
+    }
+
+    public synchronized Map<String, Long> statusCounts() {
+        return new HashMap<>(byStatus);
+    }
+
+    public synchronized Map<String, Long> priorityCounts() {
+        return new HashMap<>(byPriority);
+    }
+
+    public synchronized Map<UUID, Long> assigneeCounts() {
+        return new HashMap<>(byAssignee);
+    }
+
+    public synchronized long overdueCount(Date now) {
+        long overdue = 0;
+        for (long count : openByDueDate.headMap(now.getTime(), false).values()) overdue += count;
+        return overdue;
+    }
+
+    /**
+     * Remaining (created minus completed) tasks at the end of every day that saw a change.
+     */
+    public synchronized NavigableMap<LocalDate, Long> burndown() {
+        NavigableMap<LocalDate, Long> deltas = new TreeMap<>(createdPerDay);
+        completedPerDay.forEach((day, count) -> deltas.merge(day, -count, Long::sum));
+        NavigableMap<LocalDate, Long> remaining = new TreeMap<>();
+        long running = 0;
+        for (Map.Entry<LocalDate, Long> entry : deltas.entrySet()) {
+            running += entry.getValue();
+            remaining.put(entry.getKey(), running);
+        }
+        return remaining;
+    }
+
+    /**
+     * True when both snapshots hold exactly the same counters.
+     */
+    public boolean sameAs(ProjectMetricsSnapshot other) {
+        return state().equals(other.state());
+    }
+
+    private synchronized List<Object> state() {
+        return List.of(total, new HashMap<>(byStatus), new HashMap<>(byPriority), new HashMap<>(byAssignee),
+                new HashMap<>(openByDueDate), new HashMap<>(createdPerDay), new HashMap<>(completedPerDay));
+    }
+
+    private static <K> void add(Map<K, Long> counts, K key, long delta) {
+        if (key == null || delta == 0) return;
+        long updated = counts.getOrDefault(key, 0L) + delta;
+        // Drop empty buckets so the maps only hold keys that currently have tasks
+        if (updated == 0) counts.remove(key);
+        else counts.put(key, updated);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.tasksmanage.analytics;
+
+import com.example.tasksmanage.cache.InvalidationBus;
+import com.example.tasksmanage.repository.ProjectRepository;
+import com.example.tasksmanage.repository.TaskRepository;
+import com.example.tasksmanage.repository.projection.AssigneeCount;
+import com.example.tasksmanage.repository.projection.BucketCount;
+import com.example.tasksmanage.repository.projection.DailyCount;
+import com.example.tasksmanage.repository.projection.DueDateCount;
+import com.example.tasksmanage.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Holds one {@link ProjectMetricsSnapshot} per project that has been read.
+ * <p>
+ * A snapshot is built from the aggregate queries the first time a project's metrics are requested,
+ * then maintained from task writes: each write hands over the task's facts before and after, and
+ * the difference is applied once the transaction commits. A load is only kept when no write to the
+ * project was in flight while it ran, since the queries may or may not have seen such a write; the
+ * reader still gets the result, and the next read tries again. Writes on other nodes arrive through
+ * the {@link InvalidationBus} and drop the snapshot here. A periodic reconciliation recomputes the
+ * loaded snapshots and replaces any that drifted (e.g. a write bypassed the service layer).
+ * <p>
+ * Days are bucketed in the zone Hibernate writes timestamps in ({@code hibernate.jdbc.time_zone},
+ * else the JVM's), which is the zone the queries' date casts see, as the columns hold no zone.
+ */
+@Component
+public class ProjectMetricsStore {
+    private static final Logger log = LoggerFactory.getLogger(ProjectMetricsStore.class);
+    private static final int STRIPES = 64;
+
+    private final Map<UUID, ProjectMetricsSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Per project stripe: writes between their first change and their commit or rollback, and
+    // writes finished, so a load can tell whether one overlapped it
+    private final AtomicLongArray pending = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray finished = new AtomicLongArray(STRIPES);
+    // Tells this node's own broadcasts apart from other nodes' ones
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final InvalidationBus invalidationBus;
+    private final ZoneId zone;
+
+    public ProjectMetricsStore(TaskRepository taskRepository, ProjectRepository projectRepository,
+                               InvalidationBus invalidationBus,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:}") String jdbcTimeZone) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.invalidationBus = invalidationBus;
+        this.zone = StringUtils.hasText(jdbcTimeZone) ? ZoneId.of(jdbcTimeZone) : ZoneId.systemDefault();
+        invalidationBus.subscribe(InvalidationBus.PROJECT_METRICS, id -> {
+            if (InvalidationBus.ALL.equals(id)) {
+                dropAll();
+                return;
+            }
+            String[] parts = id.split(":");
+            // This node applied its own writes already
+            if (!nodeId.equals(parts[1])) drop(UUID.fromString(parts[0]));
+        });
+        invalidationBus.subscribe(InvalidationBus.PROJECT, id -> {
+            if (InvalidationBus.ALL.equals(id)) dropAll();
+            else drop(UUID.fromString(id));
+        });
+    }
+
+    public ProjectMetricsSnapshot get(UUID projectId) {
+        ProjectMetricsSnapshot snapshot = snapshots.get(projectId);
+        if (snapshot != null) return snapshot;
+        int stripe = stripe(projectId);
+        long finishedBefore = finished.get(stripe);
+        boolean quiet = pending.get(stripe) == 0;
+        ProjectMetricsSnapshot loaded = load(projectId);
+        if (!quiet) return loaded;
+        ProjectMetricsSnapshot current = snapshots.compute(projectId, (id, existing) -> {
+            if (existing != null) return existing;
+            return unchangedSince(stripe, finishedBefore) ? loaded : null;
+        });
+        return current != null ? current : loaded;
+    }
+
+    /**
+     * Records a task write. Either side may be null (create/delete or a task without project).
+     */
+    public void taskChanged(TaskFacts before, TaskFacts after) {
+        if (before == null && after == null) return;
+        Set<UUID> projects = new HashSet<>();
+        if (before != null) projects.add(before.projectId);
+        if (after != null) projects.add(after.projectId);
+        for (UUID projectId : projects) {
+            invalidationBus.publish(InvalidationBus.PROJECT_METRICS, projectId + ":" + nodeId);
+        }
+        projects.forEach(this::begin);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(before, after);
+            projects.forEach(this::end);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(before, after);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                projects.forEach(ProjectMetricsStore.this::end);
+            }
+        });
+    }
+
+    public void projectDeleted(UUID projectId) {
+        TransactionUtils.afterCommit(() -> drop(projectId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        for (UUID projectId : new ArrayList<>(snapshots.keySet())) {
+            if (!projectRepository.existsById(projectId)) {
+                drop(projectId);
+                continue;
+            }
+            int stripe = stripe(projectId);
+            long finishedBefore = finished.get(stripe);
+            // A write in flight would show up as drift; the next round looks again
+            if (pending.get(stripe) != 0) continue;
+            ProjectMetricsSnapshot fresh = load(projectId);
+            snapshots.computeIfPresent(projectId, (id, current) -> {
+                if (current.sameAs(fresh) || !unchangedSince(stripe, finishedBefore)) return current;
+                log.warn("Project metrics drift detected for project {}, replacing snapshot", projectId);
+                return fresh;
+            });
+        }
+    }
+
+    private void apply(TaskFacts before, TaskFacts after) {
+        // Projects nobody has looked at yet are built from the database on first read instead
+        if (before != null) snapshots.computeIfPresent(before.projectId, (id, snapshot) -> {
+            snapshot.apply(before, -1);
+            return snapshot;
+        });
+        if (after != null) snapshots.computeIfPresent(after.projectId, (id, snapshot) -> {
+            snapshot.apply(after, 1);
+            return snapshot;
+        });
+    }
+
+    private void begin(UUID projectId) {
+        pending.incrementAndGet(stripe(projectId));
+    }
+
+    private void end(UUID projectId) {
+        int stripe = stripe(projectId);
+        finished.incrementAndGet(stripe);
+        pending.decrementAndGet(stripe);
+    }
+
+    /**
+     * Drops a snapshot, marking its stripe so that a load already running is not kept.
+     */
+    private void drop(UUID projectId) {
+        begin(projectId);
+        try {
+            snapshots.remove(projectId);
+        } finally {
+            end(projectId);
+        }
+    }
+
+    private void dropAll() {
+        for (UUID projectId : new ArrayList<>(snapshots.keySet())) drop(projectId);
+        // Loads of projects not held yet may predate the missed changes too
+        for (int i = 0; i < STRIPES; i++) finished.incrementAndGet(i);
+    }
+
+    private boolean unchangedSince(int stripe, long finishedBefore) {
+        return pending.get(stripe) == 0 && finished.get(stripe) == finishedBefore;
+    }
+
+    private static int stripe(UUID projectId) {
+        return (projectId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    ProjectMetricsSnapshot load(UUID projectId) {
+        Objects.requireNonNull(projectId, "projectId");
+        ProjectMetricsSnapshot snapshot = new ProjectMetricsSnapshot(zone);
+        for (BucketCount row : taskRepository.countByStatus(projectId)) snapshot.putStatus(row.getBucket(), row.getTotal());
+        for (BucketCount row : taskRepository.countByPriority(projectId)) snapshot.putPriority(row.getBucket(), row.getTotal());
+        for (AssigneeCount row : taskRepository.countByAssignee(projectId)) snapshot.putAssignee(row.getAssigneeId(), row.getTotal());
+        for (DueDateCount row : taskRepository.countOpenByDueDate(projectId)) snapshot.putOpenDueDate(row.getDueDate(), row.getTotal());
+        for (DailyCount row : taskRepository.countCreatedPerDay(projectId)) snapshot.putCreated(row.getEventDay(), row.getTotal());
+        for (DailyCount row : taskRepository.countCompletedPerDay(projectId)) snapshot.putCompleted(row.getEventDay(), row.getTotal());
+        return snapshot;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.tasksmanage.analytics;
+
+import com.example.tasksmanage.model.Task;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The fields of a task that project metrics are derived from, captured at one point in time so
+ * a write can be expressed as "remove the old facts, add the new ones".
+ */
+public final class TaskFacts {
+    static final String COMPLETED = "COMPLETED";
+
+    final UUID projectId;
+    final String status;
+    final String priority;
+    final UUID assigneeId;
+    final Long createdMillis;
+    final Long completedMillis;
+    final Long openDueMillis;
+
+    private TaskFacts(Task task) {
+        this.projectId = task.getProject().getId();
+        this.status = task.getStatus();
+        this.priority = task.getPriority();
+        this.assigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+        this.createdMillis = millis(task.getCreatedAt());
+        // Same approximation as the aggregate queries: a completed task completed on its last update
+        boolean completed = COMPLETED.equals(task.getStatus());
+        this.completedMillis = completed ? millis(task.getUpdatedAt()) : null;
+        this.openDueMillis = !completed && task.getDueDate() != null ? task.getDueDate().getTime() : null;
+    }
+
+    /**
+     * Returns the facts for a task, or null when the task belongs to no project.
+     */
+    public static TaskFacts of(Task task) {
+        if (task == null || task.getProject() == null || task.getProject().getId() == null) return null;
+        return new TaskFacts(task);
+    }
+
+    private static Long millis(Date date) {
+        return date != null ? date.getTime() : null;
+    }
+
+    /**
+     * The calendar day of an instant in the zone the aggregate queries bucket by.
+     */
+    static LocalDate day(Long millis, ZoneId zone) {
+        if (millis == null) return null;
+        return Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+    }
+}
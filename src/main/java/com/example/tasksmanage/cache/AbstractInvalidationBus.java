@@ -0,0 +1,59 @@
+package com.example.tasksmanage.cache;
+
+import com.example.tasksmanage.util.TransactionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber bookkeeping and local delivery; subclasses carry messages to the other nodes.
+ */
+public abstract class AbstractInvalidationBus implements InvalidationBus {
+    private static final Logger log = LoggerFactory.getLogger(AbstractInvalidationBus.class);
+
+    // Identifies this node's own messages when the transport echoes them back
+    protected final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String entityType, Object id) {
+        String value = String.valueOf(id);
+        TransactionUtils.afterCommit(() -> {
+            deliver(entityType, value);
+            send(entityType, value);
+        });
+    }
+
+    @Override
+    public void subscribe(String entityType, Consumer<String> listener) {
+        subscribers.computeIfAbsent(entityType, type -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Sends the change to the other nodes.
+     */
+    protected abstract void send(String entityType, String id);
+
+    protected void deliver(String entityType, String id) {
+        for (Consumer<String> listener : subscribers.getOrDefault(entityType, List.of())) {
+            try {
+                listener.accept(id);
+            } catch (RuntimeException ex) {
+                log.warn("Invalidation listener for {} failed", entityType, ex);
+            }
+        }
+    }
+
+    /**
+     * Tells every subscriber to drop everything, for when messages may have been lost.
+     */
+    protected void deliverAll() {
+        subscribers.keySet().forEach(type -> deliver(type, ALL));
+    }
+}
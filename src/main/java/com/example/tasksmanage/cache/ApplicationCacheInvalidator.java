@@ -0,0 +1,43 @@
+package com.example.tasksmanage.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Evicts the Spring caches ({@code @Cacheable} results) for entity changes announced on the
+ * {@link InvalidationBus}, on this node as well as the others.
+ */
+@Component
+public class ApplicationCacheInvalidator {
+    private final CacheManager cacheManager;
+
+    public ApplicationCacheInvalidator(CacheManager cacheManager, InvalidationBus invalidationBus) {
+        this.cacheManager = cacheManager;
+        invalidationBus.subscribe(InvalidationBus.TASK, id -> evict("tasks", id));
+        invalidationBus.subscribe(InvalidationBus.PROJECT, id -> {
+            evict("projects", id);
+            // Cached task DTOs embed their project
+            evict("tasks", InvalidationBus.ALL);
+        });
+        invalidationBus.subscribe(InvalidationBus.USER, id -> {
+            // Username and email are the keys, so a renamed or deleted user can't be evicted by id
+            evict("user-ids", InvalidationBus.ALL);
+            // Cached project DTOs embed their members' summaries, and a user is on any number of projects
+            evict("projects", InvalidationBus.ALL);
+        });
+    }
+
+    private void evict(String cacheName, String id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) return;
+        // The immediate variants: deliveries already run after commit, where a deferred eviction would be dropped
+        if (InvalidationBus.ALL.equals(id)) {
+            cache.invalidate();
+        } else {
+            cache.evictIfPresent(UUID.fromString(id));
+        }
+    }
+}
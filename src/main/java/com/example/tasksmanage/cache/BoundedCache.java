@@ -0,0 +1,258 @@
+package com.example.tasksmanage.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded in-memory cache with expiry.
+ * <p>
+ * Reads are lock-free: a hash lookup plus a couple of volatile field writes. Once the cache holds more
+ * than {@code maximumSize} entries, writers evict with the CLOCK algorithm, an approximation of LRU:
+ * entries queue up in insertion order and one read since the hand last passed it gets a second chance.
+ * Entries expire a fixed time after being written and/or last read, or at a deadline given with the
+ * entry, whichever comes first; expired entries are dropped when read or reached by the hand.
+ * <p>
+ * With frequency admission (TinyLFU), reads are also counted in a {@link FrequencySketch}, and a new
+ * entry that would push out the CLOCK victim is only kept if it has been asked for at least as often
+ * recently; otherwise the new entry is dropped instead. One-off lookups (scans, crawlers) then no
+ * longer flush out the hot set.
+ */
+public class BoundedCache<K, V> {
+    private final long maximumSize;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final LongSupplier ticker;
+    private final FrequencySketch sketch;
+    private final Map<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long deadline;
+        volatile long accessedAt;
+        volatile boolean referenced;
+        volatile boolean removed;
+
+        Node(K key, V value, long deadline, long now) {
+            this.key = key;
+            this.value = value;
+            this.deadline = deadline;
+            this.accessedAt = now;
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counts since the cache was created.
+     */
+    public record Stats(long hits, long misses, long evictions) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+    }
+
+    /**
+     * @param expireAfterWrite  null to not expire by age
+     * @param expireAfterAccess null to not expire idle entries
+     */
+    public BoundedCache(long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {
+        this(maximumSize, expireAfterWrite, expireAfterAccess, false);
+    }
+
+    /**
+     * @param frequencyAdmission whether entries compete with the eviction victim on recent read frequency
+     */
+    public BoundedCache(long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess, boolean frequencyAdmission) {
+        this(maximumSize, expireAfterWrite, expireAfterAccess, frequencyAdmission, System::nanoTime);
+    }
+
+    BoundedCache(long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess,
+                 boolean frequencyAdmission, LongSupplier ticker) {
+        if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be positive");
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWrite != null ? expireAfterWrite.toNanos() : 0;
+        this.expireAfterAccessNanos = expireAfterAccess != null ? expireAfterAccess.toNanos() : 0;
+        this.ticker = ticker;
+        this.sketch = frequencyAdmission ? new FrequencySketch(maximumSize) : null;
+    }
+
+    public V getIfPresent(K key) {
+        if (sketch != null) sketch.increment(key);
+        Node<K, V> node = map.get(key);
+        long now = ticker.getAsLong();
+        if (node == null || expire(node, now)) {
+            misses.increment();
+            return null;
+        }
+        touch(node, now);
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * Returns the cached value, computing and caching it on a miss. The loader runs at most once per
+     * key at a time, while other writers of keys hashing nearby wait, so it should be cheap; a null
+     * result is returned without being cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) return cached;
+        long now = ticker.getAsLong();
+        Node<K, V>[] created = newNodeHolder();
+        Node<K, V> node = map.compute(key, (k, existing) -> {
+            if (existing != null && !isExpired(existing, now)) return existing;
+            if (existing != null) existing.removed = true;
+            V value = loader.apply(k);
+            if (value == null) return null;
+            created[0] = new Node<>(k, value, deadline(now, Long.MAX_VALUE), now);
+            return created[0];
+        });
+        if (created[0] != null) admitted(created[0]);
+        return node != null ? node.value : null;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, Long.MAX_VALUE);
+    }
+
+    /**
+     * Caches the value until {@code expiresAt} (epoch millis) at the latest, on top of the cache's own expiry.
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        long now = ticker.getAsLong();
+        long explicit = expiresAtMillis == Long.MAX_VALUE
+                ? Long.MAX_VALUE
+                : now + Duration.ofMillis(Math.max(0, expiresAtMillis - System.currentTimeMillis())).toNanos();
+        Node<K, V> node = new Node<>(key, value, deadline(now, explicit), now);
+        Node<K, V> previous = map.put(key, node);
+        if (previous != null) previous.removed = true;
+        admitted(node);
+    }
+
+    public void invalidate(K key) {
+        Node<K, V> node = map.remove(key);
+        if (node != null) node.removed = true;
+    }
+
+    public void invalidateIf(Predicate<? super K> predicate) {
+        map.values().removeIf(node -> {
+            if (!predicate.test(node.key)) return false;
+            node.removed = true;
+            return true;
+        });
+    }
+
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+    }
+
+    /**
+     * Drops every expired entry now rather than when it is next read or evicted.
+     */
+    public void cleanUp() {
+        long now = ticker.getAsLong();
+        map.values().removeIf(node -> {
+            if (!isExpired(node, now)) return false;
+            node.removed = true;
+            return true;
+        });
+        purgeRemoved();
+    }
+
+    public long size() {
+        return map.size();
+    }
+
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private void admitted(Node<K, V> node) {
+        clock.offer(node);
+        if (clockSize.incrementAndGet() > 2 * maximumSize + 64) {
+            // Replaced and invalidated nodes wait in the queue until the hand reaches them; purge them
+            // when they pile up while the cache is under its bound
+            purgeRemoved();
+        }
+        if (map.size() > maximumSize) evict(node);
+    }
+
+    private void evict(Node<K, V> candidate) {
+        long now = ticker.getAsLong();
+        // Two passes over the queue are enough to clear every reference bit once
+        long budget = 2L * clockSize.get() + 1;
+        while (map.size() > maximumSize && budget-- > 0) {
+            Node<K, V> node = clock.poll();
+            if (node == null) return;
+            clockSize.decrementAndGet();
+            if (node.removed) continue;
+            if (node.referenced && !isExpired(node, now)) {
+                node.referenced = false;
+                clock.offer(node);
+                clockSize.incrementAndGet();
+                continue;
+            }
+            if (sketch != null && node != candidate && !candidate.removed && !isExpired(node, now)
+                    && sketch.frequency(candidate.key) < sketch.frequency(node.key)) {
+                // The victim has been read more often recently than the newcomer: keep it, drop the newcomer
+                clock.offer(node);
+                clockSize.incrementAndGet();
+                node = candidate;
+            }
+            node.removed = true;
+            if (map.remove(node.key, node)) evictions.increment();
+        }
+    }
+
+    private void purgeRemoved() {
+        clock.removeIf(node -> {
+            if (!node.removed) return false;
+            clockSize.decrementAndGet();
+            return true;
+        });
+    }
+
+    private boolean expire(Node<K, V> node, long now) {
+        if (!isExpired(node, now)) return false;
+        node.removed = true;
+        map.remove(node.key, node);
+        return true;
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        if (node.removed || (node.deadline != Long.MAX_VALUE && now - node.deadline > 0)) return true;
+        return expireAfterAccessNanos > 0 && now - node.accessedAt > expireAfterAccessNanos;
+    }
+
+    private void touch(Node<K, V> node, long now) {
+        // Skip redundant volatile writes on hot entries
+        if (!node.referenced) node.referenced = true;
+        if (expireAfterAccessNanos > 0) node.accessedAt = now;
+    }
+
+    private long deadline(long now, long explicit) {
+        long byAge = expireAfterWriteNanos > 0 ? now + expireAfterWriteNanos : Long.MAX_VALUE;
+        return Math.min(byAge, explicit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] newNodeHolder() {
+        return (Node<K, V>[]) new Node[1];
+    }
+}
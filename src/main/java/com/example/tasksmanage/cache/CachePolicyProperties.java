@@ -0,0 +1,59 @@
+package com.example.tasksmanage.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and expiry of the application caches ({@code app.cache}). Caches not listed under
+ * {@code specs} are created on first use with the {@code defaults}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CachePolicyProperties {
+    private Spec defaults = new Spec();
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+    private SharedTier sharedTier = new SharedTier();
+
+    public static class Spec {
+        private long maximumSize = 10_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+        private Duration expireAfterAccess;
+        // Whether a new entry has to out-rank the eviction victim on recent reads to be kept
+        private boolean frequencyAdmission = true;
+        // Whether the cache also reads and writes the shared tier, when that is enabled
+        private boolean shared = true;
+
+        public long getMaximumSize() { return maximumSize; }
+        public void setMaximumSize(long maximumSize) { this.maximumSize = maximumSize; }
+        public Duration getExpireAfterWrite() { return expireAfterWrite; }
+        public void setExpireAfterWrite(Duration expireAfterWrite) { this.expireAfterWrite = expireAfterWrite; }
+        public Duration getExpireAfterAccess() { return expireAfterAccess; }
+        public void setExpireAfterAccess(Duration expireAfterAccess) { this.expireAfterAccess = expireAfterAccess; }
+        public boolean isFrequencyAdmission() { return frequencyAdmission; }
+        public void setFrequencyAdmission(boolean frequencyAdmission) { this.frequencyAdmission = frequencyAdmission; }
+        public boolean isShared() { return shared; }
+        public void setShared(boolean shared) { this.shared = shared; }
+    }
+
+    public static class SharedTier {
+        private boolean enabled = false;
+        // Expiry in the shared tier for caches without expire-after-write
+        private Duration defaultTtl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public Duration getDefaultTtl() { return defaultTtl; }
+        public void setDefaultTtl(Duration defaultTtl) { this.defaultTtl = defaultTtl; }
+    }
+
+    public Spec getDefaults() { return defaults; }
+    public void setDefaults(Spec defaults) { this.defaults = defaults; }
+    public Map<String, Spec> getSpecs() { return specs; }
+    public void setSpecs(Map<String, Spec> specs) { this.specs = specs; }
+    public SharedTier getSharedTier() { return sharedTier; }
+    public void setSharedTier(SharedTier sharedTier) { this.sharedTier = sharedTier; }
+}
@@ -0,0 +1,85 @@
+package com.example.tasksmanage.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate access frequency of keys over the recent past (a count-min sketch of 4-bit counters).
+ * <p>
+ * Each key maps to one counter in each of four 16-counter rows packed into longs; its frequency is the
+ * smallest of the four, which overestimates only on collisions. Once the number of recorded accesses
+ * reaches ten times the cache size, every counter is halved so that keys that were popular long ago
+ * age out. Concurrent increments are lock-free; a racing reset may lose a few of them, which only
+ * makes the estimate slightly lower.
+ */
+final class FrequencySketch {
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger samples = new AtomicInteger();
+
+    FrequencySketch(long maximumSize) {
+        int length = (int) Math.min(1 << 24, Math.max(16, Long.highestOneBit(Math.max(1, maximumSize - 1)) << 1));
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE / 2, 10 * Math.max(maximumSize, 16));
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int offset = counterOffset(hash, i);
+            frequency = Math.min(frequency, (int) ((table.get(index) >>> offset) & 0xfL));
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), counterOffset(hash, i));
+        }
+        if (added && samples.incrementAndGet() >= sampleSize) reset();
+    }
+
+    private boolean incrementAt(int index, int offset) {
+        long mask = 0xfL << offset;
+        while (true) {
+            long current = table.get(index);
+            if ((current & mask) == mask) return false;
+            if (table.compareAndSet(index, current, current + (1L << offset))) return true;
+        }
+    }
+
+    private void reset() {
+        samples.set(0);
+        for (int i = 0; i < table.length(); i++) {
+            long current = table.get(i);
+            table.compareAndSet(i, current, (current >>> 1) & RESET_MASK);
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    // Each key uses a different one of the 16 counters of its long in each row
+    private static int counterOffset(int hash, int row) {
+        return (((hash >>> (row << 3)) & 3) << 2 | row) << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tasksmanage.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Invalidation bus within one JVM, for single-node runs and tests. Buses created with
+ * {@link #newPeer()} form a network and receive each other's messages, standing in for other nodes.
+ */
+public class InMemoryInvalidationBus extends AbstractInvalidationBus {
+    private final List<InMemoryInvalidationBus> network;
+
+    public InMemoryInvalidationBus() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private InMemoryInvalidationBus(List<InMemoryInvalidationBus> network) {
+        this.network = network;
+        network.add(this);
+    }
+
+    public InMemoryInvalidationBus newPeer() {
+        return new InMemoryInvalidationBus(network);
+    }
+
+    @Override
+    protected void send(String entityType, String id) {
+        for (InMemoryInvalidationBus peer : network) {
+            if (peer != this) peer.deliver(entityType, id);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.tasksmanage.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts entity changes to every node so that node-local caches can drop what they hold about the
+ * entity. Messages carry only the entity type and id; each cache decides what to evict.
+ */
+public interface InvalidationBus {
+    // Id meaning "every entity of the type", also sent when a node may have missed messages
+    String ALL = "*";
+
+    String TASK = "task";
+    String PROJECT = "project";
+    // Id: projectId + ":" + userId
+    String PROJECT_MEMBERSHIP = "project-membership";
+    String USER = "user";
+    String COMMENT = "comment";
+    // Id: projectId + ":" + the writing node's metrics store id; sent for task writes
+    String PROJECT_METRICS = "project-metrics";
+    // Id: the key's cache digest, never the key itself
+    String API_KEY = "api-key";
+
+    /**
+     * Announces a change once the current transaction commits (at once when there is none), to the
+     * subscribers on every node, this one included. Nothing is sent if the transaction rolls back.
+     */
+    void publish(String entityType, Object id);
+
+    /**
+     * Registers a listener for changes to one entity type. Listeners run on a bus thread or on the
+     * publishing thread, must be quick and must treat {@link #ALL} as "evict everything of the type".
+     */
+    void subscribe(String entityType, Consumer<String> listener);
+}
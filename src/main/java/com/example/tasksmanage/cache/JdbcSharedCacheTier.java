@@ -0,0 +1,104 @@
+package com.example.tasksmanage.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@link SharedCacheTier} in the {@code cache_entries} table, for deployments without a dedicated
+ * cache server. Values are stored as JSON with their class name; only application and JDK value
+ * types are read back. Expired rows are ignored on read and purged periodically.
+ */
+public class JdbcSharedCacheTier implements SharedCacheTier {
+    private static final Logger log = LoggerFactory.getLogger(JdbcSharedCacheTier.class);
+    private static final List<String> READABLE_PACKAGES = List.of("com.example.tasksmanage.", "java.lang.", "java.util.");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public JdbcSharedCacheTier(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        try {
+            List<Object> values = jdbcTemplate.query(
+                    "SELECT value_type, payload FROM cache_entries WHERE cache_name = ? AND cache_key = ? AND expires_at > ?",
+                    (rs, rowNum) -> read(rs.getString(1), rs.getString(2)),
+                    cacheName, key.toString(), Timestamp.from(Instant.now()));
+            return values.isEmpty() ? null : values.get(0);
+        } catch (DataAccessException ex) {
+            log.warn("Shared cache read failed for {}: {}", cacheName, ex.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration ttl) {
+        try {
+            String payload = objectMapper.writeValueAsString(value);
+            Timestamp expiresAt = Timestamp.from(Instant.now().plus(ttl));
+            String type = value.getClass().getName();
+            int updated = jdbcTemplate.update(
+                    "UPDATE cache_entries SET value_type = ?, payload = ?, expires_at = ? WHERE cache_name = ? AND cache_key = ?",
+                    type, payload, expiresAt, cacheName, key.toString());
+            if (updated == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO cache_entries (cache_name, cache_key, value_type, payload, expires_at) VALUES (?, ?, ?, ?, ?)",
+                        cacheName, key.toString(), type, payload, expiresAt);
+            }
+        } catch (DuplicateKeyException ex) {
+            // Another node cached the same key first
+        } catch (Exception ex) {
+            log.warn("Shared cache write failed for {}: {}", cacheName, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        try {
+            jdbcTemplate.update("DELETE FROM cache_entries WHERE cache_name = ? AND cache_key = ?", cacheName, key.toString());
+        } catch (DataAccessException ex) {
+            log.warn("Shared cache evict failed for {}: {}", cacheName, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        try {
+            jdbcTemplate.update("DELETE FROM cache_entries WHERE cache_name = ?", cacheName);
+        } catch (DataAccessException ex) {
+            log.warn("Shared cache clear failed for {}: {}", cacheName, ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeExpired() {
+        try {
+            jdbcTemplate.update("DELETE FROM cache_entries WHERE expires_at <= ?", Timestamp.from(Instant.now()));
+        } catch (DataAccessException ex) {
+            log.warn("Shared cache purge failed: {}", ex.getMessage());
+        }
+    }
+
+    private Object read(String type, String payload) {
+        if (READABLE_PACKAGES.stream().noneMatch(type::startsWith)) return null;
+        try {
+            return objectMapper.readValue(payload, Class.forName(type));
+        } catch (Exception ex) {
+            // Written by a node with a different version of the class; treat as a miss
+            return null;
+        }
+    }
+}
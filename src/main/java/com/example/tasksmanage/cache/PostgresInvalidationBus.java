@@ -0,0 +1,156 @@
+package com.example.tasksmanage.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Invalidation bus over PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Messages are sent with {@code pg_notify} after commit. Each node listens on a connection of its own,
+ * opened outside the pool (a listening connection is never returned, so it would cost the pool a
+ * connection for good), and polled by a daemon thread. If that connection drops, notifications sent
+ * meanwhile are lost, so after reconnecting every subscriber is told to drop everything.
+ */
+public class PostgresInvalidationBus extends AbstractInvalidationBus implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    static final String CHANNEL = "cache_invalidation";
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long INITIAL_RECONNECT_DELAY_MS = 1000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    /**
+     * A listening session on {@link #CHANNEL}.
+     */
+    interface Listener extends AutoCloseable {
+        /**
+         * Payloads received since the last call, waiting up to {@code timeoutMillis} for the first one.
+         */
+        List<String> poll(int timeoutMillis) throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface ListenerFactory {
+        Listener listen() throws SQLException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListenerFactory listenerFactory;
+    private final long initialReconnectDelayMs;
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, String url, String username, String password) {
+        this(jdbcTemplate, () -> listen(DriverManager.getConnection(url, username, password)), INITIAL_RECONNECT_DELAY_MS);
+    }
+
+    PostgresInvalidationBus(JdbcTemplate jdbcTemplate, ListenerFactory listenerFactory, long initialReconnectDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listenerFactory = listenerFactory;
+        this.initialReconnectDelayMs = initialReconnectDelayMs;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(POLL_TIMEOUT_MS * 2L);
+        }
+    }
+
+    @Override
+    protected void send(String entityType, String id) {
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, nodeId + "|" + entityType + "|" + id);
+        } catch (DataAccessException ex) {
+            log.warn("Could not broadcast invalidation of {} {}: {}", entityType, id, ex.getMessage());
+        }
+    }
+
+    private void listen() {
+        long delay = initialReconnectDelayMs;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Listener session = listenerFactory.listen()) {
+                if (connectedBefore) deliverAll();
+                connectedBefore = true;
+                delay = initialReconnectDelayMs;
+                while (running) {
+                    for (String payload : session.poll(POLL_TIMEOUT_MS)) receive(payload);
+                }
+            } catch (SQLException ex) {
+                if (!running) return;
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}", delay, ex.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    void receive(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        // Own messages were already delivered locally when published
+        if (parts.length != 3 || parts[0].equals(nodeId)) return;
+        deliver(parts[1], parts[2]);
+    }
+
+    private static Listener listen(Connection connection) throws SQLException {
+        PGConnection pg;
+        try {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+            }
+            pg = connection.unwrap(PGConnection.class);
+        } catch (SQLException ex) {
+            connection.close();
+            throw ex;
+        }
+        return new Listener() {
+            @Override
+            public List<String> poll(int timeoutMillis) throws SQLException {
+                PGNotification[] notifications = pg.getNotifications(timeoutMillis);
+                List<String> payloads = new ArrayList<>();
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) payloads.add(notification.getParameter());
+                }
+                return payloads;
+            }
+
+            @Override
+            public void close() throws SQLException {
+                connection.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.tasksmanage.cache;
+
+import java.time.Duration;
+
+/**
+ * Second cache tier shared by all nodes, consulted on a miss in a node's own {@link TieredCache}.
+ * <p>
+ * Implementations must not throw: an unavailable tier behaves like a miss, and failed writes are dropped.
+ */
+public interface SharedCacheTier {
+    /**
+     * Returns the cached value, or null if absent or expired.
+     */
+    Object get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value, Duration ttl);
+
+    void evict(String cacheName, Object key);
+
+    void clear(String cacheName);
+}
@@ -0,0 +1,100 @@
+package com.example.tasksmanage.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} over a node-local {@link BoundedCache}, optionally
+ * backed by a {@link SharedCacheTier}: a local miss is looked up there before the caller loads the
+ * value, and writes and evictions go to both tiers. Null values are not cached.
+ */
+public class TieredCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final BoundedCache<Object, Object> local;
+    private final SharedCacheTier shared;
+    private final Duration sharedTtl;
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+
+    /**
+     * @param shared null for a local-only cache
+     */
+    public TieredCache(String name, BoundedCache<Object, Object> local, SharedCacheTier shared, Duration sharedTtl) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.sharedTtl = sharedTtl;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BoundedCache<Object, Object> getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null || shared == null) return value;
+        value = shared.get(name, key);
+        if (value != null) {
+            sharedHits.increment();
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) return (T) fromStoreValue(cached);
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        puts.increment();
+        local.put(key, value);
+        if (shared != null) shared.put(name, key, value, sharedTtl);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        if (shared != null) shared.evict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (shared != null) shared.clear(name);
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long sharedHitCount() {
+        return sharedHits.sum();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.tasksmanage.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.Collection;
+
+/**
+ * Creates {@link TieredCache}s from {@link CachePolicyProperties}. Writes and evictions made inside a
+ * transaction are applied once it commits, so a rolled-back change never reaches the cache.
+ */
+public class TieredCacheManager extends AbstractTransactionSupportingCacheManager {
+    private final CachePolicyProperties properties;
+    private final SharedCacheTier sharedTier;
+
+    /**
+     * @param sharedTier null to keep every cache node-local
+     */
+    public TieredCacheManager(CachePolicyProperties properties, SharedCacheTier sharedTier) {
+        this.properties = properties;
+        this.sharedTier = sharedTier;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return properties.getSpecs().entrySet().stream()
+                .map(entry -> createCache(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name, properties.getDefaults());
+    }
+
+    private Cache createCache(String name, CachePolicyProperties.Spec spec) {
+        BoundedCache<Object, Object> local = new BoundedCache<>(spec.getMaximumSize(),
+                spec.getExpireAfterWrite(), spec.getExpireAfterAccess(), spec.isFrequencyAdmission());
+        SharedCacheTier shared = spec.isShared() ? sharedTier : null;
+        return new TieredCache(name, local, shared,
+                spec.getExpireAfterWrite() != null ? spec.getExpireAfterWrite() : properties.getSharedTier().getDefaultTtl());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.tasksmanage.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes a {@link TieredCache}'s size, hits, misses, puts and evictions as the standard
+ * {@code cache.*} meters, plus its maximum size and shared-tier hits.
+ */
+public class TieredCacheMeterBinder extends CacheMeterBinder<TieredCache> {
+    public TieredCacheMeterBinder(TieredCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TieredCache cache = getCache();
+        return cache != null ? cache.getNativeCache().size() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TieredCache cache = getCache();
+        return cache != null ? cache.getNativeCache().stats().hits() : 0;
+    }
+
+    @Override
+    protected Long missCount() {
+        TieredCache cache = getCache();
+        return cache != null ? cache.getNativeCache().stats().misses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TieredCache cache = getCache();
+        return cache != null ? cache.getNativeCache().stats().evictions() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        TieredCache cache = getCache();
+        return cache != null ? cache.putCount() : 0;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TieredCache cache = getCache();
+        if (cache == null) return;
+        Gauge.builder("cache.max.size", cache, c -> c.getNativeCache().maximumSize())
+                .tags(getTagsWithCacheName())
+                .description("The maximum number of entries the cache holds")
+                .register(registry);
+        FunctionCounter.builder("cache.shared.hits", cache, TieredCache::sharedHitCount)
+                .tags(getTagsWithCacheName())
+                .description("Local misses served from the shared tier")
+                .register(registry);
+    }
+}
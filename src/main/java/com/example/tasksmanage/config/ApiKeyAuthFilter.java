@@ -16,6 +16,9 @@ import java.io.IOException;
 
 @Component
 public class ApiKeyAuthFilter extends org.springframework.web.filter.OncePerRequestFilter {
+    // Id of the key the request was authenticated with; absent for missing, unknown or revoked keys
+    public static final String API_KEY_ID_ATTRIBUTE = ApiKeyAuthFilter.class.getName() + ".apiKeyId";
+
     @Autowired
     private ApiKeyService apiKeyService;
 
@@ -30,6 +33,7 @@ public class ApiKeyAuthFilter extends org.springframework.web.filter.OncePerRequ
                         key.getUserId(), null, java.util.Collections.emptyList());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(API_KEY_ID_ATTRIBUTE, key.getId());
             }
         }
         filterChain.doFilter(request, response);
@@ -1,16 +1,33 @@
 package com.example.tasksmanage.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-import java.util.concurrent.Executor;
 
+/**
+ * Executors for blocking outbound I/O (webhook HTTP calls, SMTP) and {@code @Async} methods.
+ * <p>
+ * With {@code app.io.virtual-threads} (the default) every task gets its own virtual thread, so
+ * thousands of sends can wait on slow peers without sizing a pool; how many hit one destination at
+ * once is limited by the callers through {@link com.example.tasksmanage.util.DestinationLimiter}.
+ * Turning it off falls back to bounded platform thread pools.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
+    @Value("${app.io.virtual-threads:true}")
+    private boolean virtualThreads;
+    // Upper bound on concurrently running virtual-thread tasks; submitters block beyond it
+    @Value("${app.io.max-in-flight:10000}")
+    private int maxInFlight;
+
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public AsyncTaskExecutor taskExecutor() {
+        if (virtualThreads) return virtualThreadExecutor("Async-");
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4);
         executor.setMaxPoolSize(8);
@@ -19,4 +36,24 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // Webhook sends and outgoing mail
+    @Bean(name = "ioExecutor")
+    public AsyncTaskExecutor ioExecutor(@Value("${app.io.platform-workers:16}") int workers) {
+        if (virtualThreads) return virtualThreadExecutor("io-");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("io-");
+        executor.initialize();
+        return executor;
+    }
+
+    private AsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxInFlight);
+        return executor;
+    }
 }
@@ -1,17 +1,57 @@
 package com.example.tasksmanage.config;
 
+import com.example.tasksmanage.cache.CachePolicyProperties;
+import com.example.tasksmanage.cache.InMemoryInvalidationBus;
+import com.example.tasksmanage.cache.InvalidationBus;
+import com.example.tasksmanage.cache.JdbcSharedCacheTier;
+import com.example.tasksmanage.cache.PostgresInvalidationBus;
+import com.example.tasksmanage.cache.TieredCache;
+import com.example.tasksmanage.cache.TieredCacheManager;
+import com.example.tasksmanage.cache.TieredCacheMeterBinder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
     @Bean
-    public CacheManager cacheManager() {
-        // For production, replace with RedisCacheManager
-        return new ConcurrentMapCacheManager("default");
+    public CacheManager cacheManager(CachePolicyProperties properties, ObjectProvider<JdbcSharedCacheTier> sharedTier) {
+        return new TieredCacheManager(properties, sharedTier.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.shared-tier.enabled", havingValue = "true")
+    public JdbcSharedCacheTier jdbcSharedCacheTier(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        return new JdbcSharedCacheTier(jdbcTemplate, objectMapper);
+    }
+
+    /**
+     * Cross-node cache invalidation: {@code postgres} (LISTEN/NOTIFY) when several nodes share the
+     * database, {@code memory} for a single node. The postgres listener connects with the datasource's
+     * settings but outside its pool.
+     */
+    @Bean
+    public InvalidationBus invalidationBus(@Value("${app.cache.invalidation.transport:memory}") String transport,
+                                           DataSourceProperties dataSource, JdbcTemplate jdbcTemplate) {
+        if ("postgres".equalsIgnoreCase(transport)) {
+            return new PostgresInvalidationBus(jdbcTemplate, dataSource.determineUrl(),
+                    dataSource.determineUsername(), dataSource.determinePassword());
+        }
+        if ("memory".equalsIgnoreCase(transport)) return new InMemoryInvalidationBus();
+        throw new IllegalArgumentException("Unknown app.cache.invalidation.transport: " + transport);
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return TieredCacheMeterBinder::new;
     }
 }
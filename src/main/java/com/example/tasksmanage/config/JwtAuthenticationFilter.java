@@ -1,13 +1,18 @@
 package com.example.tasksmanage.config;
 
+import com.example.tasksmanage.cache.BoundedCache;
+import com.example.tasksmanage.util.Digests;
 import com.example.tasksmanage.util.JwtUtil;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,10 +21,19 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Authenticates Bearer tokens.
+ * <p>
+ * A token is verified (signature and expiry) once; the resulting principal and authorities are then
+ * cached under the token's SHA-256 digest until the token expires, so repeat requests with the same
+ * token skip parsing and HMAC verification. Only valid tokens are cached; the raw token is not kept.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
@@ -27,32 +41,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private final BoundedCache<String, VerifiedToken> verifiedTokens;
+
+    record VerifiedToken(String username, List<GrantedAuthority> authorities) {
+    }
+
+    public JwtAuthenticationFilter(@Value("${app.security.jwt-cache-size:10000}") long cacheSize) {
+        this.verifiedTokens = new BoundedCache<>(cacheSize, null, null);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String jwt = getJwtFromRequest(request);
+        VerifiedToken verified = StringUtils.hasText(jwt) ? verify(jwt) : null;
         if (!StringUtils.hasText(jwt)) {
             // Debug: no Authorization header
             if (isDebugEnabled()) {
                 log.debug("[JWT] No Bearer token for {} {}", request.getMethod(), request.getRequestURI());
             }
-        } else if (jwtUtil.isTokenValid(jwt)) {
-            Claims claims = jwtUtil.getClaims(jwt);
-            String username = claims.getSubject();
+        } else if (verified != null) {
             if (isDebugEnabled()) {
-                log.debug("[JWT] Valid token for user={} path={}", username, request.getRequestURI());
+                log.debug("[JWT] Valid token for user={} path={}", verified.username(), request.getRequestURI());
             }
-            // Extract roles claim and convert to Spring authorities (ROLE_*)
-            List<?> rolesClaim = claims.get("roles", List.class);
-            List<SimpleGrantedAuthority> authorities = rolesClaim != null
-                    ? rolesClaim.stream()
-                    .map(Object::toString)
-                    .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r)
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList())
-                    : Collections.emptyList();
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    username, null, authorities);
+                    verified.username(), null, verified.authorities());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authentication);
         } else {
@@ -63,6 +76,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Returns the token's principal, from the cache or by parsing it once, or null if the token is invalid.
+     */
+    VerifiedToken verify(String jwt) {
+        String digest = Base64.getEncoder().withoutPadding().encodeToString(Digests.sha256(jwt));
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) return cached;
+        Claims claims;
+        try {
+            claims = jwtUtil.getClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        // Extract roles claim and convert to Spring authorities (ROLE_*)
+        List<?> rolesClaim = claims.get("roles", List.class);
+        List<GrantedAuthority> authorities = rolesClaim != null
+                ? rolesClaim.stream()
+                .map(Object::toString)
+                .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList())
+                : Collections.emptyList();
+        VerifiedToken token = new VerifiedToken(claims.getSubject(), authorities);
+        Date expiration = claims.getExpiration();
+        // Tokens without an expiry are never cached, so they are re-verified every time
+        if (expiration != null) verifiedTokens.put(digest, token, expiration.getTime());
+        return token;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
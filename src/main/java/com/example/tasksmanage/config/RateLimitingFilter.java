@@ -1,42 +1,81 @@
 package com.example.tasksmanage.config;
 
-import jakarta.servlet.Filter;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.ratelimit.RateLimitProperties;
+import com.example.tasksmanage.ratelimit.RateLimiter;
+import com.example.tasksmanage.ratelimit.SlidingWindowCounter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletRequest;
-import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Applies the {@link RateLimiter} policy matching each request, counting it against the caller's
+ * user id, API key or IP (per the policy's key order), and reports the quota in {@code RateLimit-*}
+ * headers. Runs after the authentication filters so authenticated callers are limited per user.
+ */
 @Component
-public class RateLimitingFilter implements Filter {
-    private static final int MAX_REQUESTS_PER_MINUTE = 60;
-    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
-    private final Map<String, Long> lastReset = new ConcurrentHashMap<>();
+public class RateLimitingFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+
+    public RateLimitingFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
-        if (request instanceof HttpServletRequest httpRequest) {
-            String ip = httpRequest.getRemoteAddr();
-            long now = System.currentTimeMillis();
-            lastReset.putIfAbsent(ip, now);
-            if (now - lastReset.get(ip) > 60000) {
-                requestCounts.put(ip, new AtomicInteger(0));
-                lastReset.put(ip, now);
-            }
-            int count = requestCounts.computeIfAbsent(ip, k -> new AtomicInteger(0)).incrementAndGet();
-            if (count > MAX_REQUESTS_PER_MINUTE) {
-                ((HttpServletResponse) response).setStatus(429); // 429 Too Many Requests
-                response.getWriter().write("Rate limit exceeded");
-                return;
-            }
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        RateLimitProperties.Policy policy = rateLimiter.isEnabled()
+                ? rateLimiter.policyFor(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()))
+                : null;
+        if (policy == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        SlidingWindowCounter.Decision decision = rateLimiter.tryAcquire(policy, clientKey(request, policy));
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        response.setHeader("RateLimit-Policy", policy.getLimit() + ";w=" + policy.getWindow().toSeconds());
+        if (!decision.allowed()) {
+            response.setStatus(429); // 429 Too Many Requests
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.resetSeconds()));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"success\":false,\"message\":\"Rate limit exceeded\",\"data\":null}");
+            return;
         }
         chain.doFilter(request, response);
     }
+
+    private static String clientKey(HttpServletRequest request, RateLimitProperties.Policy policy) {
+        for (RateLimitProperties.KeyType type : policy.getKeys()) {
+            switch (type) {
+                case USER -> {
+                    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                    if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+                        // JWT principals are usernames, API key principals user ids
+                        Object principal = auth.getPrincipal();
+                        return "user:" + (principal instanceof User user ? user.getId() : principal);
+                    }
+                }
+                case API_KEY -> {
+                    // Only keys that authenticated the request: a raw header value would give every
+                    // made-up key a fresh quota
+                    Object apiKeyId = request.getAttribute(ApiKeyAuthFilter.API_KEY_ID_ATTRIBUTE);
+                    if (apiKeyId != null) return "key:" + apiKeyId;
+                }
+                case IP -> {
+                    return "ip:" + request.getRemoteAddr();
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
 }
@@ -9,6 +9,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.Map;
 
 @RestController
@@ -25,9 +26,10 @@ public class ActivityLogController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportActivities(@RequestParam Map<String, String> filters,
-                                                  @RequestParam(defaultValue = "csv") String format) {
-        byte[] data = activityLogService.exportActivities(filters, format);
+    public ResponseEntity<StreamingResponseBody> exportActivities(@RequestParam Map<String, String> filters,
+                                                                  @RequestParam(defaultValue = "csv") String format) {
+        // Rows are written to the response as they are read, so memory use doesn't grow with the export
+        StreamingResponseBody data = out -> activityLogService.exportActivities(filters, format, out);
         String filename = "activities." + format;
         return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
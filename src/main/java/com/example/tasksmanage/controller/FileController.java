@@ -1,31 +1,44 @@
 package com.example.tasksmanage.controller;
 
 import com.example.tasksmanage.model.Attachment;
+import com.example.tasksmanage.model.StoredBlob;
 import com.example.tasksmanage.repository.AttachmentRepository;
 import com.example.tasksmanage.model.Task;
 import com.example.tasksmanage.repository.TaskRepository;
 import com.example.tasksmanage.model.User;
 import com.example.tasksmanage.service.AttachmentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.example.tasksmanage.storage.BlobStore;
+import com.example.tasksmanage.storage.ChunkedUploadStore;
+import com.example.tasksmanage.storage.GzipFileResource;
+import com.example.tasksmanage.storage.StorageProperties;
+import com.example.tasksmanage.storage.codec.IdentityCodec;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/files")
 public class FileController {
-    private final Path fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
+    private final Path fileStorageLocation;
 
     @Autowired
     private AttachmentRepository attachmentRepository;
@@ -33,8 +46,13 @@ public class FileController {
     private TaskRepository taskRepository;
     @Autowired
     private AttachmentService attachmentService;
+    @Autowired
+    private ChunkedUploadStore uploadStore;
+    @Autowired
+    private BlobStore blobStore;
 
-    public FileController() {
+    public FileController(StorageProperties storage) {
+        this.fileStorageLocation = storage.uploadRoot();
         try {
             Files.createDirectories(fileStorageLocation);
         } catch (Exception ex) {
@@ -48,64 +66,211 @@ public class FileController {
                                  @AuthenticationPrincipal User user) {
         try {
             attachmentService.validateFile(file);
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path targetLocation = fileStorageLocation.resolve(fileName);
-            byte[] compressed = attachmentService.compress(file.getBytes());
-            Files.write(targetLocation, compressed, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            Attachment attachment = new Attachment();
-            attachment.setFileName(fileName);
-            attachment.setFileType(file.getContentType());
-            attachment.setFileSize(file.getSize());
-            attachment.setUrl("/api/v1/files/" + fileName);
-            if (taskId != null) {
-                Task task = taskRepository.findById(taskId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-                attachment.setTask(task);
+            Task task = taskId != null ? findTask(taskId) : null;
+            try (InputStream in = file.getInputStream()) {
+                return store(in, file.getOriginalFilename(), file.getContentType(), task, user);
             }
-            attachment.setUploadedBy(user);
-            return attachmentRepository.save(attachment);
+        } catch (NoSuchElementException | IllegalArgumentException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not upload file: " + ex.getMessage());
         }
     }
 
-    @GetMapping("/{fileName}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
-        try {
-            Path filePath = fileStorageLocation.resolve(fileName).normalize();
-            byte[] compressed = Files.readAllBytes(filePath);
-            byte[] decompressed = attachmentService.decompress(compressed);
-            Path tempPath = Files.createTempFile("decompressed-", fileName);
-            Files.write(tempPath, decompressed, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            Resource resource = new UrlResource(tempPath.toUri());
-            if (!resource.exists()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found");
+    public static class AttachByHashRequest {
+        public String sha256;
+        public String fileName;
+        public String contentType;
+        public UUID taskId;
+    }
+
+    /**
+     * Upload short-circuit: attaches content the caller has uploaded before, identified by the SHA-256
+     * of its bytes, without transferring it again. Answers 404 when the caller has no attachment with
+     * that content, so the client falls back to a regular upload; content stored by other users is
+     * never attached and its existence not revealed.
+     */
+    @PostMapping("/by-hash")
+    public ResponseEntity<Attachment> attachByHash(@RequestBody AttachByHashRequest body, @AuthenticationPrincipal User user) {
+        if (body == null || body.sha256 == null || body.fileName == null || body.fileName.isBlank()) {
+            throw new IllegalArgumentException("sha256 and fileName are required");
+        }
+        if (!attachmentService.isAllowedType(body.contentType)) throw new IllegalArgumentException("File type not allowed");
+        Task task = body.taskId != null ? findTask(body.taskId) : null;
+        Attachment attachment = attachmentService.attachExisting(body.sha256.toLowerCase(), body.fileName, body.contentType, task, user)
+                .orElseThrow(() -> new NoSuchElementException("Content not found"));
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    // --- Resumable chunked uploads: start, append chunks at an offset, complete ---
+
+    public static class UploadStartRequest {
+        public String fileName;
+        public String contentType;
+        public long size;
+    }
+
+    @PostMapping("/uploads")
+    public ResponseEntity<Map<String, Object>> startUpload(@RequestBody UploadStartRequest body,
+                                                           @AuthenticationPrincipal User user) throws IOException {
+        if (body == null || body.fileName == null || body.fileName.isBlank()) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+        if (!attachmentService.isAllowedType(body.contentType)) throw new IllegalArgumentException("File type not allowed");
+        if (!attachmentService.isAllowedSize(body.size)) throw new IllegalArgumentException("File size exceeds limit");
+        ChunkedUploadStore.UploadSession session = uploadStore.start(body.fileName, body.contentType, body.size,
+                user != null ? user.getId() : null);
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploadStatus(session));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<Map<String, Object>> uploadStatus(@PathVariable UUID uploadId, @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(uploadStatus(ownedSession(uploadId, user)));
+    }
+
+    /**
+     * Appends the request body at {@code offset}. A mismatching offset answers 409 with the offset to resume from.
+     */
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> appendChunk(@PathVariable UUID uploadId,
+                                                           @RequestParam long offset,
+                                                           HttpServletRequest request,
+                                                           @AuthenticationPrincipal User user) throws IOException {
+        ChunkedUploadStore.UploadSession session = ownedSession(uploadId, user);
+        try (InputStream in = request.getInputStream()) {
+            uploadStore.append(uploadId, offset, in);
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(uploadStatus(session));
+        }
+        return ResponseEntity.ok(uploadStatus(session));
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public Attachment completeUpload(@PathVariable UUID uploadId,
+                                     @RequestParam(value = "taskId", required = false) UUID taskId,
+                                     @AuthenticationPrincipal User user) throws IOException {
+        ownedSession(uploadId, user);
+        Task task = taskId != null ? findTask(taskId) : null;
+        return uploadStore.complete(uploadId, session -> {
+            try (InputStream in = Files.newInputStream(session.getPart())) {
+                return store(in, session.getFileName(), session.getContentType(), task, user);
             }
-            String contentType = Files.probeContentType(tempPath);
-            ResponseEntity<Resource> response = ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType != null ? contentType : "application/octet-stream"))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .body(resource);
-            // Delete temp file after response is sent (optional: background cleanup)
-            // Files.deleteIfExists(tempPath);
-            return response;
-        } catch (MalformedURLException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "File not found: " + ex.getMessage());
-        } catch (Exception ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error reading file: " + ex.getMessage());
+        });
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable UUID uploadId, @AuthenticationPrincipal User user) throws IOException {
+        ownedSession(uploadId, user);
+        uploadStore.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private ChunkedUploadStore.UploadSession ownedSession(UUID uploadId, User user) {
+        ChunkedUploadStore.UploadSession session = uploadStore.get(uploadId);
+        if (session.getOwnerId() != null && (user == null || !session.getOwnerId().equals(user.getId()))) {
+            throw new AccessDeniedException("Upload belongs to another user");
         }
+        return session;
+    }
+
+    private static Map<String, Object> uploadStatus(ChunkedUploadStore.UploadSession session) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("uploadId", session.getId());
+        status.put("offset", session.getOffset());
+        status.put("size", session.getTotalSize());
+        return status;
+    }
+
+    private Task findTask(UUID taskId) {
+        return taskRepository.findById(taskId).orElseThrow(() -> new NoSuchElementException("Task not found"));
+    }
+
+    /**
+     * Hashes and encodes the content, with the codec chosen for its type, into a staged file before any
+     * transaction starts, then records the attachment; identical content already stored is reused and
+     * the staged copy dropped.
+     */
+    private Attachment store(InputStream content, String originalName, String contentType, Task task, User user) throws IOException {
+        BlobStore.StagedBlob staged = blobStore.stage(content, attachmentService.codecFor(contentType));
+        try {
+            return attachmentService.createAttachment(staged, originalName, contentType, task, user);
+        } finally {
+            staged.discard();
+        }
+    }
+
+    /**
+     * Streams the stored file. Content stored as-is is sent as-is. For gzip-stored content, clients
+     * accepting gzip get the stored bytes with {@code Content-Encoding: gzip}; others get it inflated
+     * on the fly. All support Range requests.
+     */
+    @GetMapping("/{fileName}")
+    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Attachment attachment = attachmentRepository.findByFileName(fileName).stream().findFirst().orElse(null);
+        StoredBlob blob = null;
+        if (attachment != null && attachment.getContentHash() != null) {
+            blob = blobStore.find(attachment.getContentHash()).orElseThrow(() -> new NoSuchElementException("File not found"));
+        }
+        // Attachments stored before content-addressed storage are gzip files of their own
+        Path filePath = blob != null ? blobStore.path(blob) : resolveStored(fileName);
+        if (!Files.isRegularFile(filePath)) {
+            throw new NoSuchElementException("File not found");
+        }
+        String contentType = attachment != null && attachment.getFileType() != null && !attachment.getFileType().isBlank()
+                ? attachment.getFileType()
+                : probeContentType(fileName);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        // Byte ranges (206) are applied by Spring MVC to every representation
+        if (blob != null && IdentityCodec.ID.equals(blob.getCodec())) {
+            return response.body(new FileSystemResource(filePath));
+        }
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(new FileSystemResource(filePath));
+        }
+        return response.body(new GzipFileResource(filePath, fileName));
     }
 
     @DeleteMapping("/{fileName}")
     public ResponseEntity<?> deleteFile(@PathVariable String fileName) {
         try {
-            Path filePath = fileStorageLocation.resolve(fileName).normalize();
-            Files.deleteIfExists(filePath);
-            attachmentRepository.findAll().stream()
-                .filter(a -> fileName.equals(a.getFileName()))
-                .forEach(a -> attachmentRepository.delete(a));
+            attachmentService.deleteByFileName(fileName);
             return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not delete file: " + ex.getMessage());
         }
     }
+
+    private Path resolveStored(String fileName) {
+        Path filePath = fileStorageLocation.resolve(fileName).normalize();
+        if (!filePath.startsWith(fileStorageLocation)) {
+            throw new IllegalArgumentException("Invalid file name");
+        }
+        return filePath;
+    }
+
+    private static String probeContentType(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) continue;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim().replace(" ", "");
+                // "q=0" (or 0.0, 0.00...) means explicitly not acceptable
+                if (param.matches("(?i)q=0(\\.0*)?")) return false;
+            }
+            return true;
+        }
+        return false;
+    }
 }
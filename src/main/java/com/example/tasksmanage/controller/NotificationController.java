@@ -1,11 +1,14 @@
 package com.example.tasksmanage.controller;
 
+import com.example.tasksmanage.dto.CursorPageDTO;
+import com.example.tasksmanage.dto.NotificationBulkRequest;
+import com.example.tasksmanage.dto.NotificationDTO;
 import com.example.tasksmanage.model.Notification;
 import com.example.tasksmanage.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -14,9 +17,36 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    /**
+     * The user's inbox, newest first and without archived notifications unless {@code archived} says
+     * otherwise, one slice at a time: pass the returned {@code nextCursor} as {@code cursor} for the next.
+     */
     @GetMapping
-    public ResponseEntity<List<Notification>> getNotificationsByUser(@RequestParam UUID userId) {
-        return ResponseEntity.ok(notificationService.getNotificationsByUser(userId));
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getNotificationsByUser(
+            @RequestParam UUID userId,
+            @RequestParam(required = false) Boolean read,
+            @RequestParam(defaultValue = "false") boolean archived,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(notificationService.listNotifications(userId, read, archived, cursor, size));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@RequestParam UUID userId) {
+        return ResponseEntity.ok(Map.of("unread", notificationService.getUnreadCount(userId)));
+    }
+
+    // Bulk operations; without ids in the body they apply to all of the user's notifications
+    @PutMapping("/read")
+    public ResponseEntity<Map<String, Integer>> markRead(@RequestParam UUID userId,
+                                                         @RequestBody(required = false) NotificationBulkRequest request) {
+        return ResponseEntity.ok(Map.of("updated", notificationService.markRead(userId, request != null ? request.getIds() : null)));
+    }
+
+    @PutMapping("/archive")
+    public ResponseEntity<Map<String, Integer>> archive(@RequestParam UUID userId,
+                                                        @RequestBody(required = false) NotificationBulkRequest request) {
+        return ResponseEntity.ok(Map.of("updated", notificationService.archive(userId, request != null ? request.getIds() : null)));
     }
 
     @PostMapping
@@ -35,12 +65,14 @@ public class NotificationController {
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<Notification>> getNotificationHistory(@RequestParam UUID userId, @RequestParam(required = false) Boolean archived) {
-        if (archived != null && archived) {
-            return ResponseEntity.ok(notificationService.getArchivedNotifications(userId));
-        } else {
-            return ResponseEntity.ok(notificationService.getAllNotifications(userId));
-        }
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getNotificationHistory(
+            @RequestParam UUID userId,
+            @RequestParam(required = false) Boolean archived,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        // archived=true lists the archive; otherwise everything, archived or not
+        Boolean archivedFilter = Boolean.TRUE.equals(archived) ? Boolean.TRUE : null;
+        return ResponseEntity.ok(notificationService.listNotifications(userId, null, archivedFilter, cursor, size));
     }
 
     @PutMapping("/{id}/archive")
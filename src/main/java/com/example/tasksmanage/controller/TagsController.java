@@ -1,7 +1,9 @@
 package com.example.tasksmanage.controller;
 
-import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.cache.InvalidationBus;
 import com.example.tasksmanage.repository.TaskRepository;
+import com.example.tasksmanage.search.SearchIndex;
+import com.example.tasksmanage.util.TagUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +18,10 @@ public class TagsController {
 
     @Autowired
     private TaskRepository taskRepository;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private InvalidationBus invalidationBus;
 
     public static class TagSummary {
         public String name;
@@ -28,22 +34,21 @@ public class TagsController {
 
     @GetMapping
     public ResponseEntity<List<TagSummary>> list() {
-        List<Task> tasks = taskRepository.findAll();
-        Map<String, Long> freq = new HashMap<>();
-        for (Task t : tasks) {
-            if (t.getTags() == null) continue;
-            for (String tag : t.getTags()) {
-                if (tag == null) continue;
-                String key = normalize(tag);
-                if (key.isEmpty()) continue;
-                freq.put(key, freq.getOrDefault(key, 0L) + 1);
-            }
-        }
-        List<TagSummary> out = freq.entrySet().stream()
+        List<TagSummary> out = taskRepository.countTasksByTag().stream()
+                .map(row -> new TagSummary(row.getBucket(), row.getTotal()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(out);
+    }
+
+    /**
+     * Tag counts among the tasks carrying all ({@code match=all}) or any of the given tags, or over
+     * all tagged tasks when no tags are given. Served from the in-memory tag bitmaps.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<List<TagSummary>> facets(@RequestParam(required = false) Set<String> tags,
+                                                   @RequestParam(defaultValue = "any") String match) {
+        List<TagSummary> out = searchIndex.taskTagFacets(tags, "all".equalsIgnoreCase(match)).entrySet().stream()
                 .map(e -> new TagSummary(e.getKey(), e.getValue()))
-                .sorted(Comparator.comparingLong((TagSummary ts) -> ts.count)
-                        .reversed()
-                        .thenComparing(ts -> ts.name))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(out);
     }
@@ -57,28 +62,7 @@ public class TagsController {
         if (old.isEmpty() || target.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("message", "Invalid tag names"));
         }
-        List<Task> tasks = taskRepository.findAll();
-        int changed = 0;
-        for (Task t : tasks) {
-            Set<String> tags = t.getTags();
-            if (tags == null || tags.isEmpty()) continue;
-            boolean modified = false;
-            Set<String> updated = new HashSet<>();
-            for (String tag : tags) {
-                String n = normalize(tag);
-                if (n.equals(old)) {
-                    updated.add(target);
-                    modified = true;
-                } else {
-                    updated.add(n);
-                }
-            }
-            if (modified) {
-                t.setTags(updated);
-                changed++;
-            }
-        }
-        if (changed > 0) taskRepository.saveAll(tasks);
+        long changed = retag(old, target);
         return ResponseEntity.ok(Map.of("message", "Tags renamed", "updatedTasks", changed));
     }
 
@@ -90,20 +74,7 @@ public class TagsController {
         if (from.isEmpty() || to.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("message", "Invalid merge parameters"));
         }
-        List<Task> tasks = taskRepository.findAll();
-        int changed = 0;
-        for (Task t : tasks) {
-            Set<String> tags = t.getTags();
-            if (tags == null || tags.isEmpty()) continue;
-            if (tags.stream().map(this::normalize).anyMatch(from::equals)) {
-                Set<String> updated = tags.stream().map(this::normalize).collect(Collectors.toSet());
-                updated.remove(from);
-                updated.add(to);
-                t.setTags(updated);
-                changed++;
-            }
-        }
-        if (changed > 0) taskRepository.saveAll(tasks);
+        long changed = retag(from, to);
         return ResponseEntity.ok(Map.of("message", "Tags merged", "updatedTasks", changed));
     }
 
@@ -114,23 +85,28 @@ public class TagsController {
         if (target.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("message", "Invalid tag name"));
         }
-        List<Task> tasks = taskRepository.findAll();
-        int changed = 0;
-        for (Task t : tasks) {
-            Set<String> tags = t.getTags();
-            if (tags == null || tags.isEmpty()) continue;
-            Set<String> updated = tags.stream().map(this::normalize).collect(Collectors.toSet());
-            if (updated.remove(target)) {
-                t.setTags(updated);
-                changed++;
-            }
+        long changed = taskRepository.countTasksWithTag(target);
+        if (changed > 0) {
+            taskRepository.deleteTag(target);
+            searchIndex.removeTag(target);
+            invalidationBus.publish(InvalidationBus.TASK, InvalidationBus.ALL);
         }
-        if (changed > 0) taskRepository.saveAll(tasks);
         return ResponseEntity.ok(Map.of("message", "Tag deleted", "updatedTasks", changed));
     }
 
+    // Replaces tag "from" with "to" on every task carrying it, touching only those task_tags rows
+    private long retag(String from, String to) {
+        long changed = taskRepository.countTasksWithTag(from);
+        if (changed == 0) return 0;
+        if (from.equals(to)) return changed;
+        taskRepository.addTagWhereTagged(from, to);
+        taskRepository.deleteTag(from);
+        searchIndex.renameTag(from, to);
+        invalidationBus.publish(InvalidationBus.TASK, InvalidationBus.ALL);
+        return changed;
+    }
+
     private String normalize(String s) {
-        if (s == null) return "";
-        return s.trim().replaceAll("\\s+", " ").toLowerCase();
+        return TagUtils.normalize(s);
     }
 }
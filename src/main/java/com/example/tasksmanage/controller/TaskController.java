@@ -5,7 +5,6 @@ import com.example.tasksmanage.service.TaskService;
 import com.example.tasksmanage.repository.UserRepository;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -91,13 +90,18 @@ public class TaskController {
         return ResponseEntity.ok(taskService.updateStatus(id, dto));
     }
 
+    /**
+     * Offset pagination by default. Passing {@code cursor} (empty for the first slice) switches to keyset
+     * pagination and returns a {@link CursorPageDTO} whose {@code nextCursor} fetches the next slice.
+     */
     @GetMapping
-    public ResponseEntity<Page<TaskResponseDTO>> listTasks(
+    public ResponseEntity<?> listTasks(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String priority,
             @RequestParam(required = false) UUID assignedTo,
             @RequestParam(required = false) UUID projectId,
             @RequestParam(required = false) Set<String> tags,
+            @RequestParam(defaultValue = "any") String tagMatch,
             @RequestParam(required = false) String dueDateFrom,
             @RequestParam(required = false) String dueDateTo,
             @RequestParam(required = false) String createdAtFrom,
@@ -107,7 +111,8 @@ public class TaskController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor
     ) {
         TaskFilterDTO filter = new TaskFilterDTO();
         filter.setStatus(status);
@@ -115,6 +120,7 @@ public class TaskController {
         filter.setAssignedTo(assignedTo);
         filter.setProjectId(projectId);
         filter.setTags(tags);
+        filter.setTagMatch(tagMatch);
         filter.setSearch(search);
         filter.setSortBy(sortBy);
         filter.setSortDir(sortDir);
@@ -131,15 +137,20 @@ public class TaskController {
             if (createdAtFrom != null) filter.setCreatedAtFrom(Date.from(Instant.parse(createdAtFrom)));
             if (createdAtTo != null) filter.setCreatedAtTo(Date.from(Instant.parse(createdAtTo)));
         } catch (DateTimeParseException ignored) {}
+        if (cursor != null) {
+            filter.setCursor(cursor);
+            return ResponseEntity.ok(taskService.listTasksByCursor(filter));
+        }
         return ResponseEntity.ok(taskService.advancedListTasks(filter));
     }
 
     @GetMapping("/my")
-    public ResponseEntity<Page<TaskResponseDTO>> listMyTasks(
+    public ResponseEntity<?> listMyTasks(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String priority,
             @RequestParam(required = false) UUID projectId,
             @RequestParam(required = false) Set<String> tags,
+            @RequestParam(defaultValue = "any") String tagMatch,
             @RequestParam(required = false) String dueDateFrom,
             @RequestParam(required = false) String dueDateTo,
             @RequestParam(required = false) String createdAtFrom,
@@ -149,6 +160,7 @@ public class TaskController {
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Principal principal
     ) {
         // Resolve acting user ID from principal using UUID -> username -> email
@@ -173,6 +185,7 @@ public class TaskController {
         filter.setAssignedTo(actingUserId);
         filter.setProjectId(projectId);
         filter.setTags(tags);
+        filter.setTagMatch(tagMatch);
         filter.setSearch(search);
         filter.setSortBy(sortBy);
         filter.setSortDir(sortDir);
@@ -185,6 +198,10 @@ public class TaskController {
             if (createdAtTo != null) filter.setCreatedAtTo(java.util.Date.from(java.time.Instant.parse(createdAtTo)));
         } catch (java.time.format.DateTimeParseException ignored) {}
 
+        if (cursor != null) {
+            filter.setCursor(cursor);
+            return ResponseEntity.ok(taskService.listTasksByCursor(filter));
+        }
         return ResponseEntity.ok(taskService.advancedListTasks(filter));
     }
 }
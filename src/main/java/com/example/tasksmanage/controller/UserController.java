@@ -2,7 +2,6 @@ package com.example.tasksmanage.controller;
 
 import com.example.tasksmanage.dto.ApiResponse;
 import com.example.tasksmanage.dto.ChangePasswordDTO;
-import jakarta.servlet.http.HttpServletResponse;
 import com.example.tasksmanage.model.User;
 import com.example.tasksmanage.service.UserService;
 import jakarta.validation.Valid;
@@ -192,25 +191,21 @@ public class UserController {
     // ADMIN: Export users as CSV
     @GetMapping("/export/csv")
     @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
-    public void exportUsersCsv(HttpServletResponse response) throws java.io.IOException {
-        var users = userService.exportUsers();
-        response.setContentType("text/csv");
-        response.setHeader("Content-Disposition", "attachment; filename=users.csv");
-        java.io.PrintWriter writer = response.getWriter();
-        writer.write("id,email,username,firstName,lastName,status,roles,createdAt,lastLogin\n");
-        for (var u : users) {
-            writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s\n",
-                u.getId(), u.getEmail(), u.getUsername(), u.getFirstName(), u.getLastName(),
-                u.getStatus(), u.getRoles(), u.getCreatedAt(), u.getLastLogin()));
-        }
-        writer.flush();
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> exportUsersCsv() {
+        return ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.parseMediaType("text/csv"))
+                .header("Content-Disposition", "attachment; filename=users.csv")
+                .body(out -> userService.exportUsers("csv", out));
     }
 
     // ADMIN: Export users as JSON
     @GetMapping("/export/json")
     @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
-    public java.util.List<com.example.tasksmanage.dto.UserExportDTO> exportUsersJson() {
-        return userService.exportUsers();
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> exportUsersJson() {
+        // Written off the request thread as chunks are read, so large exports don't hold a servlet thread or the whole directory
+        return ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                .body(out -> userService.exportUsers("json", out));
     }
 
     // ADMIN: User statistics dashboard
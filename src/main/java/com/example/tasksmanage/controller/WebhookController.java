@@ -1,7 +1,9 @@
 package com.example.tasksmanage.controller;
 
 import com.example.tasksmanage.model.Webhook;
+import com.example.tasksmanage.repository.WebhookDeliveryRepository;
 import com.example.tasksmanage.repository.WebhookRepository;
+import com.example.tasksmanage.service.WebhookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +17,8 @@ public class WebhookController {
 
     @Autowired
     private WebhookRepository webhookRepository;
+    @Autowired
+    private WebhookDeliveryRepository deliveryRepository;
 
     @GetMapping
     public ResponseEntity<List<Webhook>> listWebhooks() {
@@ -25,6 +29,7 @@ public class WebhookController {
     public ResponseEntity<Webhook> createWebhook(@RequestBody Webhook webhook) {
         webhook.setId(null);
         webhook.setActive(true);
+        WebhookService.validateBatching(webhook);
         Webhook created = webhookRepository.save(webhook);
         return ResponseEntity.status(201).body(created);
     }
@@ -33,6 +38,7 @@ public class WebhookController {
     public ResponseEntity<Void> deleteWebhook(@PathVariable UUID id) {
         Webhook existing = webhookRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Webhook not found"));
+        deliveryRepository.deleteByWebhookId(existing.getId());
         webhookRepository.delete(existing);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,14 @@
+package com.example.tasksmanage.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Notifications to change at once; without {@code ids}, all of the user's notifications.
+ */
+public class NotificationBulkRequest {
+    private List<UUID> ids;
+
+    public List<UUID> getIds() { return ids; }
+    public void setIds(List<UUID> ids) { this.ids = ids; }
+}
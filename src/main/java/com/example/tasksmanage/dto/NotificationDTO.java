@@ -0,0 +1,49 @@
+package com.example.tasksmanage.dto;
+
+import com.example.tasksmanage.model.Notification;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A notification as listed in the inbox.
+ */
+public class NotificationDTO {
+    private UUID id;
+    private String type;
+    private String content;
+    private boolean read;
+    private boolean archived;
+    private LocalDateTime archivedAt;
+    private Instant createdAt;
+
+    public NotificationDTO() {}
+
+    public static NotificationDTO of(Notification notification) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.id = notification.getId();
+        dto.type = notification.getType();
+        dto.content = notification.getContent();
+        dto.read = notification.isRead();
+        dto.archived = notification.isArchived();
+        dto.archivedAt = notification.getArchivedAt();
+        dto.createdAt = notification.getCreatedAt();
+        return dto;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    public boolean isRead() { return read; }
+    public void setRead(boolean read) { this.read = read; }
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,9 @@
+package com.example.tasksmanage.dto;
+
+import java.util.UUID;
+
+/**
+ * An unread notification waiting to go out in its recipient's digest.
+ */
+public record NotificationDigestItem(UUID userId, String email, UUID notificationId, String content) {
+}
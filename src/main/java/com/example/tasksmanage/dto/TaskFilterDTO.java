@@ -12,6 +12,7 @@ public class TaskFilterDTO {
     private UUID assignedTo;
     private UUID projectId;
     private Set<String> tags;
+    private String tagMatch = "any";
     private Date dueDateFrom;
     private Date dueDateTo;
     private Date createdAtFrom;
@@ -21,6 +22,7 @@ public class TaskFilterDTO {
     private String sortDir = "asc";
     private Integer page = 0;
     private Integer size = 10;
+    private String cursor;
 
     // Getters and setters
     public String getStatus() { return status; }
@@ -33,6 +35,8 @@ public class TaskFilterDTO {
     public void setProjectId(UUID projectId) { this.projectId = projectId; }
     public Set<String> getTags() { return tags; }
     public void setTags(Set<String> tags) { this.tags = tags; }
+    public String getTagMatch() { return tagMatch; }
+    public void setTagMatch(String tagMatch) { this.tagMatch = tagMatch; }
     public Date getDueDateFrom() { return dueDateFrom; }
     public void setDueDateFrom(Date dueDateFrom) { this.dueDateFrom = dueDateFrom; }
     public Date getDueDateTo() { return dueDateTo; }
@@ -51,4 +55,6 @@ public class TaskFilterDTO {
     public void setPage(Integer page) { this.page = page; }
     public Integer getSize() { return size; }
     public void setSize(Integer size) { this.size = size; }
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
 }
@@ -26,6 +26,8 @@ public class ApiKey {
     @Column(nullable = false)
     private UUID userId;
 
+    private Instant lastUsedAt;
+
     // Getters and setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -43,4 +45,6 @@ public class ApiKey {
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public UUID getUserId() { return userId; }
     public void setUserId(UUID userId) { this.userId = userId; }
+    public Instant getLastUsedAt() { return lastUsedAt; }
+    public void setLastUsedAt(Instant lastUsedAt) { this.lastUsedAt = lastUsedAt; }
 }
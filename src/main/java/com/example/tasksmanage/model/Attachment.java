@@ -15,6 +15,10 @@ public class Attachment {
     private Long fileSize;
     private String url;
 
+    // SHA-256 of the content when stored as a shared blob; null for files stored per attachment
+    @Column(length = 64)
+    private String contentHash;
+
     @ManyToOne
     @JoinColumn(name = "task_id")
     private Task task;
@@ -37,6 +41,8 @@ public class Attachment {
     public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
     public String getUrl() { return url; }
     public void setUrl(String url) { this.url = url; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
     public Task getTask() { return task; }
     public void setTask(Task task) { this.task = task; }
     public Comment getComment() { return comment; }
@@ -0,0 +1,29 @@
+package com.example.tasksmanage.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Cluster-wide lock on a scheduled job, held by one node until it releases it or the lease runs out.
+ * Taken and released with conditional updates by {@link com.example.tasksmanage.service.JobLockService}.
+ */
+@Entity
+@Table(name = "job_locks")
+public class JobLock {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Instant getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(Instant lockedUntil) { this.lockedUntil = lockedUntil; }
+    public String getLockedBy() { return lockedBy; }
+    public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+}
@@ -1,10 +1,15 @@
 package com.example.tasksmanage.model;
 
 import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Inbox pages: a user's notifications, newest first
+        @Index(name = "idx_notifications_inbox", columnList = "user_id, created_at, id")
+})
 public class Notification {
     private boolean batched = false;
     private boolean archived = false;
@@ -25,6 +30,15 @@ public class Notification {
     @JoinColumn(name = "user_id")
     private User user;
 
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    public void onCreate() {
+        // Stored at the database's precision so inbox cursors compare equal to the stored value
+        if (createdAt == null) createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     public UUID getId() {
         return id;
     }
@@ -81,6 +95,14 @@ public class Notification {
         this.archivedAt = archivedAt;
     }
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public User getUser() {
         return user;
     }
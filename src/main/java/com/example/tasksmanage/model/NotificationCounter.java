@@ -0,0 +1,24 @@
+package com.example.tasksmanage.model;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * A user's unread notification count, kept up to date in the same transaction as every change to
+ * their notifications so the badge count is a primary-key read.
+ */
+@Entity
+@Table(name = "notification_counters")
+public class NotificationCounter {
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+}
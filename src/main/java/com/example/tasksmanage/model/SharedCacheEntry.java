@@ -0,0 +1,62 @@
+package com.example.tasksmanage.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A value in the shared cache tier. Read and written with plain SQL by
+ * {@link com.example.tasksmanage.cache.JdbcSharedCacheTier}; mapped here for the schema.
+ */
+@Entity
+@Table(name = "cache_entries", indexes = @Index(name = "idx_cache_entries_expires_at", columnList = "expires_at"))
+@IdClass(SharedCacheEntry.Key.class)
+public class SharedCacheEntry {
+    @Id
+    @Column(name = "cache_name", length = 100)
+    private String cacheName;
+
+    @Id
+    @Column(name = "cache_key")
+    private String cacheKey;
+
+    @Column(name = "value_type", nullable = false)
+    private String valueType;
+
+    @Column(nullable = false, length = 1_000_000)
+    private String payload;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public static class Key implements Serializable {
+        private String cacheName;
+        private String cacheKey;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(cacheName, other.cacheName) && Objects.equals(cacheKey, other.cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cacheName, cacheKey);
+        }
+    }
+
+    public String getCacheName() { return cacheName; }
+    public void setCacheName(String cacheName) { this.cacheName = cacheName; }
+
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+
+    public String getValueType() { return valueType; }
+    public void setValueType(String valueType) { this.valueType = valueType; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,40 @@
+package com.example.tasksmanage.model;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * One stored attachment content, keyed by the SHA-256 of its uncompressed bytes. Its reference
+ * count is the number of {@link Attachment} rows carrying the digest.
+ */
+@Entity
+@Table(name = "blobs")
+public class StoredBlob {
+    @Id
+    @Column(length = 64)
+    private String digest;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private Long storedSize;
+
+    // Id of the CompressionCodec the content is encoded with at rest
+    @Column(nullable = false, length = 16)
+    private String codec;
+
+    @Column(nullable = false)
+    private Date createdAt = new Date();
+
+    public String getDigest() { return digest; }
+    public void setDigest(String digest) { this.digest = digest; }
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+    public Long getStoredSize() { return storedSize; }
+    public void setStoredSize(Long storedSize) { this.storedSize = storedSize; }
+    public String getCodec() { return codec; }
+    public void setCodec(String codec) { this.codec = codec; }
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+}
@@ -1,5 +1,6 @@
 package com.example.tasksmanage.model;
 
+import com.example.tasksmanage.util.TagUtils;
 import jakarta.persistence.*;
 import java.util.*;
 
@@ -42,7 +43,8 @@ public class Task {
     public Project getProject() { return project; }
     public void setProject(Project project) { this.project = project; }
     public Set<String> getTags() { return tags; }
-    public void setTags(Set<String> tags) { this.tags = tags; }
+    // Stored normalized, so tag queries compare plain (indexed) values
+    public void setTags(Set<String> tags) { this.tags = tags != null ? TagUtils.normalizeAll(tags) : null; }
     public Date getCreatedAt() { return createdAt; }
     public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
     public Date getUpdatedAt() { return updatedAt; }
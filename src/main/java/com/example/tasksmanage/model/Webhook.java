@@ -27,6 +27,15 @@ public class Webhook {
     @Column(nullable = false)
     private boolean active = true;
 
+    // Batching mode: events are coalesced into one array payload of at most this many events;
+    // null or 1 sends every event on its own
+    @Column(name = "batch_max_size")
+    private Integer batchMaxSize;
+
+    // How long a batch may wait for more events before it is sent anyway
+    @Column(name = "batch_linger_ms")
+    private Long batchLingerMs;
+
     public UUID getId() {
         return id;
     }
@@ -66,4 +75,24 @@ public class Webhook {
     public void setActive(boolean active) {
         this.active = active;
     }
+
+    public Integer getBatchMaxSize() {
+        return batchMaxSize;
+    }
+
+    public void setBatchMaxSize(Integer batchMaxSize) {
+        this.batchMaxSize = batchMaxSize;
+    }
+
+    public Long getBatchLingerMs() {
+        return batchLingerMs;
+    }
+
+    public void setBatchLingerMs(Long batchLingerMs) {
+        this.batchLingerMs = batchLingerMs;
+    }
+
+    public boolean isBatching() {
+        return batchMaxSize != null && batchMaxSize > 1;
+    }
 }
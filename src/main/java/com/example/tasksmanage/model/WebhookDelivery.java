@@ -0,0 +1,88 @@
+package com.example.tasksmanage.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One outbox event owed to one webhook: PENDING until due, IN_FLIGHT while a dispatcher sends it,
+ * then DELIVERED, or FAILED once its attempts are exhausted.
+ */
+@Entity
+@Table(name = "webhook_deliveries")
+public class WebhookDelivery {
+    public static final String PENDING = "PENDING";
+    public static final String IN_FLIGHT = "IN_FLIGHT";
+    public static final String DELIVERED = "DELIVERED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    private WebhookOutboxEvent event;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "webhook_id", nullable = false)
+    private Webhook webhook;
+
+    // HMAC of the event payload with the webhook's secret, computed once when the delivery is enqueued
+    @Column(nullable = false)
+    private String signature;
+
+    @Column(nullable = false, length = 16)
+    private String status = PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "response_code")
+    private Integer responseCode;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public WebhookOutboxEvent getEvent() { return event; }
+    public void setEvent(WebhookOutboxEvent event) { this.event = event; }
+
+    public Webhook getWebhook() { return webhook; }
+    public void setWebhook(Webhook webhook) { this.webhook = webhook; }
+
+    public String getSignature() { return signature; }
+    public void setSignature(String signature) { this.signature = signature; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public Integer getResponseCode() { return responseCode; }
+    public void setResponseCode(Integer responseCode) { this.responseCode = responseCode; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
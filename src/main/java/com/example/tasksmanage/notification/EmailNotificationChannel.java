@@ -0,0 +1,33 @@
+package com.example.tasksmanage.notification;
+
+import com.example.tasksmanage.service.impl.MailDispatcher;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+    private final MailDispatcher mailDispatcher;
+
+    public EmailNotificationChannel(MailDispatcher mailDispatcher) {
+        this.mailDispatcher = mailDispatcher;
+    }
+
+    @Override
+    public String name() {
+        return "email";
+    }
+
+    @Override
+    public boolean accepts(NotificationMessage message) {
+        return mailDispatcher.isEnabled() && message.email() != null;
+    }
+
+    @Override
+    public void deliver(NotificationMessage message) throws Exception {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setTo(message.email());
+        mail.setSubject("New Notification");
+        mail.setText(message.content());
+        mailDispatcher.sendNow(mail);
+    }
+}
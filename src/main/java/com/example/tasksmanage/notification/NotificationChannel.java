@@ -0,0 +1,22 @@
+package com.example.tasksmanage.notification;
+
+/**
+ * One way of telling a user about a notification. Each channel bean gets its own delivery queue and
+ * workers in the {@link NotificationDispatcher}.
+ */
+public interface NotificationChannel {
+    /**
+     * Short stable name, used for worker threads and as the {@code channel} metric tag.
+     */
+    String name();
+
+    /**
+     * Whether the message should go out on this channel at all (channel configured, recipient reachable).
+     */
+    boolean accepts(NotificationMessage message);
+
+    /**
+     * Delivers the message on the calling worker thread; an exception schedules a retry.
+     */
+    void deliver(NotificationMessage message) throws Exception;
+}
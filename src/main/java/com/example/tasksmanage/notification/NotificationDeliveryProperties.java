@@ -0,0 +1,34 @@
+package com.example.tasksmanage.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Delivery queue settings ({@code app.notifications.delivery}), applied to each channel.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.notifications.delivery")
+public class NotificationDeliveryProperties {
+    // Deliveries waiting per channel; beyond this, publishers wait up to enqueueTimeout and then drop
+    private int queueCapacity = 10_000;
+    private int workers = 4;
+    private Duration enqueueTimeout = Duration.ofMillis(50);
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(1);
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+    public Duration getEnqueueTimeout() { return enqueueTimeout; }
+    public void setEnqueueTimeout(Duration enqueueTimeout) { this.enqueueTimeout = enqueueTimeout; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+    public Duration getInitialBackoff() { return initialBackoff; }
+    public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+    public Duration getMaxBackoff() { return maxBackoff; }
+    public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+}
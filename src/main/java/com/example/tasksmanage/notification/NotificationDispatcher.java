@@ -0,0 +1,222 @@
+package com.example.tasksmanage.notification;
+
+import com.example.tasksmanage.model.Notification;
+import com.example.tasksmanage.util.RetryBackoff;
+import com.example.tasksmanage.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed notifications out to the delivery channels, off the thread that created them.
+ * <p>
+ * Every channel has a bounded queue drained by its own workers, so a stalled SMTP server only backs up
+ * the email queue. When a queue is full the publisher waits up to {@code enqueueTimeout} and then the
+ * delivery is dropped and counted; the notification itself is already stored, so the user still sees
+ * it in their inbox. A failed delivery is queued again after an exponential backoff, up to
+ * {@code maxAttempts}. Queues live in memory: deliveries still waiting at shutdown are lost.
+ * <p>
+ * Meters, tagged by {@code channel}: {@code notifications.queue.depth},
+ * {@code notifications.delivery.latency} (commit to delivery, including retries) and
+ * {@code notifications.deliveries} tagged by {@code outcome} (delivered, retried, failed, dropped).
+ */
+@Component
+public class NotificationDispatcher implements InitializingBean, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final List<NotificationChannel> channels;
+    private final NotificationDeliveryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+    private final Map<String, ChannelQueue> queues = new LinkedHashMap<>();
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    record Delivery(NotificationMessage message, long enqueuedAt, int attempts) {
+    }
+
+    private final class ChannelQueue {
+        final NotificationChannel channel;
+        final BlockingQueue<Delivery> queue;
+        final List<Thread> workers = new ArrayList<>();
+        final Timer latency;
+        final Counter delivered;
+        final Counter retried;
+        final Counter failed;
+        final Counter dropped;
+
+        ChannelQueue(NotificationChannel channel) {
+            this.channel = channel;
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            Gauge.builder("notifications.queue.depth", queue, BlockingQueue::size)
+                    .tag("channel", channel.name())
+                    .description("Deliveries waiting for a worker")
+                    .register(meterRegistry);
+            this.latency = Timer.builder("notifications.delivery.latency")
+                    .tag("channel", channel.name())
+                    .description("Time from commit to successful delivery")
+                    .register(meterRegistry);
+            this.delivered = outcome("delivered");
+            this.retried = outcome("retried");
+            this.failed = outcome("failed");
+            this.dropped = outcome("dropped");
+        }
+
+        private Counter outcome(String outcome) {
+            return Counter.builder("notifications.deliveries")
+                    .tag("channel", channel.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+    public NotificationDispatcher(List<NotificationChannel> channels, NotificationDeliveryProperties properties,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.io.virtual-threads:true}") boolean virtualThreads) {
+        this.channels = channels;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notify-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (NotificationChannel channel : channels) {
+            if (queues.containsKey(channel.name())) {
+                throw new IllegalStateException("Duplicate notification channel " + channel.name());
+            }
+            ChannelQueue queue = new ChannelQueue(channel);
+            queues.put(channel.name(), queue);
+            Thread.Builder threads = virtualThreads
+                    ? Thread.ofVirtual().name("notify-" + channel.name() + "-", 0)
+                    : Thread.ofPlatform().daemon().name("notify-" + channel.name() + "-", 0);
+            for (int i = 0; i < properties.getWorkers(); i++) {
+                queue.workers.add(threads.start(() -> work(queue)));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        for (ChannelQueue queue : queues.values()) {
+            queue.workers.forEach(Thread::interrupt);
+        }
+        for (ChannelQueue queue : queues.values()) {
+            for (Thread worker : queue.workers) worker.join(1000);
+            if (!queue.queue.isEmpty()) {
+                log.warn("Discarding {} undelivered {} notifications at shutdown", queue.queue.size(), queue.channel.name());
+            }
+        }
+    }
+
+    /**
+     * Queues the notification on every channel that accepts it once the current transaction commits
+     * (right away without one). Call after saving it.
+     */
+    public void publish(Notification notification) {
+        NotificationMessage message = NotificationMessage.of(notification);
+        TransactionUtils.afterCommit(() -> enqueue(message));
+    }
+
+    void enqueue(NotificationMessage message) {
+        long now = System.nanoTime();
+        for (ChannelQueue queue : queues.values()) {
+            boolean accepted;
+            try {
+                accepted = queue.channel.accepts(message);
+            } catch (RuntimeException ex) {
+                log.warn("Notification channel {} failed to check message {}", queue.channel.name(), message.id(), ex);
+                continue;
+            }
+            if (accepted) offer(queue, new Delivery(message, now, 0), properties.getEnqueueTimeout().toMillis());
+        }
+    }
+
+    /**
+     * Deliveries currently waiting on the channel's queue.
+     */
+    public int queueDepth(String channel) {
+        ChannelQueue queue = queues.get(channel);
+        return queue != null ? queue.queue.size() : 0;
+    }
+
+    private void offer(ChannelQueue queue, Delivery delivery, long timeoutMillis) {
+        boolean queued;
+        try {
+            queued = timeoutMillis > 0
+                    ? queue.queue.offer(delivery, timeoutMillis, TimeUnit.MILLISECONDS)
+                    : queue.queue.offer(delivery);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            queue.dropped.increment();
+            log.warn("Notification queue {} is full; dropping delivery of {}", queue.channel.name(), delivery.message().id());
+        }
+    }
+
+    private void work(ChannelQueue queue) {
+        while (running) {
+            Delivery delivery;
+            try {
+                delivery = queue.queue.take();
+            } catch (InterruptedException ex) {
+                return;
+            }
+            deliver(queue, delivery);
+        }
+    }
+
+    private void deliver(ChannelQueue queue, Delivery delivery) {
+        try {
+            queue.channel.deliver(delivery.message());
+            queue.latency.record(System.nanoTime() - delivery.enqueuedAt(), TimeUnit.NANOSECONDS);
+            queue.delivered.increment();
+        } catch (Exception ex) {
+            int attempts = delivery.attempts() + 1;
+            if (attempts >= properties.getMaxAttempts()) {
+                queue.failed.increment();
+                log.warn("Giving up on {} delivery of notification {} after {} attempts",
+                        queue.channel.name(), delivery.message().id(), attempts, ex);
+                return;
+            }
+            queue.retried.increment();
+            log.debug("{} delivery of notification {} failed, retrying: {}", queue.channel.name(), delivery.message().id(), ex.toString());
+            Delivery retry = new Delivery(delivery.message(), delivery.enqueuedAt(), attempts);
+            try {
+                // Retries never wait for room: a full queue drops them rather than blocking the scheduler
+                long delay = RetryBackoff.millis(attempts, properties.getInitialBackoff().toMillis(), properties.getMaxBackoff().toMillis());
+                retryScheduler.schedule(() -> offer(queue, retry, 0), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shuttingDown) {
+                queue.dropped.increment();
+            }
+        }
+    }
+}
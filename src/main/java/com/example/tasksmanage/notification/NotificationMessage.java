@@ -0,0 +1,17 @@
+package com.example.tasksmanage.notification;
+
+import com.example.tasksmanage.model.Notification;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.UUID;
+
+/**
+ * What the delivery channels need of a committed notification, copied out of the entity so workers
+ * never touch a detached entity or its lazy associations. This is also the WebSocket payload.
+ */
+public record NotificationMessage(UUID id, UUID userId, String type, String content, @JsonIgnore String email) {
+    public static NotificationMessage of(Notification notification) {
+        return new NotificationMessage(notification.getId(), notification.getUser().getId(), notification.getType(),
+                notification.getContent(), notification.getUser().getEmail());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.tasksmanage.notification;
+
+import com.example.tasksmanage.model.PushSubscription;
+import com.example.tasksmanage.repository.PushSubscriptionRepository;
+import com.example.tasksmanage.util.DestinationLimiter;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPrivateKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Web Push to the user's registered browsers and devices, signed with the VAPID key pair from
+ * {@code app.pwa}.
+ * <p>
+ * Pushes carry no payload (that would need per-subscription message encryption); they wake the
+ * service worker, which fetches the inbox. Subscriptions the push service reports as gone (404/410)
+ * are deleted. Any other failure fails the whole delivery, so a retry may push again to devices that
+ * already got it, which only makes them refetch.
+ */
+@Component
+public class PushNotificationChannel implements NotificationChannel {
+    private static final Logger log = LoggerFactory.getLogger(PushNotificationChannel.class);
+
+    static final Duration TOKEN_VALIDITY = Duration.ofHours(12);
+    // How long the push service keeps a push for an offline device
+    static final int TIME_TO_LIVE_SECONDS = 24 * 3600;
+
+    private final PushSubscriptionRepository subscriptionRepository;
+    private final RestTemplate restTemplate;
+    private final DestinationLimiter pushServiceLimiter;
+
+    @Value("${app.pwa.enablePush:false}")
+    private boolean enablePush;
+    @Value("${app.pwa.vapidPublicKey:}")
+    private String vapidPublicKey;
+    @Value("${app.pwa.vapidPrivateKey:}")
+    private String vapidPrivateKey;
+    @Value("${app.pwa.vapidSubject:}")
+    private String vapidSubject;
+
+    private PrivateKey signingKey;
+
+    public PushNotificationChannel(PushSubscriptionRepository subscriptionRepository,
+                                   @Value("${app.pwa.max-concurrency-per-host:8}") int maxConcurrencyPerHost) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.pushServiceLimiter = new DestinationLimiter(maxConcurrencyPerHost);
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) Duration.ofSeconds(5).toMillis());
+        requestFactory.setReadTimeout((int) Duration.ofSeconds(10).toMillis());
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @PostConstruct
+    void loadSigningKey() throws GeneralSecurityException {
+        if (!enablePush || !StringUtils.hasText(vapidPublicKey) || !StringUtils.hasText(vapidPrivateKey)) return;
+        // VAPID private keys are the raw P-256 scalar, base64url encoded
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        BigInteger scalar = new BigInteger(1, Base64.getUrlDecoder().decode(vapidPrivateKey.trim()));
+        signingKey = KeyFactory.getInstance("EC")
+                .generatePrivate(new ECPrivateKeySpec(scalar, parameters.getParameterSpec(ECParameterSpec.class)));
+    }
+
+    @Override
+    public String name() {
+        return "push";
+    }
+
+    @Override
+    public boolean accepts(NotificationMessage message) {
+        return signingKey != null;
+    }
+
+    @Override
+    public void deliver(NotificationMessage message) throws Exception {
+        List<PushSubscription> subscriptions = subscriptionRepository.findByUserId(message.userId());
+        for (PushSubscription subscription : subscriptions) {
+            URI endpoint = URI.create(subscription.getEndpoint());
+            String origin = endpoint.getScheme() + "://" + endpoint.getAuthority();
+            pushServiceLimiter.call(origin, () -> {
+                push(subscription, endpoint, origin);
+                return null;
+            });
+        }
+    }
+
+    private void push(PushSubscription subscription, URI endpoint, String origin) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("TTL", String.valueOf(TIME_TO_LIVE_SECONDS));
+        headers.add(HttpHeaders.AUTHORIZATION, "vapid t=" + vapidToken(origin) + ", k=" + vapidPublicKey.trim());
+        headers.setContentLength(0);
+        try {
+            restTemplate.exchange(endpoint, HttpMethod.POST, new HttpEntity<>(headers), Void.class);
+        } catch (HttpStatusCodeException ex) {
+            if (ex.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND) || ex.getStatusCode().isSameCodeAs(HttpStatus.GONE)) {
+                log.debug("Push subscription {} expired, removing it", subscription.getId());
+                subscriptionRepository.delete(subscription);
+                return;
+            }
+            throw ex;
+        }
+    }
+
+    private String vapidToken(String audience) {
+        JwtBuilder token = Jwts.builder()
+                .setAudience(audience)
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY.toMillis()));
+        if (StringUtils.hasText(vapidSubject)) token.setSubject(vapidSubject);
+        return token.signWith(signingKey, SignatureAlgorithm.ES256).compact();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.tasksmanage.notification;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes the notification to the user's STOMP topic, {@code /topic/notifications/{userId}}.
+ */
+@Component
+public class WebSocketNotificationChannel implements NotificationChannel {
+    @Autowired(required = false)
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public String name() {
+        return "websocket";
+    }
+
+    @Override
+    public boolean accepts(NotificationMessage message) {
+        return messagingTemplate != null;
+    }
+
+    @Override
+    public void deliver(NotificationMessage message) {
+        messagingTemplate.convertAndSend("/topic/notifications/" + message.userId(), message);
+    }
+}
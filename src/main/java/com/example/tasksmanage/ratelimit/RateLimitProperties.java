@@ -0,0 +1,54 @@
+package com.example.tasksmanage.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit policies ({@code app.rate-limit}). A request is counted against the first policy whose
+ * paths (and methods, if given) match it; requests matching none are not limited.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    public enum KeyType { USER, API_KEY, IP }
+
+    private boolean enabled = true;
+    // Clients tracked at once across all policies; the least recently seen are dropped beyond this
+    private long maxTrackedClients = 100_000;
+    private List<Policy> policies = new ArrayList<>();
+
+    public static class Policy {
+        private String name;
+        private List<String> paths = new ArrayList<>(List.of("/**"));
+        private List<String> methods = new ArrayList<>();
+        private int limit = 60;
+        private Duration window = Duration.ofMinutes(1);
+        // Identities tried in order; the first one the request carries is the client key. API_KEY counts
+        // per key rather than per user, and only for keys that authenticated the request.
+        private List<KeyType> keys = new ArrayList<>(List.of(KeyType.USER, KeyType.IP));
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+        public int getLimit() { return limit; }
+        public void setLimit(int limit) { this.limit = limit; }
+        public Duration getWindow() { return window; }
+        public void setWindow(Duration window) { this.window = window; }
+        public List<KeyType> getKeys() { return keys; }
+        public void setKeys(List<KeyType> keys) { this.keys = keys; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getMaxTrackedClients() { return maxTrackedClients; }
+    public void setMaxTrackedClients(long maxTrackedClients) { this.maxTrackedClients = maxTrackedClients; }
+    public List<Policy> getPolicies() { return policies; }
+    public void setPolicies(List<Policy> policies) { this.policies = policies; }
+}
@@ -0,0 +1,54 @@
+package com.example.tasksmanage.ratelimit;
+
+import com.example.tasksmanage.cache.BoundedCache;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+
+/**
+ * Matches requests to {@link RateLimitProperties} policies and keeps a sliding-window counter per
+ * policy and client. Counters live in a size-bounded cache and expire once idle for two windows, so
+ * memory stays bounded however many distinct clients show up.
+ */
+@Component
+public class RateLimiter {
+    private final RateLimitProperties properties;
+    private final BoundedCache<String, SlidingWindowCounter> counters;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        Duration longestWindow = properties.getPolicies().stream()
+                .map(RateLimitProperties.Policy::getWindow)
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(1));
+        this.counters = new BoundedCache<>(properties.getMaxTrackedClients(), null, longestWindow.multipliedBy(2));
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * First policy matching the request, or null when it is not limited.
+     */
+    public RateLimitProperties.Policy policyFor(String method, String path) {
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            if (!policy.getMethods().isEmpty() && policy.getMethods().stream().noneMatch(method::equalsIgnoreCase)) continue;
+            for (String pattern : policy.getPaths()) {
+                if (pathMatcher.match(pattern, path)) return policy;
+            }
+        }
+        return null;
+    }
+
+    public SlidingWindowCounter.Decision tryAcquire(RateLimitProperties.Policy policy, String clientKey) {
+        SlidingWindowCounter counter = counters.get(policy.getName() + "|" + clientKey, key -> new SlidingWindowCounter());
+        return counter.tryAcquire(policy.getLimit(), policy.getWindow().toMillis(), System.currentTimeMillis());
+    }
+
+    long trackedClients() {
+        return counters.size();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.tasksmanage.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sliding-window counter for one client: the count of the current fixed window plus the previous
+ * window's count weighted by how much of it still overlaps the sliding window. Updates are a
+ * compare-and-set on an immutable snapshot, so concurrent requests never block each other.
+ */
+public final class SlidingWindowCounter {
+    private record Snapshot(long window, int previous, int current) {
+    }
+
+    /**
+     * Outcome of one request: whether it is allowed, how many more would be, and the seconds until
+     * the current window ends.
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetSeconds) {
+    }
+
+    private final AtomicReference<Snapshot> state = new AtomicReference<>(new Snapshot(0, 0, 0));
+
+    Decision tryAcquire(int limit, long windowMillis, long nowMillis) {
+        long window = nowMillis / windowMillis;
+        long elapsed = nowMillis - window * windowMillis;
+        long resetSeconds = Math.max(1, (windowMillis - elapsed + 999) / 1000);
+        double previousWeight = 1.0 - (double) elapsed / windowMillis;
+        while (true) {
+            Snapshot seen = state.get();
+            int previous;
+            int current;
+            if (seen.window == window) {
+                previous = seen.previous;
+                current = seen.current;
+            } else if (seen.window == window - 1) {
+                previous = seen.current;
+                current = 0;
+            } else {
+                previous = 0;
+                current = 0;
+            }
+            double used = previous * previousWeight + current;
+            if (used + 1 > limit) {
+                return new Decision(false, limit, 0, resetSeconds);
+            }
+            if (state.compareAndSet(seen, new Snapshot(window, previous, current + 1))) {
+                return new Decision(true, limit, (int) Math.max(0, Math.floor(limit - used - 1)), resetSeconds);
+            }
+        }
+    }
+}
@@ -2,7 +2,11 @@ package com.example.tasksmanage.repository;
 
 import com.example.tasksmanage.model.ApiKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,4 +14,9 @@ import java.util.UUID;
 public interface ApiKeyRepository extends JpaRepository<ApiKey, UUID> {
     Optional<ApiKey> findByApiKey(String apiKey);
     List<ApiKey> findByUserId(UUID userId);
+
+    // Never moves the timestamp backwards when another node flushed a later use first
+    @Modifying
+    @Query("UPDATE ApiKey k SET k.lastUsedAt = :usedAt WHERE k.id = :id AND (k.lastUsedAt IS NULL OR k.lastUsedAt < :usedAt)")
+    int recordLastUsed(@Param("id") UUID id, @Param("usedAt") Instant usedAt);
 }
@@ -8,4 +8,7 @@ import java.util.List;
 public interface AttachmentRepository extends JpaRepository<Attachment, UUID> {
     List<Attachment> findByTask_Id(UUID taskId);
     List<Attachment> findByComment_Id(UUID commentId);
+    List<Attachment> findByFileName(String fileName);
+    long countByContentHash(String contentHash);
+    boolean existsByContentHashAndUploadedBy_Id(String contentHash, UUID uploadedById);
 }
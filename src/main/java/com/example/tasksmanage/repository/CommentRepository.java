@@ -1,11 +1,26 @@
 package com.example.tasksmanage.repository;
 
 import com.example.tasksmanage.model.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
     List<Comment> findByTaskId(UUID taskId);
     List<Comment> findByParentCommentId(UUID parentCommentId);
+
+    // Lightweight (id, content) rows used to rebuild the in-memory search index
+    @Query("SELECT c.id, c.content FROM Comment c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamSearchDocuments();
+
+    // The same row for one comment, to reindex it after a change; empty once the comment is gone
+    @Query("SELECT c.id, c.content FROM Comment c WHERE c.id = :id")
+    List<Object[]> findSearchDocument(@Param("id") UUID id);
 }
@@ -0,0 +1,25 @@
+package com.example.tasksmanage.repository;
+
+import com.example.tasksmanage.model.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+    // Conditional update so that only one node (or run) holds the lock at a time
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until, l.lockedBy = :owner WHERE l.name = :name AND l.lockedUntil <= :now")
+    int claim(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+
+    // Extends the lease only while the owner still holds it; once lapsed, another node may have claimed it
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.lockedBy = :owner AND l.lockedUntil > :now")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,16 @@
+package com.example.tasksmanage.repository;
+
+import com.example.tasksmanage.model.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, UUID> {
+    // Relative update, so concurrent changes add up instead of overwriting each other
+    @Modifying
+    @Query("UPDATE NotificationCounter c SET c.unreadCount = c.unreadCount + :delta WHERE c.userId = :userId")
+    int addUnread(@Param("userId") UUID userId, @Param("delta") long delta);
+}
@@ -1,11 +1,52 @@
 package com.example.tasksmanage.repository;
 
+import com.example.tasksmanage.dto.NotificationDigestItem;
 import com.example.tasksmanage.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
-public interface NotificationRepository extends JpaRepository<Notification, UUID> {
-    List<Notification> findByUser_Id(UUID userId);
-    List<Notification> findByUser_IdAndArchived(UUID userId, boolean archived);
+public interface NotificationRepository extends JpaRepository<Notification, UUID>, JpaSpecificationExecutor<Notification> {
+    long countByUser_IdAndReadFalse(UUID userId);
+
+    // Unread, not yet digested notifications of users with digests enabled, grouped by user and
+    // paged by keyset on (user, notification) after the given position
+    @Query("SELECT new com.example.tasksmanage.dto.NotificationDigestItem(u.id, u.email, n.id, n.content) "
+            + "FROM Notification n JOIN n.user u JOIN NotificationPreferences p ON p.user = u "
+            + "WHERE p.batchEnabled = true AND n.read = false AND n.batched = false AND u.email IS NOT NULL "
+            + "AND (u.id > :afterUser OR (u.id = :afterUser AND n.id > :afterId)) "
+            + "ORDER BY u.id, n.id")
+    List<NotificationDigestItem> findPendingDigestItems(@Param("afterUser") UUID afterUser, @Param("afterId") UUID afterId,
+                                                        Pageable page);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.batched = true WHERE n.id IN :ids AND n.batched = false")
+    int markBatched(@Param("ids") Collection<UUID> ids);
+
+    // Bulk inbox changes; each returns how many notifications actually changed, which is what the
+    // unread counter moves by
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.read = :read WHERE n.user.id = :userId AND n.id IN :ids AND n.read <> :read")
+    int setRead(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids, @Param("read") boolean read);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
+    int markAllRead(@Param("userId") UUID userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.archived = true, n.archivedAt = :now "
+            + "WHERE n.user.id = :userId AND n.id IN :ids AND n.archived = false")
+    int archive(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.archived = true, n.archivedAt = :now WHERE n.user.id = :userId AND n.archived = false")
+    int archiveAll(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
 }
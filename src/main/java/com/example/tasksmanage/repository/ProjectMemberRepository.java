@@ -2,8 +2,11 @@ package com.example.tasksmanage.repository;
 
 import com.example.tasksmanage.model.ProjectMember;
 import com.example.tasksmanage.model.Project;
+import com.example.tasksmanage.model.ProjectMemberRole;
 import com.example.tasksmanage.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +17,7 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, UU
     List<ProjectMember> findByUser(User user);
     Optional<ProjectMember> findByProjectAndUser(Project project, User user);
     void deleteByProjectAndUser(Project project, User user);
+
+    @Query("SELECT m.role FROM ProjectMember m WHERE m.project.id = :projectId AND m.user.id = :userId")
+    Optional<ProjectMemberRole> findRole(@Param("projectId") UUID projectId, @Param("userId") UUID userId);
 }
@@ -1,8 +1,23 @@
 package com.example.tasksmanage.repository;
 
 import com.example.tasksmanage.model.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
+    // Lightweight (id, name, description) rows used to rebuild the in-memory search index
+    @Query("SELECT p.id, p.name, p.description FROM Project p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamSearchDocuments();
+
+    // The same row for one project, to reindex it after a change; empty once the project is gone
+    @Query("SELECT p.id, p.name, p.description FROM Project p WHERE p.id = :id")
+    List<Object[]> findSearchDocument(@Param("id") UUID id);
 }
@@ -3,9 +3,11 @@ package com.example.tasksmanage.repository;
 import com.example.tasksmanage.model.PushSubscription;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface PushSubscriptionRepository extends JpaRepository<PushSubscription, Long> {
     Optional<PushSubscription> findByUserIdAndEndpoint(UUID userId, String endpoint);
+    List<PushSubscription> findByUserId(UUID userId);
 }
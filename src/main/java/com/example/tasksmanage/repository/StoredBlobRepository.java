@@ -0,0 +1,34 @@
+package com.example.tasksmanage.repository;
+
+import com.example.tasksmanage.model.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+    // Row lock serializing "attach to existing blob" against "delete unreferenced blob"
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.digest = :digest")
+    Optional<StoredBlob> lockByDigest(@Param("digest") String digest);
+
+    // Returns 0 when the digest is already stored; a concurrent insert of it still ends in a key violation
+    @Modifying
+    @Query(value = "INSERT INTO blobs (digest, size, stored_size, codec, created_at) "
+            + "SELECT :digest, :size, :storedSize, :codec, :createdAt "
+            + "WHERE NOT EXISTS (SELECT 1 FROM blobs WHERE digest = :digest)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("digest") String digest, @Param("size") long size, @Param("storedSize") long storedSize,
+                       @Param("codec") String codec, @Param("createdAt") Date createdAt);
+
+    @Query("SELECT b.digest FROM StoredBlob b WHERE b.createdAt < :before "
+            + "AND NOT EXISTS (SELECT a.id FROM Attachment a WHERE a.contentHash = b.digest)")
+    List<String> findUnreferenced(@Param("before") Date before, Pageable pageable);
+}
@@ -1,11 +1,24 @@
 package com.example.tasksmanage.repository;
 
 import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.repository.projection.AssigneeCount;
+import com.example.tasksmanage.repository.projection.BucketCount;
+import com.example.tasksmanage.repository.projection.DailyCount;
+import com.example.tasksmanage.repository.projection.DueDateCount;
+import com.example.tasksmanage.repository.projection.TimelineEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, UUID>, org.springframework.data.jpa.repository.JpaSpecificationExecutor<Task> {
     // Global text search (name/description)
@@ -13,6 +26,7 @@ public interface TaskRepository extends JpaRepository<Task, UUID>, org.springfra
 
     // Advanced search using Specification for dynamic filtering
     default java.util.List<Task> advancedSearch(java.util.Map<String, String> params) {
+
         Specification<Task> spec = (root, query, cb) -> {
             List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>();
             if (params.containsKey("teamId"))
@@ -28,10 +42,12 @@ public interface TaskRepository extends JpaRepository<Task, UUID>, org.springfra
             if (params.containsKey("teamId"))
                 predicates.add(cb.equal(root.get("team").get("id"), java.util.UUID.fromString(params.get("teamId"))));
             if (params.containsKey("tags")) {
-                String[] tags = params.get("tags").split(",");
-                for (String tag : tags) {
-                    predicates.add(cb.isMember(tag.trim(), root.get("tags")));
+                java.util.Set<String> tags = new java.util.LinkedHashSet<>();
+                for (String tag : params.get("tags").split(",")) {
+                    String normalized = com.example.tasksmanage.util.TagUtils.normalize(tag);
+                    if (!normalized.isEmpty()) tags.add(normalized);
                 }
+                if (!tags.isEmpty()) predicates.add(taggedWith(root, query, cb, tags, true));
             }
             if (params.containsKey("dueDateFrom"))
                 predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), java.sql.Date.valueOf(params.get("dueDateFrom"))));
@@ -57,6 +73,103 @@ public interface TaskRepository extends JpaRepository<Task, UUID>, org.springfra
         }
     }
 
+    /**
+     * Tasks carrying all ({@code matchAll}) or any of the given normalized tags. Stored tags are
+     * normalized too ({@link Task#setTags}), so the comparison can use the task_tags index. One subquery
+     * per required tag (a single one for "any") rather than a join, so a task with several matching
+     * tags is returned once.
+     */
+    static jakarta.persistence.criteria.Predicate taggedWith(jakarta.persistence.criteria.Root<Task> root,
+                                                             jakarta.persistence.criteria.CriteriaQuery<?> query,
+                                                             jakarta.persistence.criteria.CriteriaBuilder cb,
+                                                             java.util.Collection<String> tags, boolean matchAll) {
+        List<java.util.Collection<String>> groups = new ArrayList<>();
+        if (matchAll) {
+            for (String tag : tags) groups.add(List.of(tag));
+        } else {
+            groups.add(tags);
+        }
+        List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>();
+        for (java.util.Collection<String> group : groups) {
+            jakarta.persistence.criteria.Subquery<UUID> tagged = query.subquery(UUID.class);
+            jakarta.persistence.criteria.Root<Task> taggedTask = tagged.from(Task.class);
+            jakarta.persistence.criteria.Expression<String> tag = taggedTask.join("tags");
+            tagged.select(taggedTask.get("id")).where(tag.in(group));
+            predicates.add(root.get("id").in(tagged));
+        }
+        return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
+    }
+
+    // Lightweight (id, title, description) rows used to rebuild the in-memory search index
+    @Query("SELECT t.id, t.title, t.description FROM Task t")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamSearchDocuments();
+
+    // The same row for one task, to reindex it after a change; empty once the task is gone
+    @Query("SELECT t.id, t.title, t.description FROM Task t WHERE t.id = :id")
+    List<Object[]> findSearchDocument(@Param("id") UUID id);
+
+    // (task id, tag) rows ordered by task, used to rebuild the in-memory tag bitmaps
+    @Query("SELECT t.id, tag FROM Task t JOIN t.tags tag ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTagRows();
+
+    @Query("SELECT tag FROM Task t JOIN t.tags tag WHERE t.id = :id")
+    List<String> findTagsById(@Param("id") UUID id);
+
     java.util.List<Task> findByProjectId(UUID projectId);
+
+    // --- Per-project aggregates (one row per bucket, no entity loading) ---
+
+    @Query("SELECT t.status AS bucket, COUNT(t) AS total FROM Task t WHERE t.project.id = :projectId GROUP BY t.status")
+    List<BucketCount> countByStatus(@Param("projectId") UUID projectId);
+
+    @Query("SELECT t.priority AS bucket, COUNT(t) AS total FROM Task t WHERE t.project.id = :projectId GROUP BY t.priority")
+    List<BucketCount> countByPriority(@Param("projectId") UUID projectId);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.dueDate < :now AND t.status <> 'COMPLETED'")
+    long countOverdue(@Param("projectId") UUID projectId, @Param("now") java.util.Date now);
+
+    @Query("SELECT t.assignedTo.id AS assigneeId, COUNT(t) AS total FROM Task t "
+            + "WHERE t.project.id = :projectId AND t.assignedTo IS NOT NULL GROUP BY t.assignedTo.id")
+    List<AssigneeCount> countByAssignee(@Param("projectId") UUID projectId);
+
+    @Query("SELECT CAST(t.createdAt AS LocalDate) AS eventDay, COUNT(t) AS total FROM Task t "
+            + "WHERE t.project.id = :projectId GROUP BY CAST(t.createdAt AS LocalDate)")
+    List<DailyCount> countCreatedPerDay(@Param("projectId") UUID projectId);
+
+    // Completion day is approximated by the last update of a COMPLETED task
+    @Query("SELECT CAST(t.updatedAt AS LocalDate) AS eventDay, COUNT(t) AS total FROM Task t "
+            + "WHERE t.project.id = :projectId AND t.status = 'COMPLETED' GROUP BY CAST(t.updatedAt AS LocalDate)")
+    List<DailyCount> countCompletedPerDay(@Param("projectId") UUID projectId);
+
+    @Query("SELECT t.dueDate AS dueDate, COUNT(t) AS total FROM Task t "
+            + "WHERE t.project.id = :projectId AND t.dueDate IS NOT NULL AND t.status <> 'COMPLETED' GROUP BY t.dueDate")
+    List<DueDateCount> countOpenByDueDate(@Param("projectId") UUID projectId);
+
+    @Query("SELECT t.id AS taskId, t.title AS title, t.createdAt AS startDate, t.dueDate AS endDate, t.status AS status "
+            + "FROM Task t WHERE t.project.id = :projectId ORDER BY t.createdAt DESC")
+    List<TimelineEntry> findTimeline(@Param("projectId") UUID projectId, Pageable pageable);
     java.util.List<Task> findByAssignedTo_Id(UUID assigneeId);
+
+    // --- Tag maintenance (set-based on the task_tags element-collection rows) ---
+    // Tags are stored normalized (Task#setTags), so callers pass TagUtils.normalize'd values
+
+    @Query("SELECT tag AS bucket, COUNT(t.id) AS total FROM Task t JOIN t.tags tag GROUP BY tag ORDER BY total DESC, bucket")
+    List<BucketCount> countTasksByTag();
+
+    @Query("SELECT COUNT(t.id) FROM Task t JOIN t.tags tag WHERE tag = :tag")
+    long countTasksWithTag(@Param("tag") String tag);
+
+    // Adds the target tag to every task carrying the source tag that doesn't have it yet
+    @Modifying
+    @Query(value = "INSERT INTO task_tags (task_id, tags) SELECT s.task_id, :target FROM task_tags s "
+            + "WHERE s.tags = :source "
+            + "AND NOT EXISTS (SELECT 1 FROM task_tags x WHERE x.task_id = s.task_id AND x.tags = :target)",
+            nativeQuery = true)
+    int addTagWhereTagged(@Param("source") String source, @Param("target") String target);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_tags WHERE tags = :tag", nativeQuery = true)
+    int deleteTag(@Param("tag") String tag);
 }
@@ -14,6 +14,30 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @org.springframework.data.jpa.repository.Query("SELECT COUNT(u) FROM User u WHERE u.lastLogin >= :since")
     long countRecentLogins(java.time.Instant since);
 
+    // Lightweight (id, username, email, firstName, lastName) rows used to rebuild the autocomplete index
+    @org.springframework.data.jpa.repository.Query("SELECT u.id, u.username, u.email, u.firstName, u.lastName FROM User u")
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    java.util.stream.Stream<Object[]> streamAutocompleteEntries();
+
+    // The same row for one user, to reindex it after a change; empty once the user is gone
+    @org.springframework.data.jpa.repository.Query("SELECT u.id, u.username, u.email, u.firstName, u.lastName FROM User u WHERE u.id = :id")
+    java.util.List<Object[]> findAutocompleteEntry(@org.springframework.data.repository.query.Param("id") UUID id);
+
+    // Admin export: flat rows in id order, one chunk at a time (keyset on id)
+    @org.springframework.data.jpa.repository.Query("SELECT u.id AS id, u.email AS email, u.username AS username, u.firstName AS firstName, "
+            + "u.lastName AS lastName, u.status AS status, u.createdAt AS createdAt, u.lastLogin AS lastLogin FROM User u ORDER BY u.id")
+    java.util.List<com.example.tasksmanage.repository.projection.UserExportRow> findExportRows(org.springframework.data.domain.Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id AS id, u.email AS email, u.username AS username, u.firstName AS firstName, "
+            + "u.lastName AS lastName, u.status AS status, u.createdAt AS createdAt, u.lastLogin AS lastLogin FROM User u "
+            + "WHERE u.id > :after ORDER BY u.id")
+    java.util.List<com.example.tasksmanage.repository.projection.UserExportRow> findExportRowsAfter(
+            @org.springframework.data.repository.query.Param("after") UUID after, org.springframework.data.domain.Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.id AS userId, r.name AS roleName FROM User u JOIN u.roles r WHERE u.id IN :userIds")
+    java.util.List<com.example.tasksmanage.repository.projection.UserRoleName> findRoleNames(
+            @org.springframework.data.repository.query.Param("userIds") java.util.Collection<UUID> userIds);
+
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
     boolean existsByEmail(String email);
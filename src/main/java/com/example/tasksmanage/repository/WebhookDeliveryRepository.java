@@ -0,0 +1,67 @@
+package com.example.tasksmanage.repository;
+
+import com.example.tasksmanage.model.WebhookDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, UUID> {
+    // Nothing of a webhook is due while an older delivery of it waits for a retry, so retries keep the webhook's order
+    @Query("SELECT d FROM WebhookDelivery d JOIN FETCH d.event JOIN FETCH d.webhook w "
+            + "WHERE d.status = 'PENDING' AND d.nextAttemptAt <= :now AND w.active = true "
+            + "AND NOT EXISTS (SELECT o.id FROM WebhookDelivery o WHERE o.webhook = w AND o.status = 'PENDING' "
+            + "AND o.nextAttemptAt > :now AND o.createdAt < d.createdAt) "
+            + "ORDER BY d.createdAt")
+    List<WebhookDelivery> findDue(@Param("now") Instant now, Pageable pageable);
+
+    // A batching webhook's next batch: everything not waiting for a retry, whether or not its linger has elapsed
+    @Query("SELECT d FROM WebhookDelivery d JOIN FETCH d.event JOIN FETCH d.webhook "
+            + "WHERE d.webhook.id = :webhookId AND d.status = 'PENDING' AND (d.attempts = 0 OR d.nextAttemptAt <= :now) "
+            + "ORDER BY d.createdAt")
+    List<WebhookDelivery> findBatchable(@Param("webhookId") UUID webhookId, @Param("now") Instant now, Pageable pageable);
+
+    // Batching webhooks with a full batch waiting, which is sent without waiting out the linger
+    @Query("SELECT w.id FROM WebhookDelivery d JOIN d.webhook w "
+            + "WHERE d.status = 'PENDING' AND d.attempts = 0 AND w.active = true AND w.batchMaxSize > 1 "
+            + "GROUP BY w.id, w.batchMaxSize HAVING COUNT(d) >= w.batchMaxSize")
+    List<UUID> findWebhooksWithFullBatch();
+
+    // Conditional update so that only one dispatcher (on any node) wins a delivery
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'IN_FLIGHT', d.updatedAt = :now WHERE d.id = :id AND d.status = 'PENDING'")
+    int claim(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = :status, d.attempts = :attempts, d.nextAttemptAt = :nextAttemptAt, "
+            + "d.responseCode = :responseCode, d.lastError = :lastError, d.updatedAt = :now WHERE d.id = :id")
+    int recordAttempt(@Param("id") UUID id, @Param("status") String status, @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") Instant nextAttemptAt, @Param("responseCode") Integer responseCode,
+                      @Param("lastError") String lastError, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'PENDING', d.updatedAt = :now WHERE d.id IN :ids AND d.status = 'IN_FLIGHT'")
+    int release(@Param("ids") List<UUID> ids, @Param("now") Instant now);
+
+    // Deliveries whose dispatcher died mid-send go back to the queue
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.status = 'PENDING', d.updatedAt = :now WHERE d.status = 'IN_FLIGHT' AND d.updatedAt < :before")
+    int releaseStale(@Param("before") Instant before, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM WebhookDelivery d WHERE d.status IN ('DELIVERED', 'FAILED') AND d.updatedAt < :before")
+    int deleteFinishedBefore(@Param("before") Instant before);
+
+    List<WebhookDelivery> findByWebhook_IdOrderByCreatedAt(UUID webhookId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WebhookDelivery d WHERE d.webhook.id = :webhookId")
+    int deleteByWebhookId(@Param("webhookId") UUID webhookId);
+}
@@ -0,0 +1,17 @@
+package com.example.tasksmanage.repository;
+
+import com.example.tasksmanage.model.WebhookOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface WebhookOutboxEventRepository extends JpaRepository<WebhookOutboxEvent, UUID> {
+    @Modifying
+    @Query("DELETE FROM WebhookOutboxEvent e WHERE e.createdAt < :before "
+            + "AND NOT EXISTS (SELECT d.id FROM WebhookDelivery d WHERE d.event = e)")
+    int deleteUndeliverableBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,11 @@
+package com.example.tasksmanage.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * One GROUP BY row: number of tasks assigned to a user.
+ */
+public interface AssigneeCount {
+    UUID getAssigneeId();
+    long getTotal();
+}
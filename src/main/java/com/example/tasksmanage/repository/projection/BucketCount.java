@@ -0,0 +1,9 @@
+package com.example.tasksmanage.repository.projection;
+
+/**
+ * One GROUP BY row: number of tasks sharing a value (status, priority, ...).
+ */
+public interface BucketCount {
+    String getBucket();
+    long getTotal();
+}
@@ -0,0 +1,11 @@
+package com.example.tasksmanage.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * One GROUP BY row: number of tasks that hit an event (created, completed) on a calendar day.
+ */
+public interface DailyCount {
+    LocalDate getEventDay();
+    long getTotal();
+}
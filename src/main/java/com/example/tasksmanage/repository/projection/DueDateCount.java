@@ -0,0 +1,11 @@
+package com.example.tasksmanage.repository.projection;
+
+import java.util.Date;
+
+/**
+ * One GROUP BY row: number of open tasks sharing a due date.
+ */
+public interface DueDateCount {
+    Date getDueDate();
+    long getTotal();
+}
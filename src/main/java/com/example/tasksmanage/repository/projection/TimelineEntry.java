@@ -0,0 +1,15 @@
+package com.example.tasksmanage.repository.projection;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Scalar task columns for timeline views, read without loading the entity graph.
+ */
+public interface TimelineEntry {
+    UUID getTaskId();
+    String getTitle();
+    Date getStartDate();
+    Date getEndDate();
+    String getStatus();
+}
@@ -0,0 +1,20 @@
+package com.example.tasksmanage.repository.projection;
+
+import com.example.tasksmanage.model.AccountStatus;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Flat user columns for the admin export, read without loading the entity (or its eager roles and backup codes).
+ */
+public interface UserExportRow {
+    UUID getId();
+    String getEmail();
+    String getUsername();
+    String getFirstName();
+    String getLastName();
+    AccountStatus getStatus();
+    Date getCreatedAt();
+    Date getLastLogin();
+}
@@ -0,0 +1,11 @@
+package com.example.tasksmanage.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * One (user, role name) pair, used to attach roles to a chunk of exported users in one query.
+ */
+public interface UserRoleName {
+    UUID getUserId();
+    String getRoleName();
+}
@@ -0,0 +1,199 @@
+package com.example.tasksmanage.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie of suggestion phrases with a cached, frequency-weighted top-k list on every node.
+ * <p>
+ * A phrase is reachable from the start of each of its words, so "sprint review" is suggested
+ * for both "spr" and "rev". Its weight is the number of owners (entities) currently carrying it.
+ * Lookups walk at most {@link #MAX_KEY_LENGTH} nodes and return the precomputed top-k, so the
+ * cost does not depend on how many phrases are stored.
+ */
+public class AutocompleteTrie {
+    static final int MAX_KEY_LENGTH = 48;
+
+    private static final Comparator<Suggestion> BY_WEIGHT = Comparator.comparingInt((Suggestion s) -> s.weight)
+            .reversed()
+            .thenComparing(s -> s.text);
+
+    private final int topK;
+    private final Node root = new Node();
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    private final Map<UUID, List<String>> owners = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public AutocompleteTrie(int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * Replaces the phrases contributed by an owner (e.g. a task's title or a user's username and email).
+     */
+    public void put(UUID owner, Collection<String> phrases) {
+        List<String> cleaned = new ArrayList<>();
+        for (String phrase : phrases) {
+            if (phrase != null && !phrase.isBlank() && !cleaned.contains(phrase)) cleaned.add(phrase);
+        }
+        lock.writeLock().lock();
+        try {
+            List<String> previous = owners.remove(owner);
+            if (previous != null) previous.forEach(this::decrement);
+            if (cleaned.isEmpty()) return;
+            owners.put(owner, cleaned);
+            cleaned.forEach(this::increment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID owner) {
+        lock.writeLock().lock();
+        try {
+            List<String> previous = owners.remove(owner);
+            if (previous != null) previous.forEach(this::decrement);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.terminals.clear();
+            root.top = List.of();
+            suggestions.clear();
+            owners.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} phrases (capped at the configured top-k) starting with the prefix
+     * at a word boundary, most frequent first.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) return List.of();
+            List<String> out = new ArrayList<>(Math.min(limit, node.top.size()));
+            for (Suggestion s : node.top) {
+                if (out.size() >= limit) break;
+                out.add(s.text);
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void increment(String phrase) {
+        Suggestion suggestion = suggestions.get(phrase);
+        boolean created = suggestion == null;
+        if (created) {
+            suggestion = new Suggestion(phrase);
+            suggestions.put(phrase, suggestion);
+        }
+        suggestion.weight++;
+        for (String key : keys(phrase)) update(root, key, 0, suggestion, created ? Boolean.TRUE : null, true);
+    }
+
+    private void decrement(String phrase) {
+        Suggestion suggestion = suggestions.get(phrase);
+        if (suggestion == null) return;
+        suggestion.weight--;
+        boolean gone = suggestion.weight <= 0;
+        if (gone) suggestions.remove(phrase);
+        for (String key : keys(phrase)) update(root, key, 0, suggestion, gone ? Boolean.FALSE : null, false);
+    }
+
+    /**
+     * Walks down the key path, attaches/detaches the terminal at its end (TRUE/FALSE, null = weight change only)
+     * and refreshes every node's top-k on the way back up. Returns whether the node became empty.
+     */
+    private boolean update(Node node, String key, int depth, Suggestion suggestion, Boolean attach, boolean increased) {
+        if (depth == key.length()) {
+            if (Boolean.TRUE.equals(attach)) node.terminals.add(suggestion);
+            if (Boolean.FALSE.equals(attach)) node.terminals.remove(suggestion);
+        } else {
+            char c = key.charAt(depth);
+            Node child = node.children.get(c);
+            if (child == null) {
+                if (!Boolean.TRUE.equals(attach)) return false;
+                child = new Node();
+                node.children.put(c, child);
+            }
+            if (update(child, key, depth + 1, suggestion, attach, increased)) node.children.remove(c);
+        }
+        if (increased) {
+            promote(node, suggestion);
+        } else {
+            recompute(node);
+        }
+        return node != root && node.terminals.isEmpty() && node.children.isEmpty();
+    }
+
+    // A weight increase can only move this suggestion up, so the rest of the list stays valid
+    private void promote(Node node, Suggestion suggestion) {
+        List<Suggestion> top = new ArrayList<>(node.top);
+        if (!top.contains(suggestion)) {
+            if (top.size() >= topK && BY_WEIGHT.compare(suggestion, top.get(top.size() - 1)) > 0) return;
+            top.add(suggestion);
+        }
+        top.sort(BY_WEIGHT);
+        node.top = top.size() > topK ? List.copyOf(top.subList(0, topK)) : List.copyOf(top);
+    }
+
+    // A decrease or removal may let a sibling in, so rebuild from the terminals and the children's lists
+    private void recompute(Node node) {
+        Set<Suggestion> candidates = new HashSet<>(node.terminals);
+        for (Node child : node.children.values()) candidates.addAll(child.top);
+        List<Suggestion> sorted = new ArrayList<>(candidates);
+        sorted.sort(BY_WEIGHT);
+        node.top = sorted.size() > topK ? List.copyOf(sorted.subList(0, topK)) : List.copyOf(sorted);
+    }
+
+    private static Set<String> keys(String phrase) {
+        String normalized = normalize(phrase);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(normalized.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1)));
+            if (wordStart) keys.add(truncate(normalized.substring(i)));
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) return "";
+        return truncate(text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static final class Suggestion {
+        final String text;
+        int weight;
+
+        Suggestion(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        final Set<Suggestion> terminals = new HashSet<>();
+        List<Suggestion> top = List.of();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.tasksmanage.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from lowercased terms to postings lists of document ids.
+ * <p>
+ * Each posting carries a weight (field weight times term frequency) that is summed across
+ * query terms to rank results. Every query term must match (AND semantics); the last term
+ * is matched as a prefix so partially typed words still hit.
+ */
+public class InvertedIndex {
+    private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    private final Map<UUID, Map<String, Integer>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Replaces the indexed content of a document. Fields are given as text/weight pairs.
+     */
+    public void put(UUID id, Map<String, Integer> weightedFields) {
+        Map<String, Integer> terms = new HashMap<>();
+        weightedFields.forEach((text, weight) -> {
+            for (String token : TextTokenizer.tokenize(text)) {
+                terms.merge(token, weight, Integer::sum);
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (terms.isEmpty()) return;
+            documents.put(id, terms);
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} document ids matching every term of the query, best score first.
+     */
+    public List<UUID> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextTokenizer.tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) return List.of();
+        lock.readLock().lock();
+        try {
+            Map<UUID, Integer> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<UUID, Integer> matches = i == terms.size() - 1 ? prefixMatches(terms.get(i)) : exactMatches(terms.get(i));
+                if (scores == null) {
+                    scores = new HashMap<>(matches);
+                } else {
+                    scores.keySet().retainAll(matches.keySet());
+                    scores.replaceAll((id, score) -> score + matches.get(id));
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<UUID, Integer> exactMatches(String term) {
+        Map<UUID, Integer> postingList = postings.get(term);
+        return postingList != null ? postingList : Map.of();
+    }
+
+    private Map<UUID, Integer> prefixMatches(String prefix) {
+        SortedMap<String, Map<UUID, Integer>> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (range.size() == 1) return range.values().iterator().next();
+        Map<UUID, Integer> merged = new HashMap<>();
+        for (Map<UUID, Integer> postingList : range.values()) {
+            postingList.forEach((id, weight) -> merged.merge(id, weight, Math::max));
+        }
+        return merged;
+    }
+
+    private void removeLocked(UUID id) {
+        Map<String, Integer> terms = documents.remove(id);
+        if (terms == null) return;
+        for (String term : terms.keySet()) {
+            Map<UUID, Integer> postingList = postings.get(term);
+            if (postingList == null) continue;
+            postingList.remove(id);
+            if (postingList.isEmpty()) postings.remove(term);
+        }
+    }
+
+    private static List<UUID> topK(Map<UUID, Integer> scores, int limit) {
+        Comparator<Map.Entry<UUID, Integer>> byRank = Map.Entry.<UUID, Integer>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        // Min-heap on rank keeps only the best `limit` entries
+        PriorityQueue<Map.Entry<UUID, Integer>> heap = new PriorityQueue<>(byRank.reversed());
+        for (Map.Entry<UUID, Integer> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) heap.poll();
+        }
+        List<Map.Entry<UUID, Integer>> ranked = new ArrayList<>(heap);
+        ranked.sort(byRank);
+        List<UUID> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<UUID, Integer> entry : ranked) ids.add(entry.getKey());
+        return ids;
+    }
+}
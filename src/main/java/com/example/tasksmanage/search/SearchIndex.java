@@ -0,0 +1,377 @@
+package com.example.tasksmanage.search;
+
+import com.example.tasksmanage.cache.InvalidationBus;
+import com.example.tasksmanage.model.Comment;
+import com.example.tasksmanage.model.Project;
+import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.CommentRepository;
+import com.example.tasksmanage.repository.ProjectRepository;
+import com.example.tasksmanage.repository.TaskRepository;
+import com.example.tasksmanage.repository.UserRepository;
+import com.example.tasksmanage.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Full-text index over task, project and comment text used by the global search, the prefix
+ * tries behind autocomplete (task titles, project names, user names and emails) and the tag
+ * bitmaps behind task tag facets.
+ * <p>
+ * The indexes are rebuilt from the repositories when the application starts. The write paths apply
+ * their own changes after commit, so this node sees them at once, and every node then reloads the
+ * changed entity when its {@link InvalidationBus} message arrives. The index may therefore lag
+ * writes made on other nodes briefly; tag filters are answered by the database.
+ */
+@Component
+public class SearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    static final int TITLE_WEIGHT = 3;
+    static final int BODY_WEIGHT = 1;
+    static final int AUTOCOMPLETE_TOP_K = 10;
+    // Bus entity types whose changes reach the index
+    private static final List<String> INDEXED_TYPES =
+            List.of(InvalidationBus.TASK, InvalidationBus.PROJECT, InvalidationBus.USER, InvalidationBus.COMMENT);
+
+    private final InvertedIndex tasks = new InvertedIndex();
+    private final InvertedIndex projects = new InvertedIndex();
+    private final InvertedIndex comments = new InvertedIndex();
+    private final AutocompleteTrie taskTitles = new AutocompleteTrie(AUTOCOMPLETE_TOP_K);
+    private final AutocompleteTrie projectNames = new AutocompleteTrie(AUTOCOMPLETE_TOP_K);
+    private final AutocompleteTrie userNames = new AutocompleteTrie(AUTOCOMPLETE_TOP_K);
+    private final TagBitmapIndex taskTags = new TagBitmapIndex();
+    // Held while reading from the database, so a rebuild never overwrites a newer reload with older rows
+    private final ReentrantLock reload = new ReentrantLock();
+    // Entities changed on some node that are yet to be reloaded, by one drain at a time so that an
+    // older read never overwrites a newer one
+    private final Set<Changed> stale = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private record Changed(String type, UUID id) {
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private InvalidationBus invalidationBus;
+    @Autowired
+    @Qualifier("ioExecutor")
+    private AsyncTaskExecutor executor;
+
+    @PostConstruct
+    void subscribe() {
+        for (String type : INDEXED_TYPES) {
+            invalidationBus.subscribe(type, id -> changed(type, id));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (String type : INDEXED_TYPES) {
+            rebuild(type);
+        }
+        log.info("Search index rebuilt: {} tasks ({} tagged), {} projects, {} comments",
+                tasks.size(), taskTags.size(), projects.size(), comments.size());
+    }
+
+    void rebuild(String type) {
+        reload.lock();
+        try {
+            readOnly(() -> {
+                switch (type) {
+                    case InvalidationBus.TASK -> loadTasks();
+                    case InvalidationBus.PROJECT -> loadProjects();
+                    case InvalidationBus.USER -> loadUsers();
+                    case InvalidationBus.COMMENT -> loadComments();
+                    default -> throw new IllegalArgumentException("Not indexed: " + type);
+                }
+            });
+        } finally {
+            reload.unlock();
+        }
+    }
+
+    private void loadTasks() {
+        tasks.clear();
+        taskTitles.clear();
+        try (Stream<Object[]> rows = taskRepository.streamSearchDocuments()) {
+            rows.forEach(this::putTask);
+        }
+        taskTags.clear();
+        try (Stream<Object[]> rows = taskRepository.streamTagRows()) {
+            // Rows arrive grouped by task; flush each task's tags when the id changes
+            UUID[] current = new UUID[1];
+            List<String> tags = new ArrayList<>();
+            rows.forEach(r -> {
+                if (!r[0].equals(current[0])) {
+                    if (current[0] != null) taskTags.put(current[0], tags);
+                    current[0] = (UUID) r[0];
+                    tags.clear();
+                }
+                tags.add((String) r[1]);
+            });
+            if (current[0] != null) taskTags.put(current[0], tags);
+        }
+    }
+
+    private void loadProjects() {
+        projects.clear();
+        projectNames.clear();
+        try (Stream<Object[]> rows = projectRepository.streamSearchDocuments()) {
+            rows.forEach(this::putProject);
+        }
+    }
+
+    private void loadUsers() {
+        userNames.clear();
+        try (Stream<Object[]> rows = userRepository.streamAutocompleteEntries()) {
+            rows.forEach(this::putUser);
+        }
+    }
+
+    // Rows as read by the repositories' search document queries
+    private void putTask(Object[] r) {
+        tasks.put((UUID) r[0], fields((String) r[1], (String) r[2]));
+        taskTitles.put((UUID) r[0], Arrays.asList((String) r[1]));
+    }
+
+    private void putProject(Object[] r) {
+        projects.put((UUID) r[0], fields((String) r[1], (String) r[2]));
+        projectNames.put((UUID) r[0], Arrays.asList((String) r[1]));
+    }
+
+    private void putUser(Object[] r) {
+        userNames.put((UUID) r[0], Arrays.asList((String) r[1], (String) r[2], (String) r[3], (String) r[4]));
+    }
+
+    private void putComment(Object[] r) {
+        comments.put((UUID) r[0], fields(null, (String) r[1]));
+    }
+
+    private void loadComments() {
+        comments.clear();
+        try (Stream<Object[]> rows = commentRepository.streamSearchDocuments()) {
+            rows.forEach(this::putComment);
+        }
+    }
+
+    /**
+     * Reloads an entity changed on any node (this one included), or every entity of the type after a
+     * bulk change. Bus listeners must be quick, so both happen on the I/O executor.
+     */
+    void changed(String type, String id) {
+        if (InvalidationBus.ALL.equals(id)) {
+            executor.execute(() -> rebuild(type));
+            return;
+        }
+        stale.add(new Changed(type, UUID.fromString(id)));
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) return;
+        try {
+            executor.execute(this::drainStale);
+        } catch (TaskRejectedException ex) {
+            // Left queued for the next change to pick up
+            draining.set(false);
+            log.warn("Could not schedule reindexing {} changed entities: {}", stale.size(), ex.getMessage());
+        }
+    }
+
+    private void drainStale() {
+        try {
+            for (Changed changed : List.copyOf(stale)) {
+                // Removed before reading, so a change arriving meanwhile queues the entity again
+                stale.remove(changed);
+                reload.lock();
+                try {
+                    readOnly(() -> reindex(changed));
+                } finally {
+                    reload.unlock();
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Reindexing changed entities failed: {}", ex.getMessage());
+        } finally {
+            draining.set(false);
+        }
+        // Changes that arrived after the last pass
+        if (!stale.isEmpty()) scheduleDrain();
+    }
+
+    private void reindex(Changed changed) {
+        UUID id = changed.id();
+        // An entity that is gone leaves no row, and its entries go with it
+        switch (changed.type()) {
+            case InvalidationBus.TASK -> {
+                List<Object[]> rows = taskRepository.findSearchDocument(id);
+                if (rows.isEmpty()) {
+                    dropTask(id);
+                } else {
+                    putTask(rows.get(0));
+                    taskTags.put(id, taskRepository.findTagsById(id));
+                }
+            }
+            case InvalidationBus.PROJECT -> {
+                List<Object[]> rows = projectRepository.findSearchDocument(id);
+                if (rows.isEmpty()) dropProject(id);
+                else putProject(rows.get(0));
+            }
+            case InvalidationBus.USER -> {
+                List<Object[]> rows = userRepository.findAutocompleteEntry(id);
+                if (rows.isEmpty()) userNames.remove(id);
+                else putUser(rows.get(0));
+            }
+            case InvalidationBus.COMMENT -> {
+                List<Object[]> rows = commentRepository.findSearchDocument(id);
+                if (rows.isEmpty()) comments.remove(id);
+                else putComment(rows.get(0));
+            }
+            default -> throw new IllegalArgumentException("Not indexed: " + changed.type());
+        }
+    }
+
+    private void readOnly(Runnable action) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> action.run());
+    }
+
+    public void indexTask(Task task) {
+        UUID id = task.getId();
+        Map<String, Integer> fields = fields(task.getTitle(), task.getDescription());
+        List<String> title = Arrays.asList(task.getTitle());
+        List<String> tags = task.getTags() != null ? new ArrayList<>(task.getTags()) : List.of();
+        TransactionUtils.afterCommit(() -> {
+            tasks.put(id, fields);
+            taskTitles.put(id, title);
+            taskTags.put(id, tags);
+        });
+    }
+
+    public void removeTask(UUID id) {
+        TransactionUtils.afterCommit(() -> dropTask(id));
+    }
+
+    private void dropTask(UUID id) {
+        tasks.remove(id);
+        taskTitles.remove(id);
+        taskTags.remove(id);
+    }
+
+    public void renameTag(String from, String to) {
+        TransactionUtils.afterCommit(() -> taskTags.renameTag(from, to));
+    }
+
+    public void removeTag(String tag) {
+        TransactionUtils.afterCommit(() -> taskTags.removeTag(tag));
+    }
+
+    public void indexProject(Project project) {
+        UUID id = project.getId();
+        Map<String, Integer> fields = fields(project.getName(), project.getDescription());
+        List<String> name = Arrays.asList(project.getName());
+        TransactionUtils.afterCommit(() -> {
+            projects.put(id, fields);
+            projectNames.put(id, name);
+        });
+    }
+
+    public void removeProject(UUID id) {
+        TransactionUtils.afterCommit(() -> dropProject(id));
+    }
+
+    private void dropProject(UUID id) {
+        projects.remove(id);
+        projectNames.remove(id);
+    }
+
+    public void indexComment(Comment comment) {
+        UUID id = comment.getId();
+        Map<String, Integer> fields = fields(null, comment.getContent());
+        TransactionUtils.afterCommit(() -> comments.put(id, fields));
+    }
+
+    public void removeComment(UUID id) {
+        TransactionUtils.afterCommit(() -> comments.remove(id));
+    }
+
+    public void indexUser(User user) {
+        UUID id = user.getId();
+        List<String> names = Arrays.asList(user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName());
+        TransactionUtils.afterCommit(() -> userNames.put(id, names));
+    }
+
+    public void removeUser(UUID id) {
+        TransactionUtils.afterCommit(() -> userNames.remove(id));
+    }
+
+    public List<UUID> searchTasks(String query, int limit) {
+        return tasks.search(query, limit);
+    }
+
+    public List<UUID> searchProjects(String query, int limit) {
+        return projects.search(query, limit);
+    }
+
+    public List<UUID> searchComments(String query, int limit) {
+        return comments.search(query, limit);
+    }
+
+    public Map<String, Long> taskTagFacets(Collection<String> tags, boolean matchAll) {
+        return taskTags.facets(tags, matchAll);
+    }
+
+    public List<String> suggestTaskTitles(String prefix, int limit) {
+        return taskTitles.suggest(prefix, limit);
+    }
+
+    public List<String> suggestProjectNames(String prefix, int limit) {
+        return projectNames.suggest(prefix, limit);
+    }
+
+    public List<String> suggestUsers(String prefix, int limit) {
+        return userNames.suggest(prefix, limit);
+    }
+
+    private static Map<String, Integer> fields(String title, String body) {
+        Map<String, Integer> fields = new LinkedHashMap<>();
+        if (title != null) fields.put(title, TITLE_WEIGHT);
+        // Same text in both fields (e.g. title repeated as description) keeps the higher weight
+        if (body != null) fields.merge(body, BODY_WEIGHT, Math::max);
+        return fields;
+    }
+}
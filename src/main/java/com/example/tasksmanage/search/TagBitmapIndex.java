@@ -0,0 +1,238 @@
+package com.example.tasksmanage.search;
+
+import com.example.tasksmanage.util.TagUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tag dictionary plus one bitmap per tag over dense task ordinals.
+ * <p>
+ * Every normalized tag is interned to an int id and every tagged task gets an int ordinal (freed
+ * ordinals are reused so the bitmaps stay dense). Multi-tag AND/OR filters and tag facets are then
+ * answered with bitmap intersections/unions and cardinalities instead of joins over task_tags.
+ */
+public class TagBitmapIndex {
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final List<BitSet> bitmaps = new ArrayList<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<UUID> tasks = new ArrayList<>();
+    private final List<int[]> taskTags = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Replaces the tags of a task. Tags are normalized; blank ones are ignored.
+     */
+    public void put(UUID task, Collection<String> tags) {
+        Set<String> normalized = normalizeAll(tags);
+        lock.writeLock().lock();
+        try {
+            removeLocked(task);
+            if (normalized.isEmpty()) return;
+            int ordinal = freeOrdinals.isEmpty() ? tasks.size() : freeOrdinals.pop();
+            int[] ids = new int[normalized.size()];
+            int i = 0;
+            for (String tag : normalized) {
+                ids[i] = intern(tag);
+                bitmaps.get(ids[i]).set(ordinal);
+                i++;
+            }
+            if (ordinal == tasks.size()) {
+                tasks.add(task);
+                taskTags.add(ids);
+            } else {
+                tasks.set(ordinal, task);
+                taskTags.set(ordinal, ids);
+            }
+            ordinals.put(task, ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID task) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            tagIds.clear();
+            tagNames.clear();
+            bitmaps.clear();
+            ordinals.clear();
+            tasks.clear();
+            taskTags.clear();
+            freeOrdinals.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves every task tagged {@code from} to {@code to} (rename and merge are the same operation).
+     */
+    public void renameTag(String from, String to) {
+        String source = TagUtils.normalize(from);
+        String target = TagUtils.normalize(to);
+        if (source.isEmpty() || target.isEmpty() || source.equals(target)) return;
+        lock.writeLock().lock();
+        try {
+            Integer sourceId = tagIds.get(source);
+            if (sourceId == null) return;
+            int targetId = intern(target);
+            BitSet moved = bitmaps.get(sourceId);
+            for (int ordinal = moved.nextSetBit(0); ordinal >= 0; ordinal = moved.nextSetBit(ordinal + 1)) {
+                int[] ids = without(taskTags.get(ordinal), sourceId);
+                if (!bitmaps.get(targetId).get(ordinal)) {
+                    ids = Arrays.copyOf(ids, ids.length + 1);
+                    ids[ids.length - 1] = targetId;
+                }
+                taskTags.set(ordinal, ids);
+            }
+            bitmaps.get(targetId).or(moved);
+            moved.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeTag(String tag) {
+        lock.writeLock().lock();
+        try {
+            Integer tagId = tagIds.get(TagUtils.normalize(tag));
+            if (tagId == null) return;
+            BitSet removed = bitmaps.get(tagId);
+            for (int ordinal = removed.nextSetBit(0); ordinal >= 0; ordinal = removed.nextSetBit(ordinal + 1)) {
+                taskTags.set(ordinal, without(taskTags.get(ordinal), tagId));
+            }
+            removed.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the tasks carrying all ({@code matchAll}) or any of the tags, or null when more than
+     * {@code max} tasks match so the caller can fall back to a database-side filter.
+     */
+    public List<UUID> match(Collection<String> tags, boolean matchAll, int max) {
+        lock.readLock().lock();
+        try {
+            BitSet matched = matchLocked(normalizeAll(tags), matchAll);
+            if (matched.cardinality() > max) return null;
+            List<UUID> out = new ArrayList<>(matched.cardinality());
+            for (int ordinal = matched.nextSetBit(0); ordinal >= 0; ordinal = matched.nextSetBit(ordinal + 1)) {
+                out.add(tasks.get(ordinal));
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of tasks per tag among the tasks matching the given tags (all tagged tasks when none
+     * are given), most frequent first. Tags no matching task carries are left out.
+     */
+    public Map<String, Long> facets(Collection<String> tags, boolean matchAll) {
+        Set<String> normalized = normalizeAll(tags);
+        lock.readLock().lock();
+        try {
+            BitSet scope = normalized.isEmpty() ? null : matchLocked(normalized, matchAll);
+            List<Map.Entry<String, Long>> counts = new ArrayList<>();
+            for (int tagId = 0; tagId < bitmaps.size(); tagId++) {
+                BitSet bitmap = bitmaps.get(tagId);
+                long count;
+                if (scope == null) {
+                    count = bitmap.cardinality();
+                } else {
+                    BitSet both = (BitSet) bitmap.clone();
+                    both.and(scope);
+                    count = both.cardinality();
+                }
+                if (count > 0) counts.add(Map.entry(tagNames.get(tagId), count));
+            }
+            counts.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> out = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : counts) out.put(entry.getKey(), entry.getValue());
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet matchLocked(Set<String> tags, boolean matchAll) {
+        BitSet result = null;
+        for (String tag : tags) {
+            Integer tagId = tagIds.get(tag);
+            if (tagId == null) {
+                if (matchAll) return new BitSet();
+                continue;
+            }
+            if (result == null) {
+                result = (BitSet) bitmaps.get(tagId).clone();
+            } else if (matchAll) {
+                result.and(bitmaps.get(tagId));
+            } else {
+                result.or(bitmaps.get(tagId));
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    private void removeLocked(UUID task) {
+        Integer ordinal = ordinals.remove(task);
+        if (ordinal == null) return;
+        for (int tagId : taskTags.get(ordinal)) bitmaps.get(tagId).clear(ordinal);
+        tasks.set(ordinal, null);
+        taskTags.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    private int intern(String tag) {
+        Integer id = tagIds.get(tag);
+        if (id != null) return id;
+        int assigned = tagNames.size();
+        tagIds.put(tag, assigned);
+        tagNames.add(tag);
+        bitmaps.add(new BitSet());
+        return assigned;
+    }
+
+    private static int[] without(int[] ids, int tagId) {
+        int[] out = new int[ids.length];
+        int n = 0;
+        for (int id : ids) {
+            if (id != tagId) out[n++] = id;
+        }
+        return n == ids.length ? ids : Arrays.copyOf(out, n);
+    }
+
+    private static Set<String> normalizeAll(Collection<String> tags) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (tags == null) return normalized;
+        for (String tag : tags) {
+            String n = TagUtils.normalize(tag);
+            if (!n.isEmpty()) normalized.add(n);
+        }
+        return normalized;
+    }
+}
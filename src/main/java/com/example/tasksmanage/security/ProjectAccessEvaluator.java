@@ -1,7 +1,6 @@
 package com.example.tasksmanage.security;
 
-import com.example.tasksmanage.service.ProjectMemberService;
-import com.example.tasksmanage.repository.UserRepository;
+import com.example.tasksmanage.service.UserLookupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -11,48 +10,30 @@ import java.util.UUID;
 @Component
 public class ProjectAccessEvaluator {
     @Autowired
-    private ProjectMemberService projectMemberService;
+    private ProjectMembershipIndex membershipIndex;
     @Autowired
-    private UserRepository userRepository;
+    private UserLookupService userLookupService;
 
     public boolean isMember(Authentication authentication, UUID projectId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            System.out.println("DEBUG: Authentication is null or not authenticated");
-            return false;
-        }
+        if (authentication == null || !authentication.isAuthenticated()) return false;
         UUID userId = getUserId(authentication);
-        if (userId == null) {
-            System.out.println("DEBUG: Could not extract userId from authentication: " + authentication.getName());
-            return false;
-        }
-        System.out.println("DEBUG: Checking membership for userId: " + userId + ", projectId: " + projectId);
-        
-        try {
-            var members = projectMemberService.listMembers(projectId);
-            System.out.println("DEBUG: Found " + members.size() + " members for project " + projectId);
-            members.forEach(m -> System.out.println("DEBUG: Member userId: " + m.getUserId()));
-            
-            boolean isMember = members.stream().anyMatch(m -> m.getUserId().equals(userId));
-            System.out.println("DEBUG: User " + userId + " is member: " + isMember);
-            return isMember;
-        } catch (Exception e) {
-            System.out.println("DEBUG: Exception in isMember check: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        if (userId == null || projectId == null) return false;
+        return membershipIndex.roleOf(userId, projectId).isPresent();
     }
 
     public boolean hasRole(Authentication authentication, UUID projectId, String... roles) {
         if (authentication == null || !authentication.isAuthenticated()) return false;
         UUID userId = getUserId(authentication);
-        return projectMemberService.listMembers(projectId).stream()
-                .filter(m -> m.getUserId().equals(userId))
-                .anyMatch(m -> java.util.Arrays.asList(roles).contains(m.getRole().name()));
+        if (userId == null || projectId == null) return false;
+        return membershipIndex.roleOf(userId, projectId)
+                .map(role -> java.util.Arrays.asList(roles).contains(role.name()))
+                .orElse(false);
     }
 
     private UUID getUserId(Authentication authentication) {
-        // Prefer extracting UUID, otherwise resolve username/email to UUID via UserRepository
+        // Prefer extracting UUID, otherwise resolve username/email to UUID (cached)
         Object principal = authentication.getPrincipal();
+        if (principal instanceof UUID id) return id;
         if (principal instanceof org.springframework.security.core.userdetails.UserDetails userDetails) {
             try {
                 java.lang.reflect.Method getId = userDetails.getClass().getMethod("getId");
@@ -60,19 +41,13 @@ public class ProjectAccessEvaluator {
                 if (id instanceof UUID) return (UUID) id;
                 if (id instanceof String s) {
                     try { return UUID.fromString(s); } catch (Exception ignored) {}
-                    return userRepository.findByUsername(s)
-                            .or(() -> userRepository.findByEmail(s))
-                            .map(com.example.tasksmanage.model.User::getId)
-                            .orElse(null);
+                    return userLookupService.findUserId(s);
                 }
             } catch (Exception ignored) {}
         }
         if (principal instanceof String s) {
             try { return UUID.fromString(s); } catch (Exception ignored) {}
-            return userRepository.findByUsername(s)
-                    .or(() -> userRepository.findByEmail(s))
-                    .map(com.example.tasksmanage.model.User::getId)
-                    .orElse(null);
+            return userLookupService.findUserId(s);
         }
         return null;
     }
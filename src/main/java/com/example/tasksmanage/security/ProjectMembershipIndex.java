@@ -0,0 +1,70 @@
+package com.example.tasksmanage.security;
+
+import com.example.tasksmanage.cache.BoundedCache;
+import com.example.tasksmanage.cache.InvalidationBus;
+import com.example.tasksmanage.model.ProjectMemberRole;
+import com.example.tasksmanage.repository.ProjectMemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Project role per (user, project), for access checks.
+ * <p>
+ * A miss costs one lookup on the (project_id, user_id) index; non-members are cached too, as an empty
+ * role. Membership changes and project deletions evict entries on every node through the
+ * {@link InvalidationBus}; the TTL only bounds staleness should a broadcast be lost.
+ */
+@Component
+public class ProjectMembershipIndex {
+    private final ProjectMemberRepository projectMemberRepository;
+    private final InvalidationBus invalidationBus;
+    private final BoundedCache<Membership, Optional<ProjectMemberRole>> roles;
+
+    record Membership(UUID userId, UUID projectId) {
+    }
+
+    public ProjectMembershipIndex(ProjectMemberRepository projectMemberRepository,
+                                  InvalidationBus invalidationBus,
+                                  @Value("${app.security.membership-cache.max-size:100000}") long cacheSize,
+                                  @Value("${app.security.membership-cache.ttl:5m}") Duration ttl) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.roles = new BoundedCache<>(cacheSize, ttl, null);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(InvalidationBus.PROJECT_MEMBERSHIP, id -> {
+            if (InvalidationBus.ALL.equals(id)) {
+                roles.invalidateAll();
+                return;
+            }
+            String[] ids = id.split(":");
+            roles.invalidate(new Membership(UUID.fromString(ids[1]), UUID.fromString(ids[0])));
+        });
+        invalidationBus.subscribe(InvalidationBus.PROJECT, id -> {
+            if (InvalidationBus.ALL.equals(id)) roles.invalidateAll();
+            else roles.invalidateIf(key -> key.projectId().toString().equals(id));
+        });
+    }
+
+    public Optional<ProjectMemberRole> roleOf(UUID userId, UUID projectId) {
+        Membership key = new Membership(userId, projectId);
+        Optional<ProjectMemberRole> role = roles.getIfPresent(key);
+        if (role == null) {
+            // Queried outside the cache's compute, so a slow lookup doesn't block other keys
+            role = projectMemberRepository.findRole(projectId, userId);
+            roles.put(key, role);
+        }
+        return role;
+    }
+
+    /**
+     * Drops the cached role now and, once the current transaction commits, on every node; the second
+     * eviction also catches a concurrent check that re-cached the old role from a pre-commit snapshot.
+     */
+    public void invalidate(UUID userId, UUID projectId) {
+        roles.invalidate(new Membership(userId, projectId));
+        invalidationBus.publish(InvalidationBus.PROJECT_MEMBERSHIP, projectId + ":" + userId);
+    }
+}
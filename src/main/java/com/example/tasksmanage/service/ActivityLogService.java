@@ -3,10 +3,16 @@ package com.example.tasksmanage.service;
 import com.example.tasksmanage.model.ActivityLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 public interface ActivityLogService {
     ActivityLog logActivity(String action, String details, String entityType, String entityId, String username);
     Page<ActivityLog> getActivityFeed(Map<String, String> filters, Pageable pageable);
-    byte[] exportActivities(Map<String, String> filters, String format);
+    /**
+     * Writes every matching log as CSV or a JSON array to {@code out}, batch by batch, without
+     * holding the whole result in memory.
+     */
+    void exportActivities(Map<String, String> filters, String format, OutputStream out) throws IOException;
 }
@@ -1,12 +1,35 @@
 package com.example.tasksmanage.service;
 
+import com.example.tasksmanage.model.Attachment;
+import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.storage.BlobStore;
+import com.example.tasksmanage.storage.codec.CompressionCodec;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.util.Optional;
 
 public interface AttachmentService {
     void validateFile(MultipartFile file) throws IOException;
     byte[] compress(byte[] data) throws IOException;
     byte[] decompress(byte[] data) throws IOException;
+    /**
+     * Codec new content of this MIME type is stored with.
+     */
+    CompressionCodec codecFor(String contentType);
+    /**
+     * Records an attachment for staged content, storing the content unless an identical blob exists.
+     */
+    Attachment createAttachment(BlobStore.StagedBlob content, String originalName, String contentType, Task task, User user);
+    /**
+     * Records an attachment referencing already stored content that one of the user's own attachments
+     * references, or empty otherwise (whether or not another user stored it).
+     */
+    Optional<Attachment> attachExisting(String digest, String originalName, String contentType, Task task, User user);
+    /**
+     * Deletes the attachments stored under {@code fileName} and any blob left without references.
+     */
+    void deleteByFileName(String fileName) throws IOException;
     boolean isAllowedType(String contentType);
     boolean isAllowedSize(long size);
 }
@@ -0,0 +1,77 @@
+package com.example.tasksmanage.service;
+
+import com.example.tasksmanage.model.JobLock;
+import com.example.tasksmanage.repository.JobLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Keeps a scheduled job from running on more than one node (or twice on one node) at a time.
+ * <p>
+ * A lock is a {@code job_locks} row taken with a conditional update for a lease; if its holder dies,
+ * the lock frees itself once the lease runs out. Leases should comfortably exceed the job's run time,
+ * or, for jobs that work in steps, the time of one step with the lease renewed after each.
+ */
+@Service
+public class JobLockService {
+    @Autowired
+    private JobLockRepository jobLockRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Each tryLock gets its own owner token, so a second run on the same node is refused too
+    public record Lease(String name, String owner) {
+    }
+
+    /**
+     * Takes the lock for at most {@code lease}, or returns null if another run holds it.
+     */
+    public Lease tryLock(String name, Duration lease) {
+        createIfMissing(name);
+        String owner = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Integer claimed = transaction().execute(status -> jobLockRepository.claim(name, owner, now, now.plus(lease)));
+        return claimed != null && claimed == 1 ? new Lease(name, owner) : null;
+    }
+
+    /**
+     * Extends a held lock to {@code duration} from now, for jobs that run in steps. Returns false if the
+     * lease ran out first, in which case the lock may belong to another run and the caller should stop.
+     */
+    public boolean renew(Lease lease, Duration duration) {
+        Instant now = Instant.now();
+        Integer renewed = transaction().execute(status -> jobLockRepository.renew(lease.name(), lease.owner(), now, now.plus(duration)));
+        return renewed != null && renewed == 1;
+    }
+
+    public void unlock(Lease lease) {
+        transaction().executeWithoutResult(status -> jobLockRepository.release(lease.name(), lease.owner(), Instant.now()));
+    }
+
+    private void createIfMissing(String name) {
+        if (jobLockRepository.existsById(name)) return;
+        JobLock lock = new JobLock();
+        lock.setName(name);
+        lock.setLockedUntil(Instant.EPOCH);
+        try {
+            transaction().executeWithoutResult(status -> jobLockRepository.saveAndFlush(lock));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created it first
+        }
+    }
+
+    private TransactionTemplate transaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        // Lock changes must be visible to other nodes right away, not with the caller's transaction
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
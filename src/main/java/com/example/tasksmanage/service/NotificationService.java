@@ -1,18 +1,28 @@
 package com.example.tasksmanage.service;
 
+import com.example.tasksmanage.dto.CursorPageDTO;
+import com.example.tasksmanage.dto.NotificationDTO;
 import com.example.tasksmanage.model.Notification;
 import java.util.List;
 import java.util.UUID;
 
 public interface NotificationService {
     Notification createNotification(Notification notification);
-    List<Notification> getNotificationsByUser(UUID userId);
     Notification markAsRead(UUID notificationId);
     Notification markAsUnread(UUID notificationId);
 
+    /**
+     * One slice of the user's notifications, newest first. {@code read} and {@code archived} filter
+     * when given; {@code cursor} is the previous slice's {@code nextCursor} (null or empty for the first).
+     */
+    CursorPageDTO<NotificationDTO> listNotifications(UUID userId, Boolean read, Boolean archived, String cursor, Integer size);
+    long getUnreadCount(UUID userId);
+
+    // Bulk changes; null ids means all of the user's notifications. Return how many changed
+    int markRead(UUID userId, List<UUID> ids);
+    int archive(UUID userId, List<UUID> ids);
+
     // Notification history and management
-    List<Notification> getArchivedNotifications(UUID userId);
-    List<Notification> getAllNotifications(UUID userId);
     Notification archiveNotification(UUID notificationId);
     Notification unarchiveNotification(UUID notificationId);
     void deleteNotification(UUID notificationId);
@@ -1,22 +1,32 @@
 package com.example.tasksmanage.service;
 
+import com.example.tasksmanage.analytics.ProjectMetricsSnapshot;
+import com.example.tasksmanage.analytics.ProjectMetricsStore;
 import com.example.tasksmanage.model.Project;
-import com.example.tasksmanage.model.Task;
 import com.example.tasksmanage.repository.ProjectRepository;
 import com.example.tasksmanage.repository.TaskRepository;
+import com.example.tasksmanage.repository.projection.TimelineEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.UUID;
 
 @Service
 public class ProjectAnalyticsService {
+    private static final int DASHBOARD_TIMELINE_LIMIT = 50;
+
     @Autowired
     private ProjectRepository projectRepository;
     @Autowired
     private TaskRepository taskRepository;
+    @Autowired
+    private ProjectMetricsStore projectMetrics;
 
     public Map<String, Object> getDashboard(UUID projectId) {
         Optional<Project> projectOpt = projectRepository.findById(projectId);
@@ -25,13 +35,12 @@ public class ProjectAnalyticsService {
         }
         Project project = projectOpt.get();
 
-        List<Task> tasks = Optional.ofNullable(taskRepository.findByProjectId(projectId)).orElse(Collections.emptyList());
-        long totalTasks = tasks.size();
-        long doneTasks = tasks.stream().filter(t -> "COMPLETED".equals(t.getStatus())).count();
-        long inProgressTasks = tasks.stream().filter(t -> "IN_PROGRESS".equals(t.getStatus())).count();
-        long overdueTasks = tasks.stream()
-                .filter(t -> t.getDueDate() != null && t.getDueDate().before(new Date()) && (t.getStatus() == null || !"COMPLETED".equals(t.getStatus())))
-                .count();
+        ProjectMetricsSnapshot snapshot = projectMetrics.get(projectId);
+        Map<String, Long> byStatus = snapshot.statusCounts();
+        long totalTasks = snapshot.totalTasks();
+        long doneTasks = byStatus.getOrDefault("COMPLETED", 0L);
+        long inProgressTasks = byStatus.getOrDefault("IN_PROGRESS", 0L);
+        long overdueTasks = snapshot.overdueCount(new Date());
         long openTasks = Math.max(0, totalTasks - (int) (doneTasks + inProgressTasks));
 
         Map<String, Object> metrics = new LinkedHashMap<>();
@@ -41,6 +50,8 @@ public class ProjectAnalyticsService {
         metrics.put("doneTasks", doneTasks);
         metrics.put("overdueTasks", overdueTasks);
         metrics.put("completionPercent", totalTasks > 0 ? (double) doneTasks / totalTasks * 100 : 0.0);
+        metrics.put("tasksByStatus", byStatus);
+        metrics.put("tasksByPriority", snapshot.priorityCounts());
 
         // Build a lightweight, serialization-safe project DTO (no JPA entities)
         Map<String, Object> projectDto = new LinkedHashMap<>();
@@ -80,7 +91,8 @@ public class ProjectAnalyticsService {
         // Optional sections – provide safe defaults to avoid client errors
         payload.put("taskSummary", Collections.emptyList());
         payload.put("team", team);
-        payload.put("timeline", getTimeline(projectId));
+        // Bounded preview; the full list is served by getTimeline
+        payload.put("timeline", toTimeline(taskRepository.findTimeline(projectId, PageRequest.of(0, DASHBOARD_TIMELINE_LIMIT))));
         payload.put("recentActivity", Collections.emptyList());
         return payload;
     }
@@ -94,57 +106,44 @@ public class ProjectAnalyticsService {
     }
 
     public List<Map<String, Object>> getBurndown(UUID projectId) {
-        List<Task> tasks = Optional.ofNullable(taskRepository.findByProjectId(projectId)).orElse(Collections.emptyList());
-        // Example: return daily remaining task counts (stub) matching UI schema
-        Map<Date, Long> deltaByDay = new TreeMap<>();
-        for (Task t : tasks) {
-            if (t.getCreatedAt() != null) {
-                deltaByDay.merge(truncateDay(t.getCreatedAt()), 1L, Long::sum);
-            }
-            if (t.getStatus() != null && t.getStatus().equals("COMPLETED") && t.getUpdatedAt() != null) {
-                deltaByDay.merge(truncateDay(t.getUpdatedAt()), -1L, Long::sum);
-            }
-        }
         List<Map<String, Object>> burndown = new ArrayList<>();
-        long running = 0;
-        for (Map.Entry<Date, Long> entry : deltaByDay.entrySet()) {
-            running += entry.getValue();
+        for (Map.Entry<LocalDate, Long> entry : projectMetrics.get(projectId).burndown().entrySet()) {
             Map<String, Object> point = new LinkedHashMap<>();
-            point.put("date", entry.getKey());
-            point.put("remaining", running);
+            point.put("date", Date.from(entry.getKey().atStartOfDay(ZoneId.systemDefault()).toInstant()));
+            point.put("remaining", entry.getValue());
             burndown.add(point);
         }
         return burndown;
     }
 
     public List<Map<String, Object>> getTimeline(UUID projectId) {
-        List<Task> tasks = Optional.ofNullable(taskRepository.findByProjectId(projectId)).orElse(Collections.emptyList());
+        return toTimeline(taskRepository.findTimeline(projectId, Pageable.unpaged()));
+    }
+
+    private List<Map<String, Object>> toTimeline(List<TimelineEntry> entries) {
         // Return a lightweight timeline with simple scalar fields
-        return tasks.stream().map(t -> {
+        return entries.stream().map(t -> {
             Map<String, Object> map = new HashMap<>();
-            map.put("taskId", t.getId());
+            map.put("taskId", t.getTaskId());
             map.put("title", t.getTitle());
-            map.put("start", t.getCreatedAt());
-            map.put("end", t.getDueDate());
+            map.put("start", t.getStartDate());
+            map.put("end", t.getEndDate());
             map.put("status", t.getStatus());
             return map;
         }).collect(Collectors.toList());
     }
 
     public Map<String, Long> getWorkload(UUID projectId) {
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
-        return tasks.stream()
-                .filter(t -> t.getAssignedTo() != null)
-                .collect(Collectors.groupingBy(
-                        t -> t.getAssignedTo().getId().toString(), Collectors.counting()
-                ));
+        Map<String, Long> workload = new HashMap<>();
+        projectMetrics.get(projectId).assigneeCounts().forEach((assigneeId, total) -> workload.put(assigneeId.toString(), total));
+        return workload;
     }
 
     public Map<String, Object> getCompletionAndBudget(UUID projectId) {
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
+        ProjectMetricsSnapshot snapshot = projectMetrics.get(projectId);
         double percentComplete = 0.0;
-        long totalTasks = tasks.size();
-        long completed = tasks.stream().filter(t -> t.getStatus() != null && t.getStatus().equals("COMPLETED")).count();
+        long totalTasks = snapshot.totalTasks();
+        long completed = snapshot.statusCounts().getOrDefault("COMPLETED", 0L);
         if (totalTasks > 0) percentComplete = (double) completed / totalTasks * 100;
         // Budget tracking stub (assume project has budget fields)
         Map<String, Object> result = new HashMap<>();
@@ -152,14 +151,4 @@ public class ProjectAnalyticsService {
         // result.put("budgetUsed", ...); // Add budget logic if available
         return result;
     }
-
-    private Date truncateDay(Date date) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return cal.getTime();
-    }
 }
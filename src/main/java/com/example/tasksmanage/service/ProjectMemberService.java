@@ -6,6 +6,7 @@ import com.example.tasksmanage.model.*;
 import com.example.tasksmanage.repository.ProjectMemberRepository;
 import com.example.tasksmanage.repository.ProjectRepository;
 import com.example.tasksmanage.repository.UserRepository;
+import com.example.tasksmanage.security.ProjectMembershipIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,8 @@ public class ProjectMemberService {
     private ProjectRepository projectRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ProjectMembershipIndex membershipIndex;
 
     public ProjectMemberDTO toDTO(ProjectMember member) {
         ProjectMemberDTO dto = new ProjectMemberDTO();
@@ -52,6 +55,7 @@ public class ProjectMemberService {
                 member.setJoinedAt(new Date());
                 member.setLastActivityAt(new Date());
                 projectMemberRepository.save(member);
+                membershipIndex.invalidate(userId, projectId);
                 // TODO: Audit log entry
                 added.add(toDTO(member));
             }
@@ -64,6 +68,7 @@ public class ProjectMemberService {
         Project project = projectRepository.findById(projectId).orElseThrow(() -> new NoSuchElementException("Project not found"));
         User user = userRepository.findById(userId).orElseThrow(() -> new NoSuchElementException("User not found"));
         projectMemberRepository.deleteByProjectAndUser(project, user);
+        membershipIndex.invalidate(userId, projectId);
         // TODO: Audit log entry
     }
 
@@ -75,6 +80,7 @@ public class ProjectMemberService {
         member.setRole(role);
         member.setLastActivityAt(new Date());
         projectMemberRepository.save(member);
+        membershipIndex.invalidate(userId, projectId);
         // TODO: Audit log entry
         return toDTO(member);
     }
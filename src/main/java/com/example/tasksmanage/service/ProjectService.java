@@ -1,5 +1,7 @@
 package com.example.tasksmanage.service;
 
+import com.example.tasksmanage.analytics.ProjectMetricsStore;
+import com.example.tasksmanage.cache.InvalidationBus;
 import com.example.tasksmanage.dto.ProjectCreateDTO;
 import com.example.tasksmanage.dto.ProjectDTO;
 import com.example.tasksmanage.dto.UserSummaryDTO;
@@ -8,8 +10,10 @@ import com.example.tasksmanage.model.ProjectStatus;
 import com.example.tasksmanage.model.User;
 import com.example.tasksmanage.repository.ProjectRepository;
 import com.example.tasksmanage.repository.UserRepository;
+import com.example.tasksmanage.search.SearchIndex;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -21,6 +25,12 @@ public class ProjectService {
     private ProjectRepository projectRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private ProjectMetricsStore projectMetrics;
+    @Autowired
+    private InvalidationBus invalidationBus;
 
     public ProjectDTO toDTO(Project project) {
         ProjectDTO dto = new ProjectDTO();
@@ -71,9 +81,13 @@ public class ProjectService {
         project.setCreatedAt(new Date());
         project.setUpdatedAt(new Date());
         projectRepository.save(project);
+        searchIndex.indexProject(project);
+        invalidationBus.publish(InvalidationBus.PROJECT, project.getId());
         return toDTO(project);
     }
 
+    @Cacheable(cacheNames = "projects", key = "#id")
+    @Transactional
     public ProjectDTO getProject(UUID id) {
         return projectRepository.findById(id).map(this::toDTO)
             .orElseThrow(() -> new NoSuchElementException("Project not found"));
@@ -100,12 +114,17 @@ public class ProjectService {
         }
         project.setUpdatedAt(new Date());
         projectRepository.save(project);
+        searchIndex.indexProject(project);
+        invalidationBus.publish(InvalidationBus.PROJECT, id);
         return toDTO(project);
     }
 
     @Transactional
     public void deleteProject(UUID id) {
         projectRepository.deleteById(id);
+        searchIndex.removeProject(id);
+        projectMetrics.projectDeleted(id);
+        invalidationBus.publish(InvalidationBus.PROJECT, id);
     }
 
     public List<ProjectDTO> listProjects() {
@@ -126,6 +145,7 @@ public class ProjectService {
         project.setStatus(status);
         project.setUpdatedAt(new Date());
         projectRepository.save(project);
+        invalidationBus.publish(InvalidationBus.PROJECT, id);
         return toDTO(project);
     }
 }
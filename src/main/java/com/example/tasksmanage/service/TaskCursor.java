@@ -0,0 +1,56 @@
+package com.example.tasksmanage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset pagination over tasks: the sort field and direction it
+ * was issued for, plus the (sort value, id) of the last row returned.
+ */
+public final class TaskCursor {
+    private static final String SEPARATOR = "|";
+
+    private final String sortBy;
+    private final boolean descending;
+    private final UUID lastId;
+    private final String lastValue;
+
+    public TaskCursor(String sortBy, boolean descending, UUID lastId, String lastValue) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public String getSortBy() { return sortBy; }
+    public boolean isDescending() { return descending; }
+    public UUID getLastId() { return lastId; }
+    public String getLastValue() { return lastValue; }
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token and checks it was issued for the same ordering. Returns null for an empty token
+     * (first slice).
+     */
+    public static TaskCursor decode(String token, String sortBy, boolean descending) {
+        if (token == null || token.isBlank()) return null;
+        TaskCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // Value goes last so it may itself contain the separator
+            String[] parts = raw.split("\\|", 4);
+            cursor = new TaskCursor(parts[0], "desc".equals(parts[1]), UUID.fromString(parts[2]), parts[3]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!cursor.sortBy.equals(sortBy) || cursor.descending != descending) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+        return cursor;
+    }
+}
@@ -1,12 +1,18 @@
 package com.example.tasksmanage.service;
 
+import com.example.tasksmanage.analytics.ProjectMetricsStore;
+import com.example.tasksmanage.analytics.TaskFacts;
+import com.example.tasksmanage.cache.InvalidationBus;
 import com.example.tasksmanage.dto.*;
 import com.example.tasksmanage.model.*;
 import com.example.tasksmanage.repository.TaskRepository;
 import com.example.tasksmanage.repository.UserRepository;
 import com.example.tasksmanage.repository.ProjectRepository;
+import com.example.tasksmanage.search.SearchIndex;
+import com.example.tasksmanage.util.TagUtils;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -15,6 +21,11 @@ import java.util.*;
 
 @Service
 public class TaskService {
+    private static final Set<String> KEYSET_SORT_FIELDS = Set.of("createdAt", "updatedAt", "dueDate", "title", "status", "priority");
+    // Stands in for a missing due date in the keyset sort key, so such rows sort last
+    private static final Date NO_DUE_DATE = Date.from(java.time.Instant.parse("9999-12-31T00:00:00Z"));
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+
     @Autowired
     private TaskRepository taskRepository;
     @Autowired
@@ -24,6 +35,12 @@ public class TaskService {
 
     @Autowired
     private WebhookService webhookService;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private ProjectMetricsStore projectMetrics;
+    @Autowired
+    private InvalidationBus invalidationBus;
 
     public TaskResponseDTO toDTO(Task task) {
         TaskResponseDTO dto = new TaskResponseDTO();
@@ -38,7 +55,8 @@ public class TaskService {
         dto.setCreatedBy(task.getCreatedBy() != null ? task.getCreatedBy().getId() : null);
         dto.setAssignedTo(task.getAssignedTo() != null ? task.getAssignedTo().getId() : null);
         dto.setProject(task.getProject() != null ? projectToDTO(task.getProject()) : null);
-        dto.setTags(task.getTags());
+        // A copy: the DTO is cached and must not hold Hibernate's lazy collection
+        dto.setTags(task.getTags() != null ? new HashSet<>(task.getTags()) : null);
         dto.setCreatedAt(task.getCreatedAt());
         dto.setUpdatedAt(task.getUpdatedAt());
         return dto;
@@ -91,9 +109,14 @@ public class TaskService {
             projectRepository.findById(dto.getProjectId()).ifPresent(task::setProject);
         }
         taskRepository.save(task);
+        searchIndex.indexTask(task);
+        projectMetrics.taskChanged(null, TaskFacts.of(task));
+        invalidationBus.publish(InvalidationBus.TASK, task.getId());
         return toDTO(task);
     }
 
+    @Cacheable(cacheNames = "tasks", key = "#id")
+    @Transactional
     public TaskResponseDTO getTask(UUID id) {
         return taskRepository.findById(id).map(this::toDTO)
                 .orElseThrow(() -> new NoSuchElementException("Task not found"));
@@ -102,6 +125,7 @@ public class TaskService {
     @Transactional
     public TaskResponseDTO updateTask(UUID id, TaskCreateDTO dto) {
         Task task = taskRepository.findById(id).orElseThrow(() -> new NoSuchElementException("Task not found"));
+        TaskFacts before = TaskFacts.of(task);
         task.setTitle(dto.getTitle());
         task.setDescription(dto.getDescription());
         task.setStatus(dto.getStatus());
@@ -118,6 +142,9 @@ public class TaskService {
             projectRepository.findById(dto.getProjectId()).ifPresent(task::setProject);
         }
         taskRepository.save(task);
+        searchIndex.indexTask(task);
+        projectMetrics.taskChanged(before, TaskFacts.of(task));
+        invalidationBus.publish(InvalidationBus.TASK, id);
         return toDTO(task);
     }
 
@@ -125,16 +152,23 @@ public class TaskService {
     public void deleteTask(UUID id) {
         Task task = taskRepository.findById(id).orElseThrow(() -> new NoSuchElementException("Task not found"));
         TaskResponseDTO dto = toDTO(task);
+        TaskFacts before = TaskFacts.of(task);
         taskRepository.deleteById(id);
+        searchIndex.removeTask(id);
+        projectMetrics.taskChanged(before, null);
+        invalidationBus.publish(InvalidationBus.TASK, id);
         webhookService.sendEvent("task.deleted", dto);
     }
 
     @Transactional
     public TaskResponseDTO updateStatus(UUID id, TaskStatusUpdateDTO dto) {
         Task task = taskRepository.findById(id).orElseThrow(() -> new NoSuchElementException("Task not found"));
+        TaskFacts before = TaskFacts.of(task);
         task.setStatus(dto.getStatus());
         task.setUpdatedAt(new Date());
         taskRepository.save(task);
+        projectMetrics.taskChanged(before, TaskFacts.of(task));
+        invalidationBus.publish(InvalidationBus.TASK, id);
         return toDTO(task);
     }
 
@@ -143,9 +177,109 @@ public class TaskService {
     }
 
     public Page<TaskResponseDTO> advancedListTasks(TaskFilterDTO filter) {
+        org.springframework.data.jpa.domain.Specification<Task> spec = filterSpecification(filter);
+        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(
+            filter.getPage(),
+            filter.getSize(),
+            "desc".equalsIgnoreCase(filter.getSortDir()) ? org.springframework.data.domain.Sort.by(filter.getSortBy()).descending() : org.springframework.data.domain.Sort.by(filter.getSortBy()).ascending()
+        );
+        if (taskRepository instanceof org.springframework.data.jpa.repository.JpaSpecificationExecutor<?>) {
+            org.springframework.data.domain.Page<Task> page = ((org.springframework.data.jpa.repository.JpaSpecificationExecutor<Task>) taskRepository).findAll(spec, pageable);
+            return page.map(this::toDTO);
+        } else {
+            // fallback: return all
+            return taskRepository.findAll(pageable).map(this::toDTO);
+        }
+    }
+
+    /**
+     * Keyset ("seek") variant of {@link #advancedListTasks}: rows are ordered by (sortBy, id) and each
+     * slice starts strictly after the cursor's last row, so deep pages cost the same as the first one
+     * and no count query is issued.
+     */
+    public CursorPageDTO<TaskResponseDTO> listTasksByCursor(TaskFilterDTO filter) {
+        String sortBy = filter.getSortBy() != null ? filter.getSortBy() : "createdAt";
+        if (!KEYSET_SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination does not support sorting by " + sortBy);
+        }
+        boolean descending = "desc".equalsIgnoreCase(filter.getSortDir());
+        TaskCursor after = TaskCursor.decode(filter.getCursor(), sortBy, descending);
+        int size = Math.max(1, Math.min(filter.getSize() != null ? filter.getSize() : 10, MAX_CURSOR_PAGE_SIZE));
+
+        org.springframework.data.jpa.domain.Specification<Task> spec = filterSpecification(filter)
+            .and(keysetSpecification(sortBy, descending, after));
+        // Fetch one extra row to learn whether another slice follows
+        List<Task> rows = taskRepository.findBy(spec, q -> q.limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<Task> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Task last = content.get(content.size() - 1);
+            nextCursor = new TaskCursor(sortBy, descending, last.getId(), encodeSortValue(sortBy, last)).encode();
+        }
+        return new CursorPageDTO<>(content.stream().map(this::toDTO).toList(), size, hasNext, nextCursor);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private org.springframework.data.jpa.domain.Specification<Task> keysetSpecification(String sortBy, boolean descending, TaskCursor after) {
+        return (root, query, cb) -> {
+            jakarta.persistence.criteria.Expression key = sortKey(root, cb, sortBy);
+            jakarta.persistence.criteria.Path<UUID> id = root.get("id");
+            query.orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+            if (after == null) return null;
+            Comparable value = decodeSortValue(sortBy, after.getLastValue());
+            // (key, id) > (value, lastId) in the requested direction
+            return descending
+                ? cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, after.getLastId())))
+                : cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, after.getLastId())));
+        };
+    }
+
+    private static jakarta.persistence.criteria.Expression<?> sortKey(jakarta.persistence.criteria.Root<Task> root,
+                                                                  jakarta.persistence.criteria.CriteriaBuilder cb, String sortBy) {
+        // Fold missing due dates onto a sentinel so the keyset comparison stays total. The other keys are
+        // NOT NULL and stay plain columns, so the (key, id) indexes serve both the order and the seek.
+        if ("dueDate".equals(sortBy)) return cb.coalesce(root.<Date>get(sortBy), NO_DUE_DATE);
+        return root.get(sortBy);
+    }
+
+    private static String encodeSortValue(String sortBy, Task task) {
+        return switch (sortBy) {
+            case "createdAt" -> String.valueOf(task.getCreatedAt().getTime());
+            case "updatedAt" -> String.valueOf(task.getUpdatedAt().getTime());
+            case "dueDate" -> String.valueOf((task.getDueDate() != null ? task.getDueDate() : NO_DUE_DATE).getTime());
+            case "title" -> task.getTitle();
+            case "status" -> task.getStatus();
+            case "priority" -> task.getPriority();
+            default -> throw new IllegalArgumentException("Unsupported sort field " + sortBy);
+        };
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable decodeSortValue(String sortBy, String value) {
+        try {
+            return switch (sortBy) {
+                case "createdAt", "updatedAt", "dueDate" -> new Date(Long.parseLong(value));
+                default -> value;
+            };
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private org.springframework.data.jpa.domain.Specification<Task> filterSpecification(TaskFilterDTO filter) {
+        boolean matchAllTags = "all".equalsIgnoreCase(filter.getTagMatch());
+        Set<String> tags = new LinkedHashSet<>();
+        if (filter.getTags() != null) {
+            for (String tag : filter.getTags()) {
+                String normalized = TagUtils.normalize(tag);
+                if (!normalized.isEmpty()) tags.add(normalized);
+            }
+        }
         // Build dynamic query using Specification (JPA Criteria API)
-        org.springframework.data.jpa.domain.Specification<Task> spec = (root, query, cb) -> {
+        return (root, query, cb) -> {
             List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>();
+            if (filter.getTeamId() != null) predicates.add(cb.equal(root.get("team").get("id"), filter.getTeamId()));
             if (filter.getStatus() != null) predicates.add(cb.equal(root.get("status"), filter.getStatus()));
             if (filter.getPriority() != null) predicates.add(cb.equal(root.get("priority"), filter.getPriority()));
             if (filter.getAssignedTo() != null) predicates.add(cb.equal(root.get("assignedTo").get("id"), filter.getAssignedTo()));
@@ -154,7 +288,7 @@ public class TaskService {
             if (filter.getDueDateTo() != null) predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), filter.getDueDateTo()));
             if (filter.getCreatedAtFrom() != null) predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedAtFrom()));
             if (filter.getCreatedAtTo() != null) predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filter.getCreatedAtTo()));
-            if (filter.getTags() != null && !filter.getTags().isEmpty()) predicates.add(root.join("tags").in(filter.getTags()));
+            if (!tags.isEmpty()) predicates.add(TaskRepository.taggedWith(root, query, cb, tags, matchAllTags));
             if (filter.getSearch() != null && !filter.getSearch().isEmpty()) {
                 String like = "%" + filter.getSearch().toLowerCase() + "%";
                 predicates.add(cb.or(
@@ -164,18 +298,6 @@ public class TaskService {
             }
             return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
         };
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(
-            filter.getPage(),
-            filter.getSize(),
-            "desc".equalsIgnoreCase(filter.getSortDir()) ? org.springframework.data.domain.Sort.by(filter.getSortBy()).descending() : org.springframework.data.domain.Sort.by(filter.getSortBy()).ascending()
-        );
-        if (taskRepository instanceof org.springframework.data.jpa.repository.JpaSpecificationExecutor<?>) {
-            org.springframework.data.domain.Page<Task> page = ((org.springframework.data.jpa.repository.JpaSpecificationExecutor<Task>) taskRepository).findAll(spec, pageable);
-            return page.map(this::toDTO);
-        } else {
-            // fallback: return all
-            return taskRepository.findAll(pageable).map(this::toDTO);
-        }
     }
 
     @Transactional
@@ -195,11 +317,14 @@ public class TaskService {
         if (dto.getDelegatedBy() != null && (task.getAssignedTo() == null || !dto.getDelegatedBy().equals(task.getAssignedTo().getId()))) {
             throw new SecurityException("Delegation only allowed by current assignee");
         }
+        TaskFacts before = TaskFacts.of(task);
         if (dto.getAssignedTo() != null) {
             userRepository.findById(dto.getAssignedTo()).ifPresent(task::setAssignedTo);
         }
         task.setUpdatedAt(new Date());
         taskRepository.save(task);
+        projectMetrics.taskChanged(before, TaskFacts.of(task));
+        invalidationBus.publish(InvalidationBus.TASK, taskId);
         // Notification stub (implement as needed)
         if (Boolean.TRUE.equals(dto.getNotifyUser())) {
             // e.g., notificationService.notifyAssignment(task, dto.getAssignedTo());
@@ -0,0 +1,29 @@
+package com.example.tasksmanage.service;
+
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Resolves the login name carried by a request (username or email) to a user id, through the
+ * {@code user-ids} cache. Renames and deletes in {@link UserService} clear the cache on every node,
+ * since a username or email can then change hands; unknown names are not cached.
+ */
+@Service
+public class UserLookupService {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Cacheable(cacheNames = "user-ids", unless = "#result == null")
+    public UUID findUserId(String usernameOrEmail) {
+        if (usernameOrEmail == null) return null;
+        return userRepository.findByEmail(usernameOrEmail)
+                .or(() -> userRepository.findByUsername(usernameOrEmail))
+                .map(User::getId)
+                .orElse(null);
+    }
+}
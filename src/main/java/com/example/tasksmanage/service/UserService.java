@@ -27,6 +27,10 @@ import java.util.UUID;
 
 @Service
 public class UserService {
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final String USER_EXPORT_CSV_HEADER = "id,email,username,firstName,lastName,status,roles,createdAt,lastLogin\n";
+    private static final com.fasterxml.jackson.databind.ObjectMapper EXPORT_MAPPER = new com.fasterxml.jackson.databind.ObjectMapper()
+            .configure(com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
 
     // ... existing fields and constructor
 
@@ -44,6 +48,7 @@ public class UserService {
         user.setAvatarUrl(null);
         user.setUpdatedAt(new java.util.Date());
         userRepository.save(user);
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, user.getId());
         return getProfile(user);
     }
 
@@ -75,6 +80,9 @@ public class UserService {
         user.setAvatarUrl(req.getAvatarUrl());
         user.setUpdatedAt(new java.util.Date());
         userRepository.save(user);
+        searchIndex.indexUser(user);
+        // Cached project DTOs embed member names and avatars
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, user.getId());
         return getProfile(user);
     }
 
@@ -102,6 +110,8 @@ public class UserService {
         user.setAvatarUrl("/avatars/" + filename);
         user.setUpdatedAt(new java.util.Date());
         userRepository.save(user);
+        searchIndex.indexUser(user);
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, user.getId());
         return getProfile(user);
     }
 
@@ -173,6 +183,8 @@ public class UserService {
         user.setUpdatedAt(new java.util.Date());
 
         User saved = userRepository.save(user);
+        searchIndex.indexUser(saved);
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, saved.getId());
         logAudit(saved, actor, "CREATE", "User created by admin");
         return getProfile(saved);
     }
@@ -223,6 +235,8 @@ public class UserService {
 
         user.setUpdatedAt(new java.util.Date());
         User saved = userRepository.save(user);
+        searchIndex.indexUser(saved);
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, id);
         logAudit(saved, actor, "UPDATE", "User updated by admin");
         return getProfile(saved);
     }
@@ -284,6 +298,8 @@ public class UserService {
         User user = userRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("User not found"));
         com.example.tasksmanage.dto.UserProfileDTO dto = getProfile(user);
         userRepository.delete(user);
+        searchIndex.removeUser(id);
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, id);
         logAudit(user, actor, "DELETE", "User deleted by admin");
         return dto;
     }
@@ -303,27 +319,69 @@ public class UserService {
         // Capture profile for audit if needed (not returned to client)
         logAudit(user, user, "DELETE", "User self-deleted account");
         userRepository.delete(user);
+        searchIndex.removeUser(user.getId());
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, user.getId());
         // Optionally, revoke refresh tokens or related resources if necessary in future
     }
 
-    // ADMIN: Export users (CSV, JSON, XLSX)
-    public java.util.List<com.example.tasksmanage.dto.UserExportDTO> exportUsers() {
-        java.util.List<User> users = userRepository.findAll();
-        java.util.List<com.example.tasksmanage.dto.UserExportDTO> exportList = new java.util.ArrayList<>();
-        for (User user : users) {
-            com.example.tasksmanage.dto.UserExportDTO dto = new com.example.tasksmanage.dto.UserExportDTO();
-            dto.setId(user.getId());
-            dto.setEmail(user.getEmail());
-            dto.setUsername(user.getUsername());
-            dto.setFirstName(user.getFirstName());
-            dto.setLastName(user.getLastName());
-            dto.setStatus(user.getStatus() != null ? user.getStatus().name() : null);
-            dto.setRoles(user.getRoles() != null ? user.getRoles().toString() : null);
-            dto.setCreatedAt(user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
-            dto.setLastLogin(user.getLastLogin() != null ? user.getLastLogin().toString() : null);
-            exportList.add(dto);
+    // ADMIN: Export users (CSV, JSON), streamed in id-ordered chunks of flat rows with roles attached per chunk
+    public void exportUsers(String format, java.io.OutputStream out) throws java.io.IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        java.io.Writer writer = new java.io.BufferedWriter(new java.io.OutputStreamWriter(out, java.nio.charset.StandardCharsets.UTF_8));
+        com.fasterxml.jackson.core.JsonGenerator json = csv ? null : EXPORT_MAPPER.createGenerator(writer);
+        if (csv) writer.write(USER_EXPORT_CSV_HEADER);
+        else json.writeStartArray();
+
+        UUID after = null;
+        while (true) {
+            org.springframework.data.domain.Pageable chunk = org.springframework.data.domain.PageRequest.of(0, EXPORT_CHUNK_SIZE);
+            List<com.example.tasksmanage.repository.projection.UserExportRow> rows = after == null
+                    ? userRepository.findExportRows(chunk)
+                    : userRepository.findExportRowsAfter(after, chunk);
+            if (rows.isEmpty()) break;
+            Map<UUID, List<String>> roles = new HashMap<>();
+            for (com.example.tasksmanage.repository.projection.UserRoleName role
+                    : userRepository.findRoleNames(rows.stream().map(com.example.tasksmanage.repository.projection.UserExportRow::getId).toList())) {
+                roles.computeIfAbsent(role.getUserId(), id -> new java.util.ArrayList<>()).add(role.getRoleName());
+            }
+            for (com.example.tasksmanage.repository.projection.UserExportRow row : rows) {
+                com.example.tasksmanage.dto.UserExportDTO dto = toExportDTO(row, roles.getOrDefault(row.getId(), List.of()));
+                if (csv) {
+                    // Missing values are empty columns, as in the activity log export, rather than "null"
+                    writer.write(java.util.stream.Stream.of(String.valueOf(dto.getId()), dto.getEmail(), dto.getUsername(),
+                                    dto.getFirstName(), dto.getLastName(), dto.getStatus(), dto.getRoles(), dto.getCreatedAt(), dto.getLastLogin())
+                            .map(value -> value != null ? value : "")
+                            .collect(java.util.stream.Collectors.joining(",")));
+                    writer.write('\n');
+                } else {
+                    json.writeObject(dto);
+                }
+            }
+            if (csv) writer.flush();
+            else json.flush();
+            if (rows.size() < EXPORT_CHUNK_SIZE) break;
+            after = rows.get(rows.size() - 1).getId();
+        }
+        if (!csv) {
+            json.writeEndArray();
+            json.flush();
         }
-        return exportList;
+        writer.flush();
+    }
+
+    private static com.example.tasksmanage.dto.UserExportDTO toExportDTO(com.example.tasksmanage.repository.projection.UserExportRow row, List<String> roles) {
+        com.example.tasksmanage.dto.UserExportDTO dto = new com.example.tasksmanage.dto.UserExportDTO();
+        dto.setId(row.getId());
+        dto.setEmail(row.getEmail());
+        dto.setUsername(row.getUsername());
+        dto.setFirstName(row.getFirstName());
+        dto.setLastName(row.getLastName());
+        dto.setStatus(row.getStatus() != null ? row.getStatus().name() : null);
+        // Semicolon-separated so the value stays a single CSV column
+        dto.setRoles(roles.stream().sorted().collect(java.util.stream.Collectors.joining(";")));
+        dto.setCreatedAt(row.getCreatedAt() != null ? row.getCreatedAt().toString() : null);
+        dto.setLastLogin(row.getLastLogin() != null ? row.getLastLogin().toString() : null);
+        return dto;
     }
 
     // ADMIN: User statistics
@@ -365,6 +423,9 @@ public class UserService {
     private final PasswordHistoryRepository passwordHistoryRepository;
     private final com.example.tasksmanage.repository.RoleRepository roleRepository;
     private final com.example.tasksmanage.repository.UserAuditLogRepository userAuditLogRepository;
+    private final com.example.tasksmanage.search.SearchIndex searchIndex;
+    private final UserLookupService userLookupService;
+    private final com.example.tasksmanage.cache.InvalidationBus invalidationBus;
     private final boolean emailEnabled;
 
     @Autowired
@@ -374,6 +435,9 @@ public class UserService {
             PasswordHistoryRepository passwordHistoryRepository,
             com.example.tasksmanage.repository.RoleRepository roleRepository,
             com.example.tasksmanage.repository.UserAuditLogRepository userAuditLogRepository,
+            com.example.tasksmanage.search.SearchIndex searchIndex,
+            UserLookupService userLookupService,
+            com.example.tasksmanage.cache.InvalidationBus invalidationBus,
             @Value("${app.email.enabled:true}") boolean emailEnabled) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -385,6 +449,9 @@ public class UserService {
         this.passwordHistoryRepository = passwordHistoryRepository;
         this.roleRepository = roleRepository;
         this.userAuditLogRepository = userAuditLogRepository;
+        this.searchIndex = searchIndex;
+        this.userLookupService = userLookupService;
+        this.invalidationBus = invalidationBus;
         this.emailEnabled = emailEnabled;
     }
 
@@ -414,6 +481,8 @@ public class UserService {
         user.setCreatedAt(new java.util.Date());
         user.setUpdatedAt(new java.util.Date());
         User savedUser = userRepository.save(user);
+        searchIndex.indexUser(savedUser);
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, savedUser.getId());
 
         // Create verification token (24h expiry)
         String token = UUID.randomUUID().toString();
@@ -587,12 +656,15 @@ public class UserService {
     }
 
     public java.util.Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
-        return userRepository.findByEmail(usernameOrEmail)
-                .or(() -> userRepository.findByUsername(usernameOrEmail));
+        return java.util.Optional.ofNullable(userLookupService.findUserId(usernameOrEmail))
+                .flatMap(userRepository::findById);
     }
 
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        searchIndex.indexUser(saved);
+        invalidationBus.publish(com.example.tasksmanage.cache.InvalidationBus.USER, saved.getId());
+        return saved;
     }
 
     // Get users available for team assignment (authenticated users only)
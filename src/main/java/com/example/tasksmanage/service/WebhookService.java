@@ -1,92 +1,114 @@
 package com.example.tasksmanage.service;
 
 import com.example.tasksmanage.model.Webhook;
-import com.example.tasksmanage.model.WebhookEventLog;
+import com.example.tasksmanage.model.WebhookDelivery;
+import com.example.tasksmanage.model.WebhookOutboxEvent;
+import com.example.tasksmanage.repository.WebhookDeliveryRepository;
+import com.example.tasksmanage.repository.WebhookOutboxEventRepository;
 import com.example.tasksmanage.repository.WebhookRepository;
-import com.example.tasksmanage.repository.WebhookEventLogRepository;
+import com.example.tasksmanage.util.TransactionUtils;
+import com.example.tasksmanage.webhook.WebhookDispatcher;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Records webhook events in the outbox. Delivery happens in {@link WebhookDispatcher}.
+ */
 @Service
 public class WebhookService {
     @Autowired private WebhookRepository webhookRepository;
-    @Autowired private WebhookEventLogRepository logRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired private WebhookOutboxEventRepository eventRepository;
+    @Autowired private WebhookDeliveryRepository deliveryRepository;
+    @Autowired private WebhookDispatcher dispatcher;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @Async
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final long DEFAULT_BATCH_LINGER_MS = 5_000;
+    public static final long MAX_BATCH_LINGER_MS = 300_000;
+
+    /**
+     * Serializes the event once and queues a delivery for every active webhook subscribed to it.
+     * Joins the caller's transaction, so the event is only delivered if the change behind it commits.
+     */
+    @Transactional
     public void sendEvent(String eventType, Object data) {
-        List<Webhook> webhooks = webhookRepository.findByActiveTrue();
-        for (Webhook wh : webhooks) {
-            if (wh.getEvents() != null && wh.getEvents().contains(eventType)) {
-                sendWithRetry(wh, eventType, data, 0);
-            }
+        List<Webhook> subscribers = new ArrayList<>();
+        for (Webhook wh : webhookRepository.findByActiveTrue()) {
+            if (wh.getEvents() != null && wh.getEvents().contains(eventType)) subscribers.add(wh);
         }
-    }
-
-    private void sendWithRetry(Webhook wh, String eventType, Object data, int attempt) {
-        try {
-            String payload = objectMapper.writeValueAsString(data);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.add("X-Event-Type", eventType);
-            String signature = signPayload(wh.getSecret(), payload);
-            headers.add("X-Signature", "sha256=" + signature);
+        if (subscribers.isEmpty()) return;
 
-            HttpEntity<String> entity = new HttpEntity<>(payload, headers);
-            ResponseEntity<String> response = restTemplate.exchange(wh.getCallbackUrl(), HttpMethod.POST, entity, String.class);
+        WebhookOutboxEvent event = new WebhookOutboxEvent();
+        event.setEventType(eventType);
+        event.setPayload(serialize(data));
+        eventRepository.save(event);
 
-            createLog(wh, eventType, payload, attempt + 1,
-                    response.getStatusCode().is2xxSuccessful() ? "SUCCESS" : "FAILED",
-                    response.getStatusCodeValue(), null);
+        Instant now = Instant.now();
+        // Webhooks sharing a secret share the signature
+        Map<String, String> signatures = new HashMap<>();
+        List<WebhookDelivery> deliveries = new ArrayList<>(subscribers.size());
+        for (Webhook wh : subscribers) {
+            WebhookDelivery delivery = new WebhookDelivery();
+            delivery.setEvent(event);
+            delivery.setWebhook(wh);
+            delivery.setSignature(signatures.computeIfAbsent(wh.getSecret(), secret -> signPayload(secret, event.getPayload())));
+            // A batch is sent once its oldest event has waited out the linger (or it fills up earlier)
+            delivery.setNextAttemptAt(wh.isBatching() ? now.plusMillis(lingerOf(wh)) : now);
+            deliveries.add(delivery);
+        }
+        deliveryRepository.saveAll(deliveries);
+        TransactionUtils.afterCommit(dispatcher::wakeUp);
+    }
 
-            if (!response.getStatusCode().is2xxSuccessful() && attempt < 2) {
-                Thread.sleep((long) Math.pow(2, attempt) * 1000);
-                sendWithRetry(wh, eventType, data, attempt + 1);
-            }
-        } catch (Exception e) {
-            createLog(wh, eventType, null, attempt + 1, "ERROR", null, e.getMessage());
-            if (attempt < 2) {
-                try { Thread.sleep((long) Math.pow(2, attempt) * 1000); } catch (InterruptedException ie) {}
-                sendWithRetry(wh, eventType, data, attempt + 1);
-            }
+    /**
+     * Rejects batching settings outside the supported range.
+     */
+    public static void validateBatching(Webhook webhook) {
+        Integer size = webhook.getBatchMaxSize();
+        if (size != null && (size < 1 || size > MAX_BATCH_SIZE)) {
+            throw new IllegalArgumentException("batchMaxSize must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        Long linger = webhook.getBatchLingerMs();
+        if (linger != null && (linger < 0 || linger > MAX_BATCH_LINGER_MS)) {
+            throw new IllegalArgumentException("batchLingerMs must be between 0 and " + MAX_BATCH_LINGER_MS);
         }
     }
 
-    private WebhookEventLog createLog(Webhook wh, String eventType, String payload,
-                                      int attempt, String status, Integer code, String error) {
-        WebhookEventLog log = new WebhookEventLog();
-        log.setWebhook(wh);
-        log.setEventType(eventType);
-        log.setPayload(payload != null ? payload : "");
-        log.setAttemptCount(attempt);
-        log.setStatus(status);
-        log.setResponseCode(code);
-        log.setErrorMessage(error);
-        log.setLastAttemptAt(Instant.now());
-        return logRepository.save(log);
+    private static long lingerOf(Webhook webhook) {
+        return webhook.getBatchLingerMs() != null ? webhook.getBatchLingerMs() : DEFAULT_BATCH_LINGER_MS;
     }
 
-    private String signPayload(String secret, String payload) throws Exception {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        SecretKeySpec secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        mac.init(secretKey);
-        byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-        return Base64.getEncoder().encodeToString(hash);
+    private String serialize(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Webhook payload is not serializable", e);
+        }
+    }
+
+    public static String signPayload(String secret, String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            SecretKeySpec secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+            mac.init(secretKey);
+            byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
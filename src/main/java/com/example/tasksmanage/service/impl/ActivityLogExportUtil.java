@@ -1,14 +1,14 @@
 package com.example.tasksmanage.service.impl;
 
 import com.example.tasksmanage.model.ActivityLog;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.List;
-import java.util.stream.Collectors;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 
 public class ActivityLogExportUtil {
-    public static String toCsv(List<ActivityLog> logs) {
-        String header = "id,timestamp,user,action,entityType,entityId,details";
-        String rows = logs.stream().map(log -> String.join(",",
+    public static final String CSV_HEADER = "id,timestamp,user,action,entityType,entityId,details";
+
+    public static String toCsvRow(ActivityLog log) {
+        return String.join(",",
             String.valueOf(log.getId()),
             String.valueOf(log.getTimestamp()),
             log.getUser() != null ? log.getUser().getUsername() : "",
@@ -16,15 +16,22 @@ public class ActivityLogExportUtil {
             log.getEntityType() != null ? log.getEntityType() : "",
             log.getEntityId() != null ? log.getEntityId() : "",
             log.getDetails() != null ? log.getDetails().replaceAll(",",";") : ""
-        )).collect(Collectors.joining("\n"));
-        return header + "\n" + rows;
+        );
     }
 
-    public static String toJson(List<ActivityLog> logs) {
-        try {
-            return new ObjectMapper().writeValueAsString(logs);
-        } catch (Exception e) {
-            return "[]";
-        }
+    /**
+     * Writes one log as a flat JSON object with the same columns as the CSV export
+     * (the user is reduced to its username instead of serializing the entity graph).
+     */
+    public static void writeJson(JsonGenerator json, ActivityLog log) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", String.valueOf(log.getId()));
+        json.writeStringField("timestamp", log.getTimestamp() != null ? log.getTimestamp().toInstant().toString() : null);
+        json.writeStringField("user", log.getUser() != null ? log.getUser().getUsername() : null);
+        json.writeStringField("action", log.getAction());
+        json.writeStringField("entityType", log.getEntityType());
+        json.writeStringField("entityId", log.getEntityId());
+        json.writeStringField("details", log.getDetails());
+        json.writeEndObject();
     }
 }
@@ -5,19 +5,35 @@ import com.example.tasksmanage.model.User;
 import com.example.tasksmanage.repository.ActivityLogRepository;
 import com.example.tasksmanage.repository.UserRepository;
 import com.example.tasksmanage.service.ActivityLogService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
 public class ActivityLogServiceImpl implements ActivityLogService {
+    private static final int EXPORT_BATCH_SIZE = 500;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     @Autowired
     private ActivityLogRepository activityLogRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @Override
     public ActivityLog logActivity(String action, String details, String entityType, String entityId, String username) {
@@ -40,13 +56,50 @@ public class ActivityLogServiceImpl implements ActivityLogService {
     }
 
     @Override
-    public byte[] exportActivities(Map<String, String> filters, String format) {
-        List<ActivityLog> logs = getActivityFeed(filters, Pageable.unpaged()).getContent();
-        // Export logic for CSV/JSON
-        if ("csv".equalsIgnoreCase(format)) {
-            return ActivityLogExportUtil.toCsv(logs).getBytes();
-        } else {
-            return ActivityLogExportUtil.toJson(logs).getBytes();
+    public void exportActivities(Map<String, String> filters, String format, OutputStream out) throws IOException {
+        Specification<ActivityLog> spec = ActivityLogSpecifications.fromFilters(filters);
+        boolean csv = "csv".equalsIgnoreCase(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = csv ? null : JSON_FACTORY.createGenerator(writer);
+        if (csv) writer.write(ActivityLogExportUtil.CSV_HEADER);
+        else json.writeStartArray();
+
+        // Keyset batches on (timestamp, id): every batch is a bounded query, however far into the export
+        Date lastTimestamp = null;
+        UUID lastId = null;
+        while (true) {
+            List<ActivityLog> batch = nextExportBatch(spec, lastTimestamp, lastId);
+            for (ActivityLog log : batch) {
+                if (csv) {
+                    writer.write('\n');
+                    writer.write(ActivityLogExportUtil.toCsvRow(log));
+                } else {
+                    ActivityLogExportUtil.writeJson(json, log);
+                }
+            }
+            if (csv) writer.flush();
+            else json.flush();
+            if (batch.size() < EXPORT_BATCH_SIZE) break;
+            ActivityLog last = batch.get(batch.size() - 1);
+            lastTimestamp = last.getTimestamp();
+            lastId = last.getId();
+            // An open-in-view persistence context would otherwise keep every exported entity reachable
+            entityManager.clear();
+        }
+        if (!csv) {
+            json.writeEndArray();
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private List<ActivityLog> nextExportBatch(Specification<ActivityLog> spec, Date lastTimestamp, UUID lastId) {
+        Specification<ActivityLog> page = spec;
+        if (lastTimestamp != null) {
+            page = page.and((root, query, cb) -> cb.or(
+                    cb.greaterThan(root.get("timestamp"), lastTimestamp),
+                    cb.and(cb.equal(root.get("timestamp"), lastTimestamp), cb.greaterThan(root.get("id"), lastId))));
         }
+        return activityLogRepository.findBy(page, q -> q.sortBy(Sort.by("timestamp", "id")).limit(EXPORT_BATCH_SIZE).all());
     }
 }
@@ -1,25 +1,66 @@
 package com.example.tasksmanage.service.impl;
 
+import com.example.tasksmanage.cache.BoundedCache;
+import com.example.tasksmanage.cache.InvalidationBus;
 import com.example.tasksmanage.model.ApiKey;
 import com.example.tasksmanage.repository.ApiKeyRepository;
 import com.example.tasksmanage.service.ApiKeyService;
+import com.example.tasksmanage.util.Digests;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * API keys, resolved through a cache keyed by the SHA-256 of the key.
+ * <p>
+ * Known keys are cached for a short TTL. Revocation invalidates the entry on every node through the
+ * {@link InvalidationBus}; the TTL only bounds staleness should a broadcast be lost. Unknown and inactive keys
+ * are cached too, for a shorter TTL, so a misconfigured client retrying a bad key does not reach the
+ * database on every request. Last-used timestamps are collected in memory and written in one
+ * transaction per flush interval rather than per request.
+ */
 @Service
 public class ApiKeyServiceImpl implements ApiKeyService {
+    // Stands in for "no such active key" in the cache, which does not hold nulls
+    private static final Optional<ApiKey> UNKNOWN = Optional.empty();
+
     private final ApiKeyRepository apiKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InvalidationBus invalidationBus;
     private final SecureRandom secureRandom = new SecureRandom();
+    private final BoundedCache<String, Optional<ApiKey>> resolved;
+    private final Duration negativeTtl;
+    private final Map<UUID, Instant> pendingLastUsed = new ConcurrentHashMap<>();
 
     @Autowired
-    public ApiKeyServiceImpl(ApiKeyRepository apiKeyRepository) {
+    public ApiKeyServiceImpl(ApiKeyRepository apiKeyRepository,
+                             PlatformTransactionManager transactionManager,
+                             InvalidationBus invalidationBus,
+                             @Value("${app.security.api-key-cache.max-size:10000}") long cacheSize,
+                             @Value("${app.security.api-key-cache.ttl:60s}") Duration ttl,
+                             @Value("${app.security.api-key-cache.negative-ttl:10s}") Duration negativeTtl) {
         this.apiKeyRepository = apiKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resolved = new BoundedCache<>(cacheSize, ttl, null);
+        this.negativeTtl = negativeTtl;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(InvalidationBus.API_KEY, digest -> {
+            if (InvalidationBus.ALL.equals(digest)) resolved.invalidateAll();
+            else resolved.invalidate(digest);
+        });
     }
 
     @Override
@@ -31,7 +72,9 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         apiKey.setUserId(userId);
         apiKey.setActive(true);
         apiKey.setCreatedAt(java.time.Instant.now());
-        return apiKeyRepository.save(apiKey);
+        ApiKey saved = apiKeyRepository.save(apiKey);
+        resolved.invalidate(digest(key));
+        return saved;
     }
 
     @Override
@@ -41,6 +84,8 @@ public class ApiKeyServiceImpl implements ApiKeyService {
             if (apiKey.getUserId().equals(userId)) {
                 apiKey.setActive(false);
                 apiKeyRepository.save(apiKey);
+                invalidationBus.publish(InvalidationBus.API_KEY, digest(apiKey.getApiKey()));
+                pendingLastUsed.remove(apiKey.getId());
             }
         });
     }
@@ -50,11 +95,32 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         return apiKeyRepository.findByUserId(userId);
     }
 
+    /**
+     * Returns the active key, or null. The returned entity is shared between requests and must not be modified.
+     */
     @Override
     public ApiKey validateApiKey(String key) {
-        return apiKeyRepository.findByApiKey(key)
-                .filter(ApiKey::isActive)
-                .orElse(null);
+        String digest = digest(key);
+        Optional<ApiKey> apiKey = resolved.getIfPresent(digest);
+        if (apiKey == null) {
+            apiKey = apiKeyRepository.findByApiKey(key).filter(ApiKey::isActive);
+            if (apiKey.isPresent()) {
+                resolved.put(digest, apiKey);
+            } else {
+                resolved.put(digest, UNKNOWN, System.currentTimeMillis() + negativeTtl.toMillis());
+            }
+        }
+        apiKey.ifPresent(k -> pendingLastUsed.put(k.getId(), Instant.now()));
+        return apiKey.orElse(null);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.api-key-cache.last-used-flush-ms:30000}")
+    public void flushLastUsed() {
+        if (pendingLastUsed.isEmpty()) return;
+        Map<UUID, Instant> flushed = Map.copyOf(pendingLastUsed);
+        transactionTemplate.executeWithoutResult(status -> flushed.forEach(apiKeyRepository::recordLastUsed));
+        // Only once written, and only if no later use came in meanwhile; a failed flush is retried next time
+        flushed.forEach(pendingLastUsed::remove);
     }
 
     private String generateRandomKey() {
@@ -62,4 +128,8 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         secureRandom.nextBytes(randomBytes);
         return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
     }
+
+    private static String digest(String key) {
+        return Base64.getEncoder().withoutPadding().encodeToString(Digests.sha256(key));
+    }
 }
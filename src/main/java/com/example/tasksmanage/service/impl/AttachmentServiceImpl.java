@@ -1,14 +1,32 @@
 package com.example.tasksmanage.service.impl;
 
+import com.example.tasksmanage.model.Attachment;
+import com.example.tasksmanage.model.StoredBlob;
+import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.AttachmentRepository;
 import com.example.tasksmanage.service.AttachmentService;
+import com.example.tasksmanage.storage.BlobStore;
+import com.example.tasksmanage.storage.StorageProperties;
+import com.example.tasksmanage.storage.codec.CompressionCodec;
+import com.example.tasksmanage.storage.codec.CompressionCodecRegistry;
+import com.example.tasksmanage.storage.codec.GzipCodec;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.UUID;
 
 @Service
 public class AttachmentServiceImpl implements AttachmentService {
@@ -16,6 +34,19 @@ public class AttachmentServiceImpl implements AttachmentService {
             "image/png", "image/jpeg", "application/pdf", "text/plain"
     );
     private static final long MAX_SIZE = 10 * 1024 * 1024; // 10MB
+    // Attachments uploaded before content-addressed storage keep their own file here
+    private final Path legacyStorageLocation;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private CompressionCodecRegistry codecs;
+
+    public AttachmentServiceImpl(StorageProperties storage) {
+        this.legacyStorageLocation = storage.uploadRoot();
+    }
 
     @Override
     public void validateFile(MultipartFile file) throws IOException {
@@ -40,23 +71,81 @@ public class AttachmentServiceImpl implements AttachmentService {
     @Override
     public byte[] compress(byte[] data) throws IOException {
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
-            gzip.write(data);
+        try (OutputStream out = codecs.byId(GzipCodec.ID).encode(bos)) {
+            out.write(data);
         }
         return bos.toByteArray();
     }
 
     @Override
     public byte[] decompress(byte[] data) throws IOException {
-        ByteArrayInputStream bis = new ByteArrayInputStream(data);
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try (GZIPInputStream gzip = new GZIPInputStream(bis)) {
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = gzip.read(buffer)) > 0) {
-                bos.write(buffer, 0, len);
+        try (InputStream in = codecs.byId(GzipCodec.ID).decode(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Override
+    public CompressionCodec codecFor(String contentType) {
+        return codecs.forContentType(contentType);
+    }
+
+    @Override
+    @Transactional
+    public Attachment createAttachment(BlobStore.StagedBlob content, String originalName, String contentType, Task task, User user) {
+        StoredBlob blob = blobStore.commit(content);
+        return attachmentRepository.save(newAttachment(blob, originalName, contentType, task, user));
+    }
+
+    @Override
+    @Transactional
+    public Optional<Attachment> attachExisting(String digest, String originalName, String contentType, Task task, User user) {
+        // Knowing a digest is no proof of having the bytes: only content the user uploaded themselves can
+        // be attached again, and anything else looks the same as unknown content
+        if (user == null || !attachmentRepository.existsByContentHashAndUploadedBy_Id(digest, user.getId())) {
+            return Optional.empty();
+        }
+        // The row lock taken here keeps the blob from being collected before the reference is saved
+        return blobStore.acquire(digest)
+                .map(blob -> attachmentRepository.save(newAttachment(blob, originalName, contentType, task, user)));
+    }
+
+    @Override
+    @Transactional
+    public void deleteByFileName(String fileName) throws IOException {
+        List<Attachment> attachments = attachmentRepository.findByFileName(fileName);
+        Set<String> digests = new LinkedHashSet<>();
+        for (Attachment attachment : attachments) {
+            if (attachment.getContentHash() != null) {
+                digests.add(attachment.getContentHash());
+            } else {
+                Path legacy = legacyStorageLocation.resolve(fileName).normalize();
+                if (!legacy.startsWith(legacyStorageLocation)) throw new IllegalArgumentException("Invalid file name");
+                Files.deleteIfExists(legacy);
             }
         }
-        return bos.toByteArray();
+        attachmentRepository.deleteAll(attachments);
+        attachmentRepository.flush();
+        for (String digest : digests) blobStore.releaseIfUnreferenced(digest);
+    }
+
+    private static Attachment newAttachment(StoredBlob blob, String originalName, String contentType, Task task, User user) {
+        String fileName = UUID.randomUUID() + "_" + baseName(originalName);
+        Attachment attachment = new Attachment();
+        attachment.setFileName(fileName);
+        attachment.setFileType(contentType);
+        attachment.setFileSize(blob.getSize());
+        attachment.setContentHash(blob.getDigest());
+        attachment.setUrl("/api/v1/files/" + fileName);
+        attachment.setTask(task);
+        attachment.setUploadedBy(user);
+        return attachment;
+    }
+
+    // Client-supplied names may carry directories; only the last segment is kept
+    private static String baseName(String originalName) {
+        if (originalName == null) return "file";
+        String name = originalName.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1);
+        return name.isBlank() || name.equals("..") ? "file" : name;
     }
 }
@@ -1,9 +1,11 @@
 package com.example.tasksmanage.service.impl;
 
+import com.example.tasksmanage.cache.InvalidationBus;
 import com.example.tasksmanage.model.Comment;
 import com.example.tasksmanage.model.Task;
 import com.example.tasksmanage.repository.CommentRepository;
 import com.example.tasksmanage.repository.TaskRepository;
+import com.example.tasksmanage.search.SearchIndex;
 import com.example.tasksmanage.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -22,6 +24,10 @@ public class CommentServiceImpl implements CommentService {
     private TaskRepository taskRepository;
     @Autowired(required = false)
     private SimpMessagingTemplate messagingTemplate;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private InvalidationBus invalidationBus;
 
     @Override
     @Transactional
@@ -36,6 +42,8 @@ public class CommentServiceImpl implements CommentService {
         parseMentions(comment.getContent());
         // TODO: Notify mentioned users if needed
         Comment saved = commentRepository.save(comment);
+        searchIndex.indexComment(saved);
+        invalidationBus.publish(InvalidationBus.COMMENT, saved.getId());
         // Broadcast over STOMP
         publishEvent(taskId, Map.of(
                 "type", "new",
@@ -58,6 +66,8 @@ public class CommentServiceImpl implements CommentService {
         parseMentions(content);
         // TODO: Notify mentioned users if needed
         Comment saved = commentRepository.save(comment);
+        searchIndex.indexComment(saved);
+        invalidationBus.publish(InvalidationBus.COMMENT, commentId);
         // Broadcast over STOMP
         UUID taskId = saved.getTask() != null ? saved.getTask().getId() : null;
         if (taskId != null) {
@@ -76,6 +86,8 @@ public class CommentServiceImpl implements CommentService {
         Comment existing = commentRepository.findById(commentId).orElseThrow(() -> new RuntimeException("Comment not found"));
         UUID taskId = existing.getTask() != null ? existing.getTask().getId() : null;
         commentRepository.deleteById(commentId);
+        searchIndex.removeComment(commentId);
+        invalidationBus.publish(InvalidationBus.COMMENT, commentId);
         if (taskId != null) {
             publishEvent(taskId, Map.of(
                     "type", "delete",
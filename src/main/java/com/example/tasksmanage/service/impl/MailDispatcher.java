@@ -0,0 +1,68 @@
+package com.example.tasksmanage.service.impl;
+
+import com.example.tasksmanage.util.DestinationLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends mail off the caller's thread on the I/O executor, with at most
+ * {@code app.mail.max-concurrent-sends} messages in flight to the SMTP server.
+ */
+@Component
+public class MailDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+    private static final String SMTP = "smtp";
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+    @Autowired
+    @Qualifier("ioExecutor")
+    private AsyncTaskExecutor executor;
+
+    private final DestinationLimiter limiter;
+
+    public MailDispatcher(@Value("${app.mail.max-concurrent-sends:8}") int maxConcurrentSends) {
+        this.limiter = new DestinationLimiter(maxConcurrentSends);
+    }
+
+    public boolean isEnabled() {
+        return mailSender != null;
+    }
+
+    /**
+     * Queues the message; the future completes once the SMTP server accepted it. Failures are logged
+     * and complete the future exceptionally.
+     */
+    public CompletableFuture<Void> send(SimpleMailMessage message) {
+        if (mailSender == null) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                sendNow(message);
+            } catch (Exception ex) {
+                log.warn("Could not send mail to {}", (Object) message.getTo(), ex);
+                throw new IllegalStateException("Mail delivery failed", ex);
+            }
+        }, executor);
+    }
+
+    /**
+     * Sends on the caller's thread, waiting for a free connection slot, for callers that run their own
+     * workers and retries. Failures are thrown, not logged.
+     */
+    public void sendNow(SimpleMailMessage message) throws Exception {
+        if (mailSender == null) return;
+        limiter.call(SMTP, () -> {
+            mailSender.send(message);
+            return null;
+        });
+    }
+}
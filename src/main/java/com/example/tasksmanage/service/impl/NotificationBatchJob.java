@@ -1,51 +1,160 @@
 package com.example.tasksmanage.service.impl;
 
-import com.example.tasksmanage.model.Notification;
-import com.example.tasksmanage.model.NotificationPreferences;
-import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.dto.NotificationDigestItem;
 import com.example.tasksmanage.repository.NotificationRepository;
-import com.example.tasksmanage.repository.NotificationPreferencesRepository;
+import com.example.tasksmanage.service.JobLockService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Hourly digest mail of unread notifications for users who opted into batching.
+ * <p>
+ * Pending items come from one keyset-paged query ordered by user, so a page holds whole digests for
+ * a run of users; a user whose items spill past the end of a page is carried into the next one. Each
+ * page's digests are rendered and sent in parallel on the I/O executor (the SMTP limit still applies),
+ * then everything that went out is marked batched, with one UPDATE per page-sized chunk of ids. Digests
+ * that failed stay pending for the next run. Only one run at a time, across all nodes, holds the job
+ * lock; its lease is renewed after every page, and a run that lost it stops.
+ */
 @Component
 public class NotificationBatchJob {
+    private static final Logger log = LoggerFactory.getLogger(NotificationBatchJob.class);
+
+    static final String JOB_NAME = "notification-digest";
+    // Longer than any page should take, shorter than the schedule period
+    static final Duration LOCK_LEASE = Duration.ofMinutes(55);
+    private static final UUID FIRST = new UUID(0, 0);
+
     @Autowired
     private NotificationRepository notificationRepository;
     @Autowired
-    private NotificationPreferencesRepository preferencesRepository;
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    private MailDispatcher mailDispatcher;
+    @Autowired
+    private JobLockService jobLockService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("ioExecutor")
+    private AsyncTaskExecutor executor;
+
+    @Value("${app.notifications.digest.page-size:1000}")
+    private int pageSize;
 
     // Run every hour
     @Scheduled(cron = "0 0 * * * *")
     public void sendBatchNotifications() {
-        // Find users with batch notifications enabled
-        List<NotificationPreferences> batchUsers = preferencesRepository.findByBatchEnabled(true);
-        for (NotificationPreferences prefs : batchUsers) {
-            User user = prefs.getUser();
-            List<Notification> unread = notificationRepository.findByUser_Id(user.getId()).stream()
-                    .filter(n -> !n.isRead() && !n.isBatched())
-                    .collect(Collectors.toList());
-            if (!unread.isEmpty() && mailSender != null && user.getEmail() != null) {
-                StringBuilder body = new StringBuilder("You have new notifications:\n\n");
-                for (Notification n : unread) {
-                    body.append("- ").append(n.getContent()).append("\n");
-                    n.setBatched(true);
-                }
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setTo(user.getEmail());
-                message.setSubject("Task Manager: Notification Digest");
-                message.setText(body.toString());
-                mailSender.send(message);
-                notificationRepository.saveAll(unread);
+        if (!mailDispatcher.isEnabled()) return;
+        JobLockService.Lease lease = jobLockService.tryLock(JOB_NAME, LOCK_LEASE);
+        if (lease == null) {
+            log.info("Notification digest run skipped, another run is in progress");
+            return;
+        }
+        try {
+            int sent = sendDigests(lease);
+            log.debug("Sent {} notification digests", sent);
+        } finally {
+            jobLockService.unlock(lease);
+        }
+    }
+
+    private int sendDigests(JobLockService.Lease lease) {
+        UUID afterUser = FIRST;
+        UUID afterId = FIRST;
+        List<NotificationDigestItem> carried = new ArrayList<>();
+        int sent = 0;
+        boolean lastPage = false;
+        while (!lastPage) {
+            List<NotificationDigestItem> page = notificationRepository.findPendingDigestItems(afterUser, afterId,
+                    PageRequest.of(0, pageSize));
+            lastPage = page.size() < pageSize;
+            if (!page.isEmpty()) {
+                NotificationDigestItem tail = page.get(page.size() - 1);
+                afterUser = tail.userId();
+                afterId = tail.notificationId();
+            }
+            List<NotificationDigestItem> items = new ArrayList<>(carried);
+            items.addAll(page);
+            carried = new ArrayList<>();
+            if (!lastPage) {
+                // The last user's items may continue on the next page; their digest waits for them
+                int cut = items.size();
+                while (cut > 0 && items.get(cut - 1).userId().equals(afterUser)) cut--;
+                carried.addAll(items.subList(cut, items.size()));
+                items = items.subList(0, cut);
             }
+            if (!items.isEmpty()) sent += send(items);
+            if (!lastPage && !jobLockService.renew(lease, LOCK_LEASE)) {
+                log.warn("Notification digest run lost its lock after {} digests, stopping", sent);
+                break;
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Sends one digest per user in the items, in parallel, and marks the sent ones batched.
+     */
+    private int send(List<NotificationDigestItem> items) {
+        Map<UUID, List<NotificationDigestItem>> byUser = new LinkedHashMap<>();
+        for (NotificationDigestItem item : items) {
+            byUser.computeIfAbsent(item.userId(), id -> new ArrayList<>()).add(item);
+        }
+        List<List<NotificationDigestItem>> digests = new ArrayList<>(byUser.values());
+        List<CompletableFuture<Void>> sends = new ArrayList<>(digests.size());
+        for (List<NotificationDigestItem> digest : digests) {
+            sends.add(CompletableFuture.supplyAsync(() -> render(digest), executor).thenCompose(mailDispatcher::send));
+        }
+        List<UUID> batched = new ArrayList<>(items.size());
+        int sent = 0;
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).join();
+            } catch (CompletionException ex) {
+                // Logged by the dispatcher; these notifications go into the next digest
+                continue;
+            }
+            sent++;
+            digests.get(i).forEach(item -> batched.add(item.notificationId()));
+        }
+        if (!batched.isEmpty()) {
+            // A user's items carried across many pages can make this list far longer than a page
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (int from = 0; from < batched.size(); from += pageSize) {
+                    notificationRepository.markBatched(batched.subList(from, Math.min(from + pageSize, batched.size())));
+                }
+            });
+        }
+        return sent;
+    }
+
+    private static SimpleMailMessage render(List<NotificationDigestItem> digest) {
+        StringBuilder body = new StringBuilder("You have new notifications:\n\n");
+        for (NotificationDigestItem item : digest) {
+            body.append("- ").append(item.content()).append("\n");
         }
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(digest.get(0).email());
+        message.setSubject("Task Manager: Notification Digest");
+        message.setText(body.toString());
+        return message;
     }
 }
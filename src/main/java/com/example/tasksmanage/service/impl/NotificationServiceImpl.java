@@ -1,70 +1,154 @@
 package com.example.tasksmanage.service.impl;
 
+import com.example.tasksmanage.dto.CursorPageDTO;
+import com.example.tasksmanage.dto.NotificationDTO;
 import com.example.tasksmanage.model.Notification;
+import com.example.tasksmanage.model.NotificationCounter;
+import com.example.tasksmanage.notification.NotificationDispatcher;
+import com.example.tasksmanage.repository.NotificationCounterRepository;
 import com.example.tasksmanage.repository.NotificationRepository;
+import com.example.tasksmanage.service.NotificationCursor;
 import com.example.tasksmanage.service.NotificationService;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_IDS = 1000;
+
     @Autowired
     private NotificationRepository notificationRepository;
-    @Autowired(required = false)
-    private SimpMessagingTemplate messagingTemplate;
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    @Autowired
+    private NotificationCounterRepository counterRepository;
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
+    /**
+     * Stores the notification; WebSocket, email and push delivery happen after commit on the
+     * dispatcher's workers, so a slow channel never holds up the caller.
+     */
     @Override
+    @Transactional
     public Notification createNotification(Notification notification) {
         Notification saved = notificationRepository.save(notification);
-        // Real-time WebSocket notification
-        if (messagingTemplate != null) {
-            messagingTemplate.convertAndSend("/topic/notifications/" + notification.getUser().getId(), saved);
-        }
-        // Email notification
-        if (mailSender != null && notification.getUser().getEmail() != null) {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(notification.getUser().getEmail());
-            message.setSubject("New Notification");
-            message.setText(notification.getContent());
-            mailSender.send(message);
-        }
+        if (!saved.isRead() && saved.getUser() != null) adjustUnread(saved.getUser().getId(), 1);
+        notificationDispatcher.publish(saved);
         return saved;
     }
 
     @Override
-    public List<Notification> getNotificationsByUser(UUID userId) {
-        return notificationRepository.findByUser_Id(userId);
+    @Transactional
+    public Notification markAsRead(UUID notificationId) {
+        return setRead(notificationId, true);
     }
 
     @Override
-    public Notification markAsRead(UUID notificationId) {
+    @Transactional
+    public Notification markAsUnread(UUID notificationId) {
+        return setRead(notificationId, false);
+    }
+
+    private Notification setRead(UUID notificationId, boolean read) {
         Notification n = notificationRepository.findById(notificationId).orElseThrow();
-        n.setRead(true);
-        return notificationRepository.save(n);
+        if (n.getUser() == null) {
+            n.setRead(read);
+            return notificationRepository.save(n);
+        }
+        // Conditional update, so two concurrent calls move the counter only once
+        UUID userId = n.getUser().getId();
+        int changed = notificationRepository.setRead(userId, List.of(notificationId), read);
+        adjustUnread(userId, read ? -changed : changed);
+        return notificationRepository.findById(notificationId).orElseThrow();
     }
 
+    /**
+     * Keyset pagination on (createdAt, id), newest first, served by the inbox index; deep pages cost the
+     * same as the first one and no count query is issued.
+     */
     @Override
-    public Notification markAsUnread(UUID notificationId) {
-        Notification n = notificationRepository.findById(notificationId).orElseThrow();
-        n.setRead(false);
-        return notificationRepository.save(n);
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NotificationDTO> listNotifications(UUID userId, Boolean read, Boolean archived, String cursor, Integer size) {
+        if (userId == null) throw new IllegalArgumentException("userId is required");
+        NotificationCursor after = NotificationCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size != null ? size : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+        Specification<Notification> spec = (root, query, cb) -> {
+            Path<Instant> createdAt = root.get("createdAt");
+            Path<UUID> id = root.get("id");
+            query.orderBy(cb.desc(createdAt), cb.desc(id));
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+            if (read != null) predicates.add(cb.equal(root.get("read"), read));
+            if (archived != null) predicates.add(cb.equal(root.get("archived"), archived));
+            if (after != null) {
+                predicates.add(cb.or(cb.lessThan(createdAt, after.lastCreatedAt()),
+                        cb.and(cb.equal(createdAt, after.lastCreatedAt()), cb.lessThan(id, after.lastId()))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        // Fetch one extra row to learn whether another slice follows
+        List<Notification> rows = notificationRepository.findBy(spec, q -> q.limit(limit + 1).all());
+        boolean hasNext = rows.size() > limit;
+        List<Notification> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Notification last = content.get(content.size() - 1);
+            nextCursor = new NotificationCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(content.stream().map(NotificationDTO::of).toList(), limit, hasNext, nextCursor);
     }
 
     @Override
-    public List<Notification> getArchivedNotifications(UUID userId) {
-        return notificationRepository.findByUser_IdAndArchived(userId, true);
+    public long getUnreadCount(UUID userId) {
+        return counterRepository.findById(userId)
+                .map(NotificationCounter::getUnreadCount)
+                .orElseGet(() -> initializeCounter(userId));
     }
 
     @Override
-    public List<Notification> getAllNotifications(UUID userId) {
-        return notificationRepository.findByUser_Id(userId);
+    @Transactional
+    public int markRead(UUID userId, List<UUID> ids) {
+        checkBulkIds(ids);
+        if (ids != null && ids.isEmpty()) return 0;
+        int changed = ids == null
+                ? notificationRepository.markAllRead(userId)
+                : notificationRepository.setRead(userId, ids, true);
+        adjustUnread(userId, -changed);
+        return changed;
+    }
+
+    @Override
+    @Transactional
+    public int archive(UUID userId, List<UUID> ids) {
+        checkBulkIds(ids);
+        if (ids != null && ids.isEmpty()) return 0;
+        LocalDateTime now = LocalDateTime.now();
+        return ids == null
+                ? notificationRepository.archiveAll(userId, now)
+                : notificationRepository.archive(userId, ids, now);
+    }
+
+    private static void checkBulkIds(List<UUID> ids) {
+        if (ids != null && ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " notifications can be changed at once");
+        }
     }
 
     @Override
@@ -84,7 +168,45 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional
     public void deleteNotification(UUID notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresent(n -> {
+            notificationRepository.delete(n);
+            if (!n.isRead() && n.getUser() != null) adjustUnread(n.getUser().getId(), -1);
+        });
+    }
+
+    /**
+     * Moves the user's unread counter within the caller's transaction, creating it on first use.
+     */
+    private void adjustUnread(UUID userId, long delta) {
+        if (delta == 0) return;
+        if (counterRepository.addUnread(userId, delta) == 0) {
+            initializeCounter(userId);
+            counterRepository.addUnread(userId, delta);
+        }
+    }
+
+    /**
+     * Creates the counter from the user's committed unread notifications. Runs in its own transaction,
+     * so the caller's uncommitted change is not counted (the caller applies it as a delta), and a
+     * concurrent first use elsewhere just finds the row.
+     */
+    private long initializeCounter(UUID userId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            Long count = transaction.execute(status -> counterRepository.findById(userId)
+                    .map(NotificationCounter::getUnreadCount)
+                    .orElseGet(() -> {
+                        NotificationCounter counter = new NotificationCounter();
+                        counter.setUserId(userId);
+                        counter.setUnreadCount(notificationRepository.countByUser_IdAndReadFalse(userId));
+                        return counterRepository.saveAndFlush(counter).getUnreadCount();
+                    }));
+            return count != null ? count : 0;
+        } catch (DataIntegrityViolationException ex) {
+            return counterRepository.findById(userId).map(NotificationCounter::getUnreadCount).orElse(0L);
+        }
     }
 }
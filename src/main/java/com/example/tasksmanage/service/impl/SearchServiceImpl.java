@@ -13,10 +13,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import com.example.tasksmanage.service.SearchAnalyticsService;
+import com.example.tasksmanage.search.SearchIndex;
 import java.util.*;
+import java.util.function.Function;
 
 @Service
 public class SearchServiceImpl implements SearchService {
+    private static final int MAX_INDEX_RESULTS = 50;
+    private static final int MAX_SUGGESTIONS = 10;
+
     @Autowired
     private SearchAnalyticsService searchAnalyticsService;
 
@@ -28,6 +33,8 @@ public class SearchServiceImpl implements SearchService {
     private UserRepository userRepository;
     @Autowired
     private CommentRepository commentRepository;
+    @Autowired
+    private SearchIndex searchIndex;
 
     @Override
     public Map<String, Object> globalSearch(String query) {
@@ -38,32 +45,11 @@ public class SearchServiceImpl implements SearchService {
         }
 
         Map<String, Object> result = new HashMap<>();
-        // Tasks
-        List<Task> tasks = taskRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query);
-        // Basic ranking: title exact > title contains > description contains > rest
-        tasks = tasks.stream()
-            .sorted(Comparator.comparingInt(t -> {
-                String q = query.toLowerCase();
-                if (t.getTitle() != null && t.getTitle().equalsIgnoreCase(query)) return 0;
-                if (t.getTitle() != null && t.getTitle().toLowerCase().contains(q)) return 1;
-                if (t.getDescription() != null && t.getDescription().toLowerCase().contains(q)) return 2;
-                return 3;
-            }))
-            .toList();
-        result.put("tasks", tasks);
-        // Projects (assume Project has getName/getDescription)
-        List<Project> projects = projectRepository.findAll().stream()
-            .filter(p -> (p.getName() != null && p.getName().toLowerCase().contains(query.toLowerCase())) ||
-                         (p.getDescription() != null && p.getDescription().toLowerCase().contains(query.toLowerCase())))
-            .sorted(Comparator.comparingInt(p -> {
-                String q = query.toLowerCase();
-                if (p.getName() != null && p.getName().equalsIgnoreCase(query)) return 0;
-                if (p.getName() != null && p.getName().toLowerCase().contains(q)) return 1;
-                if (p.getDescription() != null && p.getDescription().toLowerCase().contains(q)) return 2;
-                return 3;
-            }))
-            .toList();
-        result.put("projects", projects);
+        // Tasks, projects and comments are ranked by the in-memory index; only the hits are loaded
+        List<UUID> taskIds = searchIndex.searchTasks(query, MAX_INDEX_RESULTS);
+        result.put("tasks", loadInOrder(taskIds, taskRepository.findAllById(taskIds), Task::getId));
+        List<UUID> projectIds = searchIndex.searchProjects(query, MAX_INDEX_RESULTS);
+        result.put("projects", loadInOrder(projectIds, projectRepository.findAllById(projectIds), Project::getId));
         // Users (search by email, username, firstName, lastName)
         List<User> users = userRepository.findUsersBySearchTerm(query, PageRequest.of(0, 10)).getContent();
         users = users.stream()
@@ -79,20 +65,22 @@ public class SearchServiceImpl implements SearchService {
             }))
             .toList();
         result.put("users", users);
-        // Comments (assume Comment has getContent())
-        List<Comment> comments = commentRepository.findAll().stream()
-            .filter(c -> c.getContent() != null && c.getContent().toLowerCase().contains(query.toLowerCase()))
-            .sorted(Comparator.comparingInt(c -> {
-                String q = query.toLowerCase();
-                if (c.getContent() != null && c.getContent().equalsIgnoreCase(query)) return 0;
-                if (c.getContent() != null && c.getContent().toLowerCase().contains(q)) return 1;
-                return 2;
-            }))
-            .toList();
-        result.put("comments", comments);
+        List<UUID> commentIds = searchIndex.searchComments(query, MAX_INDEX_RESULTS);
+        result.put("comments", loadInOrder(commentIds, commentRepository.findAllById(commentIds), Comment::getId));
         return result;
     }
 
+    private static <T> List<T> loadInOrder(List<UUID> rankedIds, List<T> entities, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = new HashMap<>();
+        for (T entity : entities) byId.put(idOf.apply(entity), entity);
+        List<T> ordered = new ArrayList<>(rankedIds.size());
+        for (UUID id : rankedIds) {
+            T entity = byId.get(id);
+            if (entity != null) ordered.add(entity);
+        }
+        return ordered;
+    }
+
     @Override
     public Map<String, Object> advancedTaskSearch(Map<String, String> params) {
         // Support advanced filtering via TaskRepository.advancedSearch
@@ -104,29 +92,11 @@ public class SearchServiceImpl implements SearchService {
 
     @Override
     public Map<String, List<String>> autocomplete(String query) {
+        // Served entirely from the in-memory prefix tries, most frequent phrases first
         Map<String, List<String>> result = new HashMap<>();
-        // Task titles
-        List<String> taskTitles = taskRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query)
-            .stream().map(t -> t.getTitle()).filter(Objects::nonNull)
-            .filter(t -> t.toLowerCase().contains(query.toLowerCase()))
-            .distinct().limit(10).toList();
-        result.put("tasks", taskTitles);
-        // Project names
-        List<String> projectNames = projectRepository.findAll().stream()
-            .map(p -> p.getName()).filter(Objects::nonNull)
-            .filter(n -> n.toLowerCase().contains(query.toLowerCase()))
-            .distinct().limit(10).toList();
-        result.put("projects", projectNames);
-        // User usernames/emails/names
-        List<User> users = userRepository.findUsersBySearchTerm(query, PageRequest.of(0, 10)).getContent();
-        Set<String> userSuggestions = new LinkedHashSet<>();
-        for (User u : users) {
-            if (u.getUsername() != null && u.getUsername().toLowerCase().contains(query.toLowerCase())) userSuggestions.add(u.getUsername());
-            if (u.getEmail() != null && u.getEmail().toLowerCase().contains(query.toLowerCase())) userSuggestions.add(u.getEmail());
-            if (u.getFirstName() != null && u.getFirstName().toLowerCase().contains(query.toLowerCase())) userSuggestions.add(u.getFirstName());
-            if (u.getLastName() != null && u.getLastName().toLowerCase().contains(query.toLowerCase())) userSuggestions.add(u.getLastName());
-        }
-        result.put("users", new ArrayList<>(userSuggestions).subList(0, Math.min(10, userSuggestions.size())));
+        result.put("tasks", searchIndex.suggestTaskTitles(query, MAX_SUGGESTIONS));
+        result.put("projects", searchIndex.suggestProjectNames(query, MAX_SUGGESTIONS));
+        result.put("users", searchIndex.suggestUsers(query, MAX_SUGGESTIONS));
         return result;
     }
 }
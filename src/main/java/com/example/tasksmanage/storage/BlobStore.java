@@ -0,0 +1,251 @@
+package com.example.tasksmanage.storage;
+
+import com.example.tasksmanage.model.StoredBlob;
+import com.example.tasksmanage.repository.AttachmentRepository;
+import com.example.tasksmanage.repository.StoredBlobRepository;
+import com.example.tasksmanage.storage.codec.CompressionCodec;
+import com.example.tasksmanage.storage.codec.CompressionCodecRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Content-addressed, deduplicated attachment storage.
+ * <p>
+ * Content is hashed (SHA-256 of the uncompressed bytes) while it is encoded into a temp file, then
+ * stored once under its digest; a second upload of the same bytes just drops its temp file. A blob is
+ * referenced by the attachment rows carrying its digest and is deleted once none is left, either when
+ * the last one is deleted through the API or by the periodic sweep (which also catches attachments
+ * removed by cascade). Attaching and deleting lock the blob row, so a blob is never collected while a
+ * new reference to it is being created.
+ * <p>
+ * New content is claimed by inserting its row in a transaction of its own; only the upload whose insert
+ * wins moves its file into place, after that commit. A caller rolling back afterwards leaves an
+ * unreferenced blob for the sweep instead of a file no row points to, and concurrent first uploads of
+ * the same bytes all end up on the winner's row and file, whatever codec each of them staged with.
+ */
+@Component
+public class BlobStore {
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    // Unreferenced blobs younger than this are left alone so an in-flight attach can still reach them
+    static final Duration COLLECT_GRACE = Duration.ofMinutes(10);
+    static final int COLLECT_BATCH_SIZE = 500;
+
+    private final Path blobDirectory;
+
+    @Autowired
+    private StoredBlobRepository blobRepository;
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CompressionCodecRegistry codecs;
+
+    public BlobStore(StorageProperties storage) {
+        this.blobDirectory = storage.uploadRoot().resolve("blobs");
+    }
+
+    /**
+     * Content hashed and encoded into a temp file, not yet part of the store.
+     */
+    public static final class StagedBlob {
+        private final String digest;
+        private final long size;
+        private final CompressionCodec codec;
+        private final Path temp;
+
+        StagedBlob(String digest, long size, CompressionCodec codec, Path temp) {
+            this.digest = digest;
+            this.size = size;
+            this.codec = codec;
+            this.temp = temp;
+        }
+
+        public String getDigest() { return digest; }
+        public long getSize() { return size; }
+
+        /**
+         * Deletes the temp file if {@link #commit} did not move it into the store.
+         */
+        public void discard() throws IOException {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Hashes and encodes the stream into a temp file through fixed-size buffers. Runs outside any
+     * transaction so no connection is held while the client sends the content.
+     */
+    public StagedBlob stage(InputStream content, CompressionCodec codec) throws IOException {
+        Files.createDirectories(blobDirectory);
+        Path temp = Files.createTempFile(blobDirectory, "staged-", ".tmp");
+        try {
+            MessageDigest sha256 = sha256();
+            long size = 0;
+            try (DigestInputStream in = new DigestInputStream(content, sha256);
+                 OutputStream out = codec.encode(Files.newOutputStream(temp))) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int len;
+                while ((len = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, len);
+                    size += len;
+                }
+            }
+            return new StagedBlob(HexFormat.of().formatHex(sha256.digest()), size, codec, temp);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+    }
+
+    /**
+     * Makes the staged content part of the store and locks its row in the caller's transaction: known
+     * content is reused (the temp file is left for {@link StagedBlob#discard}), new content is moved
+     * into place once its row has committed.
+     */
+    public StoredBlob commit(StagedBlob staged) {
+        Optional<StoredBlob> existing = acquire(staged.digest);
+        if (existing.isPresent()) return existing.get();
+        if (claim(staged)) {
+            Path target = path(staged.digest, staged.codec);
+            try {
+                Files.createDirectories(target.getParent());
+                Files.move(staged.temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                // Don't leave a row without content for the next upload of these bytes to reference
+                newTransaction().executeWithoutResult(status -> blobRepository.lockByDigest(staged.digest)
+                        .filter(blob -> attachmentRepository.countByContentHash(staged.digest) == 0)
+                        .ifPresent(blobRepository::delete));
+                throw new UncheckedIOException(ex);
+            }
+        }
+        // Lost the insert to a concurrent upload of the same bytes, or won it: either way the row is committed
+        return acquire(staged.digest)
+                .orElseThrow(() -> new IllegalStateException("Blob " + staged.digest + " was collected while being stored"));
+    }
+
+    /**
+     * Inserts the blob row in its own transaction; false if the digest was stored concurrently.
+     */
+    private boolean claim(StagedBlob staged) {
+        try {
+            long storedSize = Files.size(staged.temp);
+            Integer inserted = newTransaction().execute(status -> blobRepository.insertIfAbsent(
+                    staged.digest, staged.size, storedSize, staged.codec.id(), new Date()));
+            return inserted != null && inserted > 0;
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent first upload of the same bytes committed its row first
+            return false;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Locks and returns a stored blob, joining the caller's transaction, so that a reference can be
+     * added without the content being uploaded again.
+     */
+    public Optional<StoredBlob> acquire(String digest) {
+        return transaction().execute(status -> blobRepository.lockByDigest(digest));
+    }
+
+    /**
+     * Deletes the blob and its file if no attachment references it anymore. Call after removing a
+     * reference (in the same transaction, after the attachment delete has been flushed).
+     */
+    public boolean releaseIfUnreferenced(String digest) {
+        Boolean deleted = transaction().execute(status -> {
+            Optional<StoredBlob> blob = blobRepository.lockByDigest(digest);
+            if (blob.isEmpty() || attachmentRepository.countByContentHash(digest) > 0) return false;
+            blobRepository.delete(blob.get());
+            blobRepository.flush();
+            try {
+                // Removed while the row lock is held so a concurrent attach can't recreate the blob in between
+                Files.deleteIfExists(path(blob.get()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    public Optional<StoredBlob> find(String digest) {
+        return blobRepository.findById(digest);
+    }
+
+    public CompressionCodec codec(StoredBlob blob) {
+        return codecs.byId(blob.getCodec());
+    }
+
+    public Path path(StoredBlob blob) {
+        return path(blob.getDigest(), codec(blob));
+    }
+
+    private Path path(String digest, CompressionCodec codec) {
+        if (digest == null || !digest.matches("[0-9a-f]{64}")) throw new IllegalArgumentException("Invalid digest");
+        return blobDirectory.resolve(digest.substring(0, 2)).resolve(digest + codec.extension());
+    }
+
+    @Scheduled(fixedDelay = 3_600_000)
+    public void collectGarbage() {
+        Date before = new Date(System.currentTimeMillis() - COLLECT_GRACE.toMillis());
+        int collected = 0;
+        List<String> candidates;
+        do {
+            candidates = blobRepository.findUnreferenced(before, PageRequest.of(0, COLLECT_BATCH_SIZE));
+            int deletedInBatch = 0;
+            for (String digest : candidates) {
+                if (releaseIfUnreferenced(digest)) deletedInBatch++;
+            }
+            collected += deletedInBatch;
+            // Stop if nothing in the batch could be deleted (they gained references meanwhile)
+            if (deletedInBatch == 0) break;
+        } while (candidates.size() == COLLECT_BATCH_SIZE);
+        if (collected > 0) log.info("Collected {} unreferenced attachment blobs", collected);
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = transaction();
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.tasksmanage.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resumable uploads: a session is started with the final size, receives its bytes in chunks appended
+ * at an explicit offset and is completed once every byte has arrived.
+ * <p>
+ * Chunks are copied from the request stream into a part file through a fixed-size buffer, so memory
+ * use does not depend on chunk or file size. The part file length is the authoritative offset: a client
+ * whose chunk failed mid-way asks for the session and resumes from there. A session is only dropped once
+ * its completed file has been stored, so a failed completion can be retried. Sessions live in this node's
+ * memory; idle ones are discarded with their part files.
+ * <p>
+ * Work on a session's part file is serialized by the session's lock, a {@link ReentrantLock} rather than
+ * a monitor so that virtual threads waiting on file I/O are not pinned to their carrier.
+ */
+@Component
+public class ChunkedUploadStore {
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadStore.class);
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final Duration SESSION_TTL = Duration.ofHours(24);
+
+    private final Path partsDirectory;
+    private final Map<UUID, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadStore(StorageProperties storage) {
+        this.partsDirectory = storage.uploadRoot().resolve(".parts");
+    }
+
+    public static final class UploadSession {
+        private final UUID id;
+        private final String fileName;
+        private final String contentType;
+        private final long totalSize;
+        private final UUID ownerId;
+        private final Path part;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        UploadSession(UUID id, String fileName, String contentType, long totalSize, UUID ownerId, Path part) {
+            this.id = id;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.totalSize = totalSize;
+            this.ownerId = ownerId;
+            this.part = part;
+        }
+
+        public UUID getId() { return id; }
+        public String getFileName() { return fileName; }
+        public String getContentType() { return contentType; }
+        public long getTotalSize() { return totalSize; }
+        public UUID getOwnerId() { return ownerId; }
+        public Path getPart() { return part; }
+
+        public long getOffset() {
+            try {
+                return Files.size(part);
+            } catch (IOException ex) {
+                return 0;
+            }
+        }
+    }
+
+    public UploadSession start(String fileName, String contentType, long totalSize, UUID ownerId) throws IOException {
+        if (totalSize <= 0) throw new IllegalArgumentException("Upload size must be positive");
+        Files.createDirectories(partsDirectory);
+        UUID id = UUID.randomUUID();
+        Path part = Files.createFile(partsDirectory.resolve(id + ".part"));
+        UploadSession session = new UploadSession(id, fileName, contentType, totalSize, ownerId, part);
+        sessions.put(id, session);
+        return session;
+    }
+
+    /**
+     * Consumes a completed upload's part file.
+     */
+    @FunctionalInterface
+    public interface CompletedUpload<T> {
+        T store(UploadSession session) throws IOException;
+    }
+
+    public UploadSession get(UUID id) {
+        UploadSession session = sessions.get(id);
+        if (session == null) throw new NoSuchElementException("Upload not found");
+        return session;
+    }
+
+    /**
+     * Appends the stream at {@code offset}, which must equal the bytes received so far.
+     * Returns the new offset.
+     *
+     * @throws IllegalStateException when the offset does not match (the client should resume from the session's offset)
+     */
+    public long append(UUID id, long offset, InputStream in) throws IOException {
+        UploadSession session = lock(id);
+        try {
+            session.lastActivity = System.currentTimeMillis();
+            try (FileChannel channel = FileChannel.open(session.part, StandardOpenOption.WRITE)) {
+                long position = channel.size();
+                if (offset != position) throw new IllegalStateException("Expected offset " + position);
+                ReadableByteChannel source = Channels.newChannel(in);
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (source.read(buffer) >= 0) {
+                    buffer.flip();
+                    if (position + buffer.remaining() > session.totalSize) {
+                        // Never keep bytes past the declared size; the client resumes from the last good offset
+                        channel.truncate(offset);
+                        throw new IllegalArgumentException("Upload exceeds declared size of " + session.totalSize + " bytes");
+                    }
+                    while (buffer.hasRemaining()) position += channel.write(buffer, position);
+                    buffer.clear();
+                }
+                channel.force(false);
+                return position;
+            }
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Hands a fully received session's part file to {@code completion}, then drops the session and its
+     * part file. If {@code completion} fails, the session stays as it was and completing can be retried.
+     */
+    public <T> T complete(UUID id, CompletedUpload<T> completion) throws IOException {
+        UploadSession session = lock(id);
+        try {
+            long received = session.getOffset();
+            if (received != session.totalSize) {
+                throw new IllegalArgumentException("Upload incomplete: " + received + " of " + session.totalSize + " bytes received");
+            }
+            T result = completion.store(session);
+            sessions.remove(id);
+            deletePart(session);
+            return result;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    public void abort(UUID id) throws IOException {
+        UploadSession session = lock(id);
+        try {
+            sessions.remove(id);
+            Files.deleteIfExists(session.part);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the session with its lock held, failing if it was completed or aborted meanwhile.
+     */
+    private UploadSession lock(UUID id) {
+        UploadSession session = get(id);
+        session.lock.lock();
+        if (sessions.get(id) != session) {
+            session.lock.unlock();
+            throw new NoSuchElementException("Upload not found");
+        }
+        return session;
+    }
+
+    private static void deletePart(UploadSession session) {
+        try {
+            Files.deleteIfExists(session.part);
+        } catch (IOException ex) {
+            log.warn("Could not delete upload part {}", session.part, ex);
+        }
+    }
+
+    @Scheduled(fixedDelay = 3_600_000)
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - SESSION_TTL.toMillis();
+        sessions.values().removeIf(session -> {
+            // A session in use is not idle
+            if (session.lastActivity >= cutoff || !session.lock.tryLock()) return false;
+            try {
+                deletePart(session);
+                return true;
+            } finally {
+                session.lock.unlock();
+            }
+        });
+    }
+}
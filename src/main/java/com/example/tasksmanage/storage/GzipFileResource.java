@@ -0,0 +1,75 @@
+package com.example.tasksmanage.storage;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The decompressed view of a gzip file, inflated on the fly while it is read.
+ * <p>
+ * The uncompressed length comes from the gzip trailer, so Spring MVC can announce Content-Length and
+ * serve byte ranges (it skips to the range start through the inflating stream) without the content
+ * ever being held in memory or written back to disk.
+ */
+public class GzipFileResource extends AbstractResource {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final String filename;
+
+    public GzipFileResource(Path path, String filename) {
+        this.path = path;
+        this.filename = filename;
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.isRegularFile(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new GZIPInputStream(Files.newInputStream(path), BUFFER_SIZE);
+    }
+
+    /**
+     * Reads ISIZE, the last four bytes of the file: the uncompressed length modulo 2^32 (single-member
+     * gzip files below 4 GB, which is what the upload path writes).
+     */
+    @Override
+    public long contentLength() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < 4) throw new IOException("Not a gzip file: " + filename);
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            long position = channel.size() - 4;
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, position + trailer.position()) < 0) throw new IOException("Truncated gzip file: " + filename);
+            }
+            trailer.flip();
+            return Integer.toUnsignedLong(trailer.getInt());
+        }
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return Files.getLastModifiedTime(path).toMillis();
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getDescription() {
+        return "gzip file [" + path + "]";
+    }
+}
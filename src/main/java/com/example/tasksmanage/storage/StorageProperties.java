@@ -0,0 +1,24 @@
+package com.example.tasksmanage.storage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Where uploaded content lives on disk ({@code app.storage}).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.storage")
+public class StorageProperties {
+    // Holds legacy per-attachment files, blobs/ and the .parts/ of resumable uploads
+    private String uploadDir = "uploads";
+
+    public String getUploadDir() { return uploadDir; }
+    public void setUploadDir(String uploadDir) { this.uploadDir = uploadDir; }
+
+    public Path uploadRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.tasksmanage.storage.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * How attachment content is encoded at rest. The id is persisted with each stored blob, so an id must
+ * never be reused for a different format.
+ */
+public interface CompressionCodec {
+    String id();
+
+    /**
+     * File name suffix of content stored with this codec, including the dot.
+     */
+    String extension();
+
+    /**
+     * Wraps {@code out} so that bytes written are encoded; closing the wrapper closes {@code out}.
+     */
+    OutputStream encode(OutputStream out) throws IOException;
+
+    /**
+     * Wraps {@code in} so that bytes read are decoded; closing the wrapper closes {@code in}.
+     */
+    InputStream decode(InputStream in) throws IOException;
+}
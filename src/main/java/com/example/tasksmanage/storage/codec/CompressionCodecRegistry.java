@@ -0,0 +1,49 @@
+package com.example.tasksmanage.storage.codec;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Picks the codec for new content by MIME type and resolves persisted codec ids for reads.
+ */
+@Component
+public class CompressionCodecRegistry {
+    // Formats whose payload is already compressed; deflating them again costs CPU and saves nothing
+    private static final Set<String> PRECOMPRESSED_TYPES = Set.of(
+            "image/png", "image/jpeg", "image/gif", "image/webp",
+            "application/zip", "application/gzip", "application/x-7z-compressed"
+    );
+
+    private final Map<String, CompressionCodec> codecs = new HashMap<>();
+
+    public CompressionCodecRegistry(List<CompressionCodec> available) {
+        for (CompressionCodec codec : available) {
+            if (codecs.putIfAbsent(codec.id(), codec) != null) {
+                throw new IllegalStateException("Duplicate compression codec id: " + codec.id());
+            }
+        }
+        byId(IdentityCodec.ID);
+        byId(GzipCodec.ID);
+    }
+
+    public CompressionCodec forContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        boolean precompressed = PRECOMPRESSED_TYPES.contains(type) || type.startsWith("video/") || type.startsWith("audio/");
+        return byId(precompressed ? IdentityCodec.ID : GzipCodec.ID);
+    }
+
+    /**
+     * Resolves a persisted codec id; content stored before codecs were recorded is gzip.
+     */
+    public CompressionCodec byId(String id) {
+        CompressionCodec codec = codecs.get(id == null ? GzipCodec.ID : id);
+        if (codec == null) throw new NoSuchElementException("Unknown compression codec: " + id);
+        return codec;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.tasksmanage.storage.codec;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip at the fastest deflate level: close to the default level's ratio on text and PDF at a
+ * fraction of the CPU. Reads any gzip stream, including content written at other levels.
+ */
+@Component
+public class GzipCodec implements CompressionCodec {
+    public static final String ID = "gzip";
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String extension() {
+        return ".gz";
+    }
+
+    @Override
+    public OutputStream encode(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+    }
+
+    @Override
+    public InputStream decode(InputStream in) throws IOException {
+        return new GZIPInputStream(in, BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.tasksmanage.storage.codec;
+
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stores content as-is, for formats that are already compressed.
+ */
+@Component
+public class IdentityCodec implements CompressionCodec {
+    public static final String ID = "identity";
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String extension() {
+        return ".bin";
+    }
+
+    @Override
+    public OutputStream encode(OutputStream out) {
+        return out;
+    }
+
+    @Override
+    public InputStream decode(InputStream in) {
+        return in;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.tasksmanage.util;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps concurrent calls per destination (a webhook host, the SMTP server) with one semaphore each,
+ * so a slow peer can tie up at most its own permits however many callers are waiting.
+ */
+public class DestinationLimiter {
+    private final int permitsPerDestination;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public DestinationLimiter(int permitsPerDestination) {
+        if (permitsPerDestination < 1) throw new IllegalArgumentException("permitsPerDestination must be positive");
+        this.permitsPerDestination = permitsPerDestination;
+    }
+
+    /**
+     * Takes a permit if one is free; a successful call must be paired with {@link #release}.
+     */
+    public boolean tryAcquire(String destination) {
+        return semaphore(destination).tryAcquire();
+    }
+
+    public void release(String destination) {
+        semaphore(destination).release();
+    }
+
+    /**
+     * Runs the call once a permit for the destination is free, waiting for one if needed. Meant for
+     * virtual threads, where waiting does not hold on to a platform thread.
+     */
+    public <T> T call(String destination, Callable<T> call) throws Exception {
+        Semaphore semaphore = semaphore(destination);
+        semaphore.acquire();
+        try {
+            return call.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public int available(String destination) {
+        return semaphore(destination).availablePermits();
+    }
+
+    private Semaphore semaphore(String destination) {
+        return permits.computeIfAbsent(destination, d -> new Semaphore(permitsPerDestination));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tasksmanage.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public final class Digests {
+    private Digests() {
+    }
+
+    /**
+     * SHA-256 of the UTF-8 bytes of {@code value}, for keying caches by a secret without
+     * holding the secret itself.
+     */
+    public static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -13,9 +13,12 @@ public class JwtUtil {
     private final String jwtSecret = "taskmanage-super-secure-key-should-be-longer";
     private final long jwtExpirationMs = 3600000; // 1 hour
     private final long refreshExpirationMs = 604800000; // 7 days
+    // Both are immutable and thread-safe, so they are built once rather than per token
+    private final Key signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
 
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -38,11 +41,7 @@ public class JwtUtil {
     }
 
     public Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean isTokenValid(String token) {
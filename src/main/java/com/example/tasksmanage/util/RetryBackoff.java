@@ -0,0 +1,19 @@
+package com.example.tasksmanage.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class RetryBackoff {
+    private RetryBackoff() {
+    }
+
+    /**
+     * Delay before retry number {@code attempts} (1 for the first retry): exponential from
+     * {@code initialMillis}, capped at {@code maxMillis}, with +/-20% jitter so retries after an outage
+     * or a burst don't arrive in lockstep.
+     */
+    public static long millis(int attempts, long initialMillis, long maxMillis) {
+        long base = initialMillis << Math.min(attempts - 1, 30);
+        long capped = base <= 0 ? maxMillis : Math.min(base, maxMillis);
+        return (long) (capped * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tasksmanage.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public final class TagUtils {
+    private TagUtils() {
+    }
+
+    /**
+     * Canonical form of a tag: trimmed, inner whitespace collapsed to single spaces, lowercase.
+     * Returns an empty string for null or blank input.
+     */
+    public static String normalize(String tag) {
+        if (tag == null) return "";
+        return tag.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The distinct normalized forms of the tags, without blank ones.
+     */
+    public static Set<String> normalizeAll(Collection<String> tags) {
+        Set<String> normalized = new HashSet<>();
+        for (String tag : tags) {
+            String value = normalize(tag);
+            if (!value.isEmpty()) normalized.add(value);
+        }
+        return normalized;
+    }
+}
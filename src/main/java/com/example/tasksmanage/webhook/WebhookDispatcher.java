@@ -0,0 +1,359 @@
+package com.example.tasksmanage.webhook;
+
+import com.example.tasksmanage.model.Webhook;
+import com.example.tasksmanage.model.WebhookDelivery;
+import com.example.tasksmanage.model.WebhookEventLog;
+import com.example.tasksmanage.repository.WebhookDeliveryRepository;
+import com.example.tasksmanage.repository.WebhookEventLogRepository;
+import com.example.tasksmanage.repository.WebhookOutboxEventRepository;
+import com.example.tasksmanage.repository.WebhookRepository;
+import com.example.tasksmanage.service.WebhookService;
+import com.example.tasksmanage.util.DestinationLimiter;
+import com.example.tasksmanage.util.RetryBackoff;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends queued webhook deliveries.
+ * <p>
+ * Each poll claims due deliveries and queues them per webhook: a webhook's deliveries are sent one
+ * after another, oldest first, while different webhooks are sent in parallel, bounded per destination
+ * host. A failed attempt is rescheduled with exponential backoff (no thread waits for it) and the rest
+ * of that webhook's batch goes back to the queue, where it is not due before the failed delivery. Deliveries are at-least-once; receivers can
+ * deduplicate on {@code X-Delivery-Id}.
+ * <p>
+ * Webhooks in batching mode get their events coalesced: once the oldest pending event has waited out
+ * the linger time, or a full batch is waiting, up to {@code batchMaxSize} events are sent as one JSON
+ * array signed once for the whole batch, each element carrying its delivery id, event type and data.
+ */
+@Component
+public class WebhookDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    static final int POLL_BATCH_SIZE = 200;
+    // Batches sent per webhook per poll before yielding to the next poll
+    static final int MAX_BATCHES_PER_DRAIN = 10;
+    // A claim older than this belongs to a dispatcher that died mid-send
+    static final Duration STALE_CLAIM = Duration.ofMinutes(5);
+
+    @Autowired
+    private WebhookDeliveryRepository deliveryRepository;
+    @Autowired
+    private WebhookOutboxEventRepository eventRepository;
+    @Autowired
+    private WebhookEventLogRepository logRepository;
+    @Autowired
+    private WebhookRepository webhookRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("ioExecutor")
+    private TaskExecutor executor;
+
+    @Value("${app.webhooks.max-concurrency-per-host:4}")
+    private int maxConcurrencyPerHost;
+    @Value("${app.webhooks.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${app.webhooks.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+    @Value("${app.webhooks.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+    @Value("${app.webhooks.retention-days:7}")
+    private int retentionDays;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DestinationLimiter hostLimiter;
+    private final Set<UUID> sendingWebhooks = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    public WebhookDispatcher() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) Duration.ofSeconds(5).toMillis());
+        requestFactory.setReadTimeout((int) Duration.ofSeconds(10).toMillis());
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @PostConstruct
+    void createHostLimiter() {
+        hostLimiter = new DestinationLimiter(maxConcurrencyPerHost);
+    }
+
+    /**
+     * Polls right away instead of waiting for the next tick, e.g. after new deliveries were committed.
+     */
+    public void wakeUp() {
+        try {
+            executor.execute(this::dispatchDue);
+        } catch (TaskRejectedException ex) {
+            // The next scheduled poll picks them up
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-interval-ms:1000}")
+    public void dispatchDue() {
+        // Overlapping polls would only compete for the same rows
+        if (!pollLock.tryLock()) return;
+        try {
+            Instant now = Instant.now();
+            transaction().executeWithoutResult(status -> deliveryRepository.releaseStale(now.minus(STALE_CLAIM), now));
+            Map<UUID, Webhook> webhooks = new LinkedHashMap<>();
+            Map<UUID, List<WebhookDelivery>> byWebhook = new HashMap<>();
+            for (WebhookDelivery delivery : deliveryRepository.findDue(now, PageRequest.of(0, POLL_BATCH_SIZE))) {
+                webhooks.putIfAbsent(delivery.getWebhook().getId(), delivery.getWebhook());
+                byWebhook.computeIfAbsent(delivery.getWebhook().getId(), id -> new ArrayList<>()).add(delivery);
+            }
+            for (UUID id : deliveryRepository.findWebhooksWithFullBatch()) {
+                if (!webhooks.containsKey(id)) webhookRepository.findById(id).ifPresent(webhook -> webhooks.put(id, webhook));
+            }
+            for (Webhook webhook : webhooks.values()) {
+                submit(webhook, byWebhook.getOrDefault(webhook.getId(), List.of()));
+            }
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    private void submit(Webhook webhook, List<WebhookDelivery> queue) {
+        String host = hostOf(webhook.getCallbackUrl());
+        if (host == null) {
+            queue.forEach(delivery -> recordFailure(delivery, null, "Invalid callback URL", true));
+            return;
+        }
+        if (!sendingWebhooks.add(webhook.getId())) return;
+        // Without a free permit the webhook waits for a later poll instead of holding up this one
+        if (!hostLimiter.tryAcquire(host)) {
+            sendingWebhooks.remove(webhook.getId());
+            return;
+        }
+        // Batching webhooks pick their batches when the send runs; others send the claimed due deliveries
+        List<WebhookDelivery> claimed = webhook.isBatching() ? List.of() : claim(queue);
+        try {
+            executor.execute(() -> {
+                try {
+                    if (webhook.isBatching()) {
+                        sendBatches(webhook);
+                    } else {
+                        send(claimed);
+                    }
+                } finally {
+                    hostLimiter.release(host);
+                    sendingWebhooks.remove(webhook.getId());
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            release(claimed);
+            hostLimiter.release(host);
+            sendingWebhooks.remove(webhook.getId());
+        }
+    }
+
+    private List<WebhookDelivery> claim(List<WebhookDelivery> queue) {
+        Instant now = Instant.now();
+        return transaction().execute(status -> {
+            List<WebhookDelivery> claimed = new ArrayList<>(queue.size());
+            for (WebhookDelivery delivery : queue) {
+                if (deliveryRepository.claim(delivery.getId(), now) == 1) claimed.add(delivery);
+            }
+            return claimed;
+        });
+    }
+
+    private void release(List<WebhookDelivery> deliveries) {
+        if (deliveries.isEmpty()) return;
+        List<UUID> ids = deliveries.stream().map(WebhookDelivery::getId).toList();
+        transaction().executeWithoutResult(status -> deliveryRepository.release(ids, Instant.now()));
+    }
+
+    private void send(List<WebhookDelivery> queue) {
+        for (int i = 0; i < queue.size(); i++) {
+            if (!send(queue.get(i))) {
+                // Keep the webhook's order: nothing newer is sent before the failed delivery is retried
+                release(queue.subList(i + 1, queue.size()));
+                return;
+            }
+        }
+    }
+
+    private boolean send(WebhookDelivery delivery) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Event-Type", delivery.getEvent().getEventType());
+        headers.add("X-Signature", "sha256=" + delivery.getSignature());
+        headers.add("X-Delivery-Id", delivery.getId().toString());
+        return post(delivery.getWebhook(), List.of(delivery), delivery.getEvent().getEventType(),
+                delivery.getEvent().getPayload(), headers);
+    }
+
+    private void sendBatches(Webhook webhook) {
+        int maxSize = Math.min(webhook.getBatchMaxSize(), WebhookService.MAX_BATCH_SIZE);
+        for (int i = 0; i < MAX_BATCHES_PER_DRAIN; i++) {
+            Instant now = Instant.now();
+            List<WebhookDelivery> batch = deliveryRepository.findBatchable(webhook.getId(), now, PageRequest.of(0, maxSize));
+            // Nothing is sent until the oldest event has lingered long enough or the batch is full
+            boolean due = batch.stream().anyMatch(delivery -> !delivery.getNextAttemptAt().isAfter(now));
+            if (batch.isEmpty() || (!due && batch.size() < maxSize)) return;
+            batch = claim(batch);
+            if (batch.isEmpty()) return;
+            String body = batchBody(batch);
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("X-Event-Type", "batch");
+            headers.add("X-Signature", "sha256=" + WebhookService.signPayload(webhook.getSecret(), body));
+            headers.add("X-Batch-Size", String.valueOf(batch.size()));
+            if (!post(webhook, batch, "batch", body, headers) || batch.size() < maxSize) return;
+        }
+    }
+
+    private String batchBody(List<WebhookDelivery> batch) {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            for (WebhookDelivery delivery : batch) {
+                json.writeStartObject();
+                json.writeStringField("deliveryId", delivery.getId().toString());
+                json.writeStringField("eventType", delivery.getEvent().getEventType());
+                // Event payloads are already serialized JSON
+                json.writeFieldName("data");
+                json.writeRawValue(delivery.getEvent().getPayload());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Posts one request carrying the given deliveries and records the outcome on all of them, with a
+     * single attempt log entry.
+     */
+    private boolean post(Webhook webhook, List<WebhookDelivery> deliveries, String eventType, String body, HttpHeaders headers) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> entity = new HttpEntity<>(body, headers);
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(webhook.getCallbackUrl(), HttpMethod.POST, entity, String.class);
+            int code = response.getStatusCode().value();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                recordSuccess(webhook, deliveries, eventType, body, code);
+                return true;
+            }
+            recordFailure(webhook, deliveries, eventType, body, code, null, false);
+        } catch (HttpStatusCodeException ex) {
+            recordFailure(webhook, deliveries, eventType, body, ex.getStatusCode().value(), null, false);
+        } catch (Exception ex) {
+            recordFailure(webhook, deliveries, eventType, body, null, ex.getMessage(), false);
+        }
+        return false;
+    }
+
+    private void recordSuccess(Webhook webhook, List<WebhookDelivery> deliveries, String eventType, String body, int code) {
+        Instant now = Instant.now();
+        transaction().executeWithoutResult(status -> {
+            int attempt = 0;
+            for (WebhookDelivery delivery : deliveries) {
+                int attempts = delivery.getAttempts() + 1;
+                attempt = Math.max(attempt, attempts);
+                deliveryRepository.recordAttempt(delivery.getId(), WebhookDelivery.DELIVERED, attempts, now, code, null, now);
+            }
+            logRepository.save(attemptLog(webhook, eventType, body, attempt, "SUCCESS", code, null));
+        });
+    }
+
+    private void recordFailure(WebhookDelivery delivery, Integer code, String error, boolean permanent) {
+        recordFailure(delivery.getWebhook(), List.of(delivery), delivery.getEvent().getEventType(),
+                delivery.getEvent().getPayload(), code, error, permanent);
+    }
+
+    private void recordFailure(Webhook webhook, List<WebhookDelivery> deliveries, String eventType, String body,
+                               Integer code, String error, boolean permanent) {
+        Instant now = Instant.now();
+        String message = error != null && error.length() > 255 ? error.substring(0, 255) : error;
+        int given = transaction().execute(status -> {
+            int attempt = 0;
+            int exhaustedCount = 0;
+            for (WebhookDelivery delivery : deliveries) {
+                int attempts = delivery.getAttempts() + 1;
+                attempt = Math.max(attempt, attempts);
+                boolean exhausted = permanent || attempts >= maxAttempts;
+                if (exhausted) exhaustedCount++;
+                Instant next = exhausted ? now : now.plusMillis(RetryBackoff.millis(attempts, initialBackoffMs, maxBackoffMs));
+                deliveryRepository.recordAttempt(delivery.getId(), exhausted ? WebhookDelivery.FAILED : WebhookDelivery.PENDING,
+                        attempts, next, code, message, now);
+            }
+            logRepository.save(attemptLog(webhook, eventType, body, attempt, code != null ? "FAILED" : "ERROR", code, message));
+            return exhaustedCount;
+        });
+        if (given > 0) {
+            log.warn("Giving up on {} webhook deliveries to {}", given, webhook.getCallbackUrl());
+        }
+    }
+
+    private WebhookEventLog attemptLog(Webhook webhook, String eventType, String body, int attempt, String status,
+                                       Integer code, String error) {
+        WebhookEventLog entry = new WebhookEventLog();
+        entry.setWebhook(webhook);
+        entry.setEventType(eventType);
+        entry.setPayload(body);
+        entry.setAttemptCount(attempt);
+        entry.setStatus(status);
+        entry.setResponseCode(code);
+        entry.setErrorMessage(error);
+        entry.setLastAttemptAt(Instant.now());
+        return entry;
+    }
+
+    @Scheduled(fixedDelay = 3_600_000)
+    public void purgeFinished() {
+        Instant before = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+        transaction().executeWithoutResult(status -> {
+            deliveryRepository.deleteFinishedBefore(before);
+            eventRepository.deleteUndeliverableBefore(before);
+        });
+    }
+
+    private static String hostOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) return null;
+            return uri.getHost().toLowerCase(Locale.ROOT) + ":" + uri.getPort();
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            return null;
+        }
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,19 @@
+-- One membership row per (project, user), as ProjectMember declares. Duplicates keep the row with the
+-- strongest role (so nobody loses access), then the earliest join, and take the latest activity of the set
+UPDATE project_members m
+SET last_activity_at = d.last_activity_at
+FROM (SELECT project_id, user_id, max(last_activity_at) AS last_activity_at
+      FROM project_members
+      GROUP BY project_id, user_id
+      HAVING count(*) > 1) d
+WHERE m.project_id = d.project_id AND m.user_id = d.user_id;
+
+DELETE FROM project_members
+WHERE id IN (SELECT id
+             FROM (SELECT id, row_number() OVER (
+                          PARTITION BY project_id, user_id
+                          ORDER BY CASE role WHEN 'OWNER' THEN 0 WHEN 'MANAGER' THEN 1 ELSE 2 END, joined_at, id) AS rank
+                   FROM project_members) ranked
+             WHERE rank > 1);
+
+CREATE UNIQUE INDEX uk_project_members_project_user ON project_members(project_id, user_id);
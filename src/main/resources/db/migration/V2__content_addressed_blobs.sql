@@ -0,0 +1,12 @@
+-- Content-addressed attachment storage: one blob per distinct content, referenced by attachments
+
+CREATE TABLE blobs (
+    digest VARCHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    stored_size BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE attachments ADD COLUMN content_hash VARCHAR(64);
+
+CREATE INDEX idx_attachments_content_hash ON attachments(content_hash);
@@ -0,0 +1,3 @@
+-- Codec each blob is encoded with at rest; blobs written before this were all gzip
+
+ALTER TABLE blobs ADD COLUMN codec VARCHAR(16) NOT NULL DEFAULT 'gzip';
@@ -0,0 +1,12 @@
+-- Optional second cache tier shared between nodes (app.cache.shared-tier.enabled)
+
+CREATE TABLE cache_entries (
+    cache_name VARCHAR(100) NOT NULL,
+    cache_key VARCHAR(255) NOT NULL,
+    value_type VARCHAR(255) NOT NULL,
+    payload VARCHAR(1000000) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (cache_name, cache_key)
+);
+
+CREATE INDEX idx_cache_entries_expires_at ON cache_entries(expires_at);
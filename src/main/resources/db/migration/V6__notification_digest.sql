@@ -0,0 +1,11 @@
+-- Scheduled jobs hold a row here while they run, so only one node runs them at a time
+CREATE TABLE job_locks (
+    name VARCHAR(100) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_by VARCHAR(100)
+);
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS batched BOOLEAN NOT NULL DEFAULT false;
+
+-- Pending digest items, in the order the digest job pages through them
+CREATE INDEX idx_notifications_pending_digest ON notifications(user_id, id) WHERE NOT read AND NOT batched;
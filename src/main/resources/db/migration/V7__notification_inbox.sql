@@ -0,0 +1,11 @@
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS archived BOOLEAN NOT NULL DEFAULT false;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP;
+
+-- Inbox pages: a user's notifications, newest first (keyset on created_at, id)
+CREATE INDEX idx_notifications_inbox ON notifications(user_id, created_at, id);
+
+-- Unread count per user, maintained with every change; rows are created on first use
+CREATE TABLE notification_counters (
+    user_id UUID PRIMARY KEY,
+    unread_count BIGINT NOT NULL
+);
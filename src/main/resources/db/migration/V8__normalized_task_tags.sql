@@ -0,0 +1,13 @@
+-- Tags are stored in their normalized form (TagUtils.normalize: whitespace runs collapsed to one
+-- space, trimmed, lowercase), so tag filters compare plain values and can use the index below
+
+INSERT INTO task_tags (task_id, tags)
+SELECT DISTINCT t.task_id, lower(trim(regexp_replace(t.tags, '\s+', ' ', 'g')))
+FROM task_tags t
+WHERE lower(trim(regexp_replace(t.tags, '\s+', ' ', 'g'))) NOT IN (t.tags, '')
+  AND NOT EXISTS (SELECT 1 FROM task_tags x
+                  WHERE x.task_id = t.task_id AND x.tags = lower(trim(regexp_replace(t.tags, '\s+', ' ', 'g'))));
+
+DELETE FROM task_tags WHERE tags <> lower(trim(regexp_replace(tags, '\s+', ' ', 'g'))) OR tags = '';
+
+CREATE INDEX idx_task_tags_tag ON task_tags(tags, task_id);
@@ -0,0 +1,4 @@
+-- Keyset pages over tasks order by (sort key, id) and seek past the last row of the previous page;
+-- these let the date-sorted pages read straight off an index instead of sorting the table
+CREATE INDEX idx_tasks_created_at_id ON tasks(created_at, id);
+CREATE INDEX idx_tasks_updated_at_id ON tasks(updated_at, id);
@@ -0,0 +1,114 @@
+package com.example.tasksmanage.analytics;
+
+import com.example.tasksmanage.cache.InvalidationBus;
+import com.example.tasksmanage.model.Project;
+import com.example.tasksmanage.model.ProjectStatus;
+import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.repository.ProjectRepository;
+import com.example.tasksmanage.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ProjectMetricsStoreTest {
+    @Autowired
+    private ProjectMetricsStore store;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private InvalidationBus invalidationBus;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        project = new Project();
+        project.setName("Metrics Project");
+        project.setStatus(ProjectStatus.ACTIVE);
+        project.setCreatedAt(new Date());
+        project.setUpdatedAt(new Date());
+        project = projectRepository.save(project);
+        saveTask("OPEN");
+    }
+
+    private Task saveTask(String status) {
+        Task task = new Task();
+        task.setTitle("Task " + status);
+        task.setStatus(status);
+        task.setPriority("MEDIUM");
+        task.setProject(project);
+        task.setCreatedAt(new Date());
+        task.setUpdatedAt(new Date());
+        return taskRepository.save(task);
+    }
+
+    @Test
+    void writesAreAppliedIncrementallyAndMatchAFreshLoad() {
+        ProjectMetricsSnapshot snapshot = store.get(project.getId());
+        assertEquals(1, snapshot.totalTasks());
+
+        Task task = saveTask("OPEN");
+        store.taskChanged(null, TaskFacts.of(task));
+        TaskFacts before = TaskFacts.of(task);
+        task.setStatus("COMPLETED");
+        task = taskRepository.save(task);
+        store.taskChanged(before, TaskFacts.of(task));
+
+        assertSame(snapshot, store.get(project.getId()));
+        assertEquals(2, snapshot.totalTasks());
+        assertEquals(Map.of("OPEN", 1L, "COMPLETED", 1L), snapshot.statusCounts());
+        assertTrue(snapshot.sameAs(store.load(project.getId())));
+    }
+
+    @Test
+    void loadRacingAWriteIsNotKept() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Task task = saveTask("OPEN");
+            store.taskChanged(null, TaskFacts.of(task));
+            // The write is not committed yet, so this load may or may not see it
+            ProjectMetricsSnapshot during = store.get(project.getId());
+            assertNotSame(during, store.get(project.getId()));
+        });
+
+        ProjectMetricsSnapshot after = store.get(project.getId());
+        assertSame(after, store.get(project.getId()));
+        assertEquals(2, after.totalTasks());
+    }
+
+    @Test
+    void reconcileReplacesDriftedSnapshots() {
+        ProjectMetricsSnapshot snapshot = store.get(project.getId());
+        // Written behind the store's back
+        saveTask("IN_PROGRESS");
+
+        store.reconcile();
+
+        ProjectMetricsSnapshot reconciled = store.get(project.getId());
+        assertNotSame(snapshot, reconciled);
+        assertEquals(Map.of("OPEN", 1L, "IN_PROGRESS", 1L), reconciled.statusCounts());
+    }
+
+    @Test
+    void deletedProjectsAndOtherNodesWritesDropTheSnapshot() {
+        ProjectMetricsSnapshot snapshot = store.get(project.getId());
+        invalidationBus.publish(InvalidationBus.PROJECT_METRICS, project.getId() + ":another-node");
+        ProjectMetricsSnapshot reloaded = store.get(project.getId());
+        assertNotSame(snapshot, reloaded);
+
+        store.projectDeleted(project.getId());
+        assertNotSame(reloaded, store.get(project.getId()));
+    }
+}
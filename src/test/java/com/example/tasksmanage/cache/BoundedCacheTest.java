@@ -0,0 +1,76 @@
+package com.example.tasksmanage.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTest {
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void evictsUnreadEntriesFirstOnceOverTheBound() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(3, null, null, false, nanos::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        assertEquals(1, cache.getIfPresent("a"));
+        cache.put("d", 4);
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void expiresAfterWriteAndAfterAccess() {
+        BoundedCache<String, Integer> byAge = new BoundedCache<>(10, Duration.ofSeconds(10), null, false, nanos::get);
+        BoundedCache<String, Integer> idle = new BoundedCache<>(10, null, Duration.ofSeconds(10), false, nanos::get);
+        byAge.put("k", 1);
+        idle.put("k", 1);
+        nanos.addAndGet(Duration.ofSeconds(8).toNanos());
+        assertEquals(1, byAge.getIfPresent("k"));
+        assertEquals(1, idle.getIfPresent("k"));
+        nanos.addAndGet(Duration.ofSeconds(8).toNanos());
+        assertNull(byAge.getIfPresent("k"));
+        assertEquals(1, idle.getIfPresent("k"));
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertNull(idle.getIfPresent("k"));
+    }
+
+    @Test
+    void loaderResultsAreCachedButNullIsNot() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, null, null, false, nanos::get);
+        AtomicLong loads = new AtomicLong();
+        assertEquals("v", cache.get("k", key -> { loads.incrementAndGet(); return "v"; }));
+        assertEquals("v", cache.get("k", key -> { loads.incrementAndGet(); return "other"; }));
+        assertNull(cache.get("missing", key -> null));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void frequencyAdmissionKeepsHotEntriesThroughAScan() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, null, null, true, nanos::get);
+        for (int i = 0; i < 10; i++) {
+            cache.put("hot" + i, i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 10; i++) cache.getIfPresent("hot" + i);
+        }
+        // One-off keys, each looked up once before being loaded, as a cache-aside caller would
+        for (int i = 0; i < 100; i++) {
+            cache.get("scan" + i, key -> 0);
+        }
+
+        assertEquals(10, cache.size());
+        int survivors = 0;
+        for (int i = 0; i < 10; i++) {
+            if (cache.getIfPresent("hot" + i) != null) survivors++;
+        }
+        assertEquals(10, survivors);
+    }
+}
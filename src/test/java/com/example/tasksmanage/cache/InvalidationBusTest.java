@@ -0,0 +1,63 @@
+package com.example.tasksmanage.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvalidationBusTest {
+    private final TransactionTemplate transaction = new TransactionTemplate(
+            new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:invalidation-bus", "sa", "")));
+
+    @Test
+    void changesReachSubscribersOnEveryNode() {
+        InMemoryInvalidationBus nodeA = new InMemoryInvalidationBus();
+        InMemoryInvalidationBus nodeB = nodeA.newPeer();
+        List<String> seenByA = new CopyOnWriteArrayList<>();
+        List<String> seenByB = new CopyOnWriteArrayList<>();
+        nodeA.subscribe(InvalidationBus.TASK, seenByA::add);
+        nodeB.subscribe(InvalidationBus.TASK, seenByB::add);
+        nodeB.subscribe(InvalidationBus.PROJECT, id -> fail("Wrong entity type"));
+
+        nodeA.publish(InvalidationBus.TASK, "42");
+
+        assertEquals(List.of("42"), seenByA);
+        assertEquals(List.of("42"), seenByB);
+    }
+
+    @Test
+    void changesAreSentOnlyAfterCommit() {
+        InMemoryInvalidationBus nodeA = new InMemoryInvalidationBus();
+        InMemoryInvalidationBus nodeB = nodeA.newPeer();
+        List<String> seen = new CopyOnWriteArrayList<>();
+        nodeB.subscribe(InvalidationBus.TASK, seen::add);
+
+        transaction.executeWithoutResult(status -> {
+            nodeA.publish(InvalidationBus.TASK, "committed");
+            assertTrue(seen.isEmpty());
+        });
+        transaction.executeWithoutResult(status -> {
+            nodeA.publish(InvalidationBus.TASK, "rolled-back");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of("committed"), seen);
+    }
+
+    @Test
+    void failingListenerDoesNotStopOthers() {
+        InMemoryInvalidationBus bus = new InMemoryInvalidationBus();
+        List<String> seen = new CopyOnWriteArrayList<>();
+        bus.subscribe(InvalidationBus.USER, id -> { throw new IllegalStateException("boom"); });
+        bus.subscribe(InvalidationBus.USER, seen::add);
+
+        bus.publish(InvalidationBus.USER, InvalidationBus.ALL);
+
+        assertEquals(List.of(InvalidationBus.ALL), seen);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.tasksmanage.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostgresInvalidationBusTest {
+    // Stands in for a dropped connection when taken from a listener's queue
+    private static final String DISCONNECT = "disconnect";
+
+    private final List<PostgresInvalidationBus> buses = new ArrayList<>();
+    // What every listening session receives, as NOTIFY fans out to all listeners
+    private final List<BlockingQueue<String>> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connects = new AtomicInteger();
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        for (PostgresInvalidationBus bus : buses) bus.destroy();
+    }
+
+    private PostgresInvalidationBus start() {
+        // pg_notify reaches every listening session, the sender's own included
+        JdbcTemplate notifier = new JdbcTemplate() {
+            @Override
+            public <T> T query(String sql, ResultSetExtractor<T> extractor, Object... args) {
+                assertEquals("SELECT pg_notify(?, ?)", sql);
+                assertEquals(PostgresInvalidationBus.CHANNEL, args[0]);
+                for (BlockingQueue<String> session : sessions) session.add((String) args[1]);
+                return null;
+            }
+        };
+        PostgresInvalidationBus bus = new PostgresInvalidationBus(notifier, this::listen, 10);
+        bus.afterPropertiesSet();
+        buses.add(bus);
+        return bus;
+    }
+
+    private PostgresInvalidationBus.Listener listen() {
+        connects.incrementAndGet();
+        BlockingQueue<String> session = new LinkedBlockingQueue<>();
+        sessions.add(session);
+        return new PostgresInvalidationBus.Listener() {
+            @Override
+            public List<String> poll(int timeoutMillis) throws SQLException {
+                String payload;
+                try {
+                    payload = session.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted", ex);
+                }
+                if (DISCONNECT.equals(payload)) throw new SQLException("Connection reset");
+                return payload != null ? List.of(payload) : List.of();
+            }
+
+            @Override
+            public void close() {
+                sessions.remove(session);
+            }
+        };
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void messagesReachOtherNodesOnceAndTheSenderOnlyLocally() throws Exception {
+        PostgresInvalidationBus nodeA = start();
+        PostgresInvalidationBus nodeB = start();
+        await(() -> sessions.size() == 2);
+        List<String> seenByA = new CopyOnWriteArrayList<>();
+        List<String> seenByB = new CopyOnWriteArrayList<>();
+        nodeA.subscribe(InvalidationBus.PROJECT_MEMBERSHIP, seenByA::add);
+        nodeB.subscribe(InvalidationBus.PROJECT_MEMBERSHIP, seenByB::add);
+
+        // Ids may contain the separator
+        nodeA.publish(InvalidationBus.PROJECT_MEMBERSHIP, "p|1:u|2");
+
+        await(() -> seenByB.size() == 1);
+        assertEquals(List.of("p|1:u|2"), seenByB);
+        // The echo of its own message is dropped by the sender
+        Thread.sleep(50);
+        assertEquals(List.of("p|1:u|2"), seenByA);
+    }
+
+    @Test
+    void malformedPayloadsAreIgnored() {
+        PostgresInvalidationBus bus = new PostgresInvalidationBus(new JdbcTemplate(), this::listen, 10);
+        List<String> seen = new ArrayList<>();
+        bus.subscribe(InvalidationBus.TASK, seen::add);
+
+        bus.receive("garbage");
+        bus.receive("other-node|task");
+        bus.receive("other-node|task|42");
+
+        assertEquals(List.of("42"), seen);
+    }
+
+    @Test
+    void reconnectingTellsSubscribersToDropEverything() throws Exception {
+        PostgresInvalidationBus bus = start();
+        await(() -> sessions.size() == 1);
+        List<String> tasks = new CopyOnWriteArrayList<>();
+        List<String> users = new CopyOnWriteArrayList<>();
+        bus.subscribe(InvalidationBus.TASK, tasks::add);
+        bus.subscribe(InvalidationBus.USER, users::add);
+
+        sessions.get(0).add(DISCONNECT);
+
+        await(() -> connects.get() == 2 && tasks.size() == 1);
+        assertEquals(List.of(InvalidationBus.ALL), tasks);
+        assertEquals(List.of(InvalidationBus.ALL), users);
+        assertEquals(1, sessions.size());
+    }
+}
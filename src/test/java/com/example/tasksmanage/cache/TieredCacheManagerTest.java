@@ -0,0 +1,90 @@
+package com.example.tasksmanage.cache;
+
+import com.example.tasksmanage.dto.ProjectDTO;
+import com.example.tasksmanage.dto.TaskCreateDTO;
+import com.example.tasksmanage.dto.TaskResponseDTO;
+import com.example.tasksmanage.repository.TaskRepository;
+import com.example.tasksmanage.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class TieredCacheManagerTest {
+    @Autowired
+    private TaskService taskService;
+    @SpyBean
+    private TaskRepository taskRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void taskReadsAreCachedUntilTheTaskChanges() {
+        TaskCreateDTO create = new TaskCreateDTO();
+        create.setTitle("Cached");
+        create.setStatus("OPEN");
+        create.setPriority("LOW");
+        UUID id = taskService.createTask(create, null).getId();
+        clearInvocations(taskRepository);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Cached", taskService.getTask(id).getTitle());
+        }
+        verify(taskRepository, times(1)).findById(any());
+
+        create.setTitle("Renamed");
+        taskService.updateTask(id, create);
+        assertEquals("Renamed", taskService.getTask(id).getTitle());
+
+        assertTrue(meterRegistry.find("cache.gets").tag("cache", "tasks").tag("result", "hit").functionCounter().count() >= 2);
+        assertNotNull(meterRegistry.find("cache.max.size").tag("cache", "tasks").gauge());
+    }
+
+    @Test
+    void sharedTierServesOtherNodesAndIsEvictedThroughEither() {
+        JdbcSharedCacheTier shared = new JdbcSharedCacheTier(jdbcTemplate, objectMapper);
+        TieredCache nodeA = new TieredCache("projects", new BoundedCache<>(100, null, null), shared, Duration.ofMinutes(1));
+        TieredCache nodeB = new TieredCache("projects", new BoundedCache<>(100, null, null), shared, Duration.ofMinutes(1));
+        UUID id = UUID.randomUUID();
+        ProjectDTO project = new ProjectDTO();
+        project.setId(id);
+        project.setName("Shared");
+
+        nodeA.put(id, project);
+        ProjectDTO fromB = nodeB.get(id, ProjectDTO.class);
+        assertNotNull(fromB);
+        assertEquals("Shared", fromB.getName());
+        assertEquals(1, nodeB.sharedHitCount());
+
+        nodeA.evict(id);
+        nodeB.getNativeCache().invalidateAll();
+        assertNull(nodeB.get(id));
+    }
+
+    @Test
+    void expiredSharedEntriesAreMisses() {
+        JdbcSharedCacheTier shared = new JdbcSharedCacheTier(jdbcTemplate, objectMapper);
+        shared.put("tasks", "k", new TaskResponseDTO(), Duration.ofMillis(-1));
+        assertNull(shared.get("tasks", "k"));
+        shared.purgeExpired();
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cache_entries WHERE cache_name = 'tasks'", Integer.class));
+    }
+}
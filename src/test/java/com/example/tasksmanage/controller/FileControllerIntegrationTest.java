@@ -1,13 +1,46 @@
 package com.example.tasksmanage.controller;
 
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.StoredBlobRepository;
+import com.example.tasksmanage.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -16,6 +49,28 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class FileControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private StoredBlobRepository blobRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    // Signs the requests of a session in as a freshly created user
+    private MockHttpSession sessionOf(String name) {
+        User user = new User();
+        user.setUsername(name + "-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setFirstName("File");
+        user.setLastName("Owner");
+        user.setPassword("password");
+        user.setCreatedAt(new Date());
+        user.setUpdatedAt(new Date());
+        user = userRepository.save(user);
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        return session;
+    }
 
     @Test
     void testFileUpload() throws Exception {
@@ -23,4 +78,122 @@ public class FileControllerIntegrationTest {
         mockMvc.perform(multipart("/api/v1/files/upload").file(file))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void testFileDownloadStreamsPlainGzipAndRanges() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "range.txt", "text/plain", "0123456789abcdef".getBytes());
+        String body = mockMvc.perform(multipart("/api/v1/files/upload").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String url = "/api/v1/files/" + JsonPath.read(body, "$.fileName");
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 16))
+                .andExpect(content().string("0123456789abcdef"));
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=10-13"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("abcd"));
+
+        byte[] gzipped = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals("0123456789abcdef", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testChunkedUploadResumesFromServerOffset() throws Exception {
+        String started = mockMvc.perform(post("/api/v1/files/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fileName\":\"chunks.txt\",\"contentType\":\"text/plain\",\"size\":10}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String chunks = "/api/v1/files/uploads/" + JsonPath.read(started, "$.uploadId");
+
+        mockMvc.perform(put(chunks).param("offset", "0").contentType(MediaType.APPLICATION_OCTET_STREAM).content("hello"))
+                .andExpect(status().isOk());
+        // A retried chunk at a stale offset is rejected with the offset to resume from
+        mockMvc.perform(put(chunks).param("offset", "0").contentType(MediaType.APPLICATION_OCTET_STREAM).content("hello"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.offset").value(5));
+        mockMvc.perform(put(chunks).param("offset", "5").contentType(MediaType.APPLICATION_OCTET_STREAM).content("world"))
+                .andExpect(status().isOk());
+
+        String attachment = mockMvc.perform(post(chunks + "/complete"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/files/" + JsonPath.read(attachment, "$.fileName")))
+                .andExpect(content().string("helloworld"));
+    }
+
+    @Test
+    void testIdenticalContentIsStoredOnceAndCollectedWithLastReference() throws Exception {
+        MockHttpSession owner = sessionOf("owner");
+        byte[] bytes = ("shared " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        String first = mockMvc.perform(multipart("/api/v1/files/upload").file(new MockMultipartFile("file", "a.txt", "text/plain", bytes))
+                        .session(owner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contentHash").value(digest))
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(attachByHash(digest, "b.txt").session(owner))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String firstName = JsonPath.read(first, "$.fileName");
+        String secondName = JsonPath.read(second, "$.fileName");
+        assertNotEquals(firstName, secondName);
+        mockMvc.perform(get("/api/v1/files/" + secondName))
+                .andExpect(content().bytes(bytes));
+
+        mockMvc.perform(delete("/api/v1/files/" + firstName)).andExpect(status().isOk());
+        assertTrue(blobRepository.existsById(digest));
+        mockMvc.perform(delete("/api/v1/files/" + secondName)).andExpect(status().isOk());
+        assertFalse(blobRepository.existsById(digest));
+
+        mockMvc.perform(attachByHash(digest, "c.txt").session(owner))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testContentIsOnlyAttachedByHashForUsersReferencingIt() throws Exception {
+        byte[] bytes = ("private " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        mockMvc.perform(multipart("/api/v1/files/upload").file(new MockMultipartFile("file", "a.txt", "text/plain", bytes))
+                        .session(sessionOf("owner")))
+                .andExpect(status().isOk());
+
+        // Stored content of another user answers like unknown content
+        mockMvc.perform(attachByHash(digest, "stolen.txt").session(sessionOf("other")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(attachByHash(digest, "stolen.txt"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(attachByHash("0".repeat(64), "unknown.txt").session(sessionOf("other")))
+                .andExpect(status().isNotFound());
+    }
+
+    private static MockHttpServletRequestBuilder attachByHash(String digest, String fileName) {
+        return post("/api/v1/files/by-hash")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sha256\":\"" + digest + "\",\"fileName\":\"" + fileName + "\",\"contentType\":\"text/plain\"}");
+    }
+
+    @Test
+    void testPrecompressedTypesAreStoredAndServedAsIs() throws Exception {
+        byte[] png = ("\u0089PNG not really " + UUID.randomUUID()).getBytes(StandardCharsets.ISO_8859_1);
+        String body = mockMvc.perform(multipart("/api/v1/files/upload").file(new MockMultipartFile("file", "p.png", "image/png", png)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String digest = JsonPath.read(body, "$.contentHash");
+        assertEquals("identity", blobRepository.findById(digest).orElseThrow().getCodec());
+
+        mockMvc.perform(get("/api/v1/files/" + JsonPath.read(body, "$.fileName")).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(content().bytes(png));
+    }
 }
@@ -0,0 +1,94 @@
+package com.example.tasksmanage.controller;
+
+import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class TagsControllerTest {
+    @Autowired
+    private TagsController tagsController;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID both;
+    private UUID onlyBackend;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        both = saveTask("Backend", "urgent").getId();
+        onlyBackend = saveTask(" backend ").getId();
+        saveTask("frontend");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Task saveTask(String... tags) {
+        Task task = new Task();
+        task.setTitle("Tagged task");
+        task.setStatus("OPEN");
+        task.setPriority("MEDIUM");
+        task.setTags(new HashSet<>(Arrays.asList(tags)));
+        task.setCreatedAt(new Date());
+        task.setUpdatedAt(new Date());
+        return taskRepository.save(task);
+    }
+
+    private Set<String> tagsOf(UUID id) {
+        entityManager.flush();
+        entityManager.clear();
+        return taskRepository.findById(id).orElseThrow().getTags();
+    }
+
+    @Test
+    void list_groupsTagsCaseInsensitively() {
+        List<TagsController.TagSummary> tags = tagsController.list().getBody();
+        assertEquals(List.of("backend", "frontend", "urgent"), tags.stream().map(t -> t.name).toList());
+        assertEquals(2L, tags.get(0).count);
+    }
+
+    @Test
+    void mergeAndDelete_onlyTouchTasksCarryingTheTag() {
+        TagsController.MergeRequest merge = new TagsController.MergeRequest();
+        merge.from = "backend";
+        merge.to = "urgent";
+        assertEquals(2L, tagsController.merge(merge).getBody().get("updatedTasks"));
+        assertEquals(Set.of("urgent"), tagsOf(both));
+        assertEquals(Set.of("urgent"), tagsOf(onlyBackend));
+
+        assertEquals(2L, tagsController.delete("URGENT").getBody().get("updatedTasks"));
+        assertTrue(tagsOf(both).isEmpty());
+        assertEquals(List.of("frontend"), tagsController.list().getBody().stream().map(t -> t.name).toList());
+    }
+
+    @Test
+    void tagsDifferingInInnerWhitespaceAreOneTag() {
+        UUID spaced = saveTask("Release  Notes").getId();
+        UUID tabbed = saveTask("release\tnotes", "urgent").getId();
+        TagsController.TagSummary releaseNotes = tagsController.list().getBody().stream()
+                .filter(t -> t.name.equals("release notes")).findFirst().orElseThrow();
+        assertEquals(2L, releaseNotes.count);
+
+        TagsController.RenameRequest rename = new TagsController.RenameRequest();
+        rename.name = "Docs";
+        assertEquals(2L, tagsController.rename("release   notes", rename).getBody().get("updatedTasks"));
+        assertEquals(Set.of("docs"), tagsOf(spaced));
+        assertEquals(Set.of("docs", "urgent"), tagsOf(tabbed));
+
+        assertEquals(2L, tagsController.delete(" DOCS ").getBody().get("updatedTasks"));
+        assertEquals(Set.of("urgent"), tagsOf(tabbed));
+    }
+}
@@ -14,7 +14,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.Date;
+import com.example.tasksmanage.model.Task;
+import com.jayway.jsonpath.JsonPath;
+
+import java.util.*;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,6 +38,12 @@ public class TaskControllerIntegrationTest {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private com.example.tasksmanage.search.SearchIndex searchIndex;
+
+    @Autowired
+    private com.example.tasksmanage.service.TaskService taskService;
+
     @BeforeEach
     void setUp() {
         taskRepository.deleteAll();
@@ -70,4 +79,93 @@ public class TaskControllerIntegrationTest {
         mockMvc.perform(get("/api/v1/tasks"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void testCursorPaginationVisitsEveryMatchingTaskOnce() throws Exception {
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task();
+            task.setTitle("Cursor task " + i);
+            task.setStatus("OPEN");
+            task.setPriority("LOW");
+            // Mix null and repeated due dates to exercise the (value, id) tie-breaker
+            task.setDueDate(i % 2 == 0 ? null : new Date(1_700_000_000_000L));
+            task.setTags(new HashSet<>(i == 4 ? Set.of("other") : Set.of("keyset", "paging")));
+            task.setCreatedAt(new Date());
+            task.setUpdatedAt(new Date());
+            task = taskRepository.save(task);
+            if (i != 4) expected.add(task.getId().toString());
+        }
+        // Saved straight through the repository, so bring the tag bitmaps up to date
+        searchIndex.rebuild();
+
+        // Missing due dates sort last ascending and first descending; either way a page boundary falls among them
+        for (String direction : List.of("asc", "desc")) {
+            Set<String> seen = new HashSet<>();
+            String cursor = "";
+            int requests = 0;
+            do {
+                String body = mockMvc.perform(get("/api/v1/tasks")
+                        .param("tags", "keyset", "paging")
+                        .param("sortBy", "dueDate")
+                        .param("sortDir", direction)
+                        .param("size", direction.equals("asc") ? "3" : "1")
+                        .param("cursor", cursor))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                List<String> ids = JsonPath.read(body, "$.content[*].id");
+                for (String id : ids) {
+                    if (!seen.add(id)) throw new AssertionError("Task returned twice: " + id);
+                }
+                cursor = JsonPath.read(body, "$.nextCursor");
+                requests++;
+            } while (cursor != null && requests < 10);
+
+            org.junit.jupiter.api.Assertions.assertEquals(expected, seen);
+            org.junit.jupiter.api.Assertions.assertEquals(direction.equals("asc") ? 2 : 4, requests);
+        }
+    }
+
+    @Test
+    void testTagFiltersFollowTheDatabaseAndOneNormalization() throws Exception {
+        Task spaced = new Task();
+        spaced.setTitle("Spaced tag");
+        spaced.setStatus("OPEN");
+        spaced.setPriority("LOW");
+        spaced.setTags(new HashSet<>(Set.of(" Release \t Notes ")));
+        spaced.setCreatedAt(new Date());
+        spaced.setUpdatedAt(new Date());
+        spaced = taskRepository.save(spaced);
+        org.junit.jupiter.api.Assertions.assertEquals(Set.of("release notes"), spaced.getTags());
+
+        // List filter and advanced search normalize requested tags the way stored ones are
+        mockMvc.perform(get("/api/v1/tasks").param("tags", "release notes"))
+                .andExpect(jsonPath("$.content[*].id").value(org.hamcrest.Matchers.contains(spaced.getId().toString())));
+        mockMvc.perform(get("/api/v1/tasks/search").param("tags", "RELEASE  notes"))
+                .andExpect(jsonPath("$.tasks[*].id").value(org.hamcrest.Matchers.contains(spaced.getId().toString())));
+
+        // Retagged behind the bitmaps' back (as on another node): filters see it at once
+        spaced.setTags(new HashSet<>(Set.of("changelog")));
+        spaced = taskRepository.save(spaced);
+        mockMvc.perform(get("/api/v1/tasks").param("tags", "release notes"))
+                .andExpect(jsonPath("$.content").isEmpty());
+        mockMvc.perform(get("/api/v1/tasks").param("tags", "changelog"))
+                .andExpect(jsonPath("$.content[*].id").value(org.hamcrest.Matchers.contains(spaced.getId().toString())));
+    }
+
+    @Test
+    void testCachedTaskHoldsAPlainCopyOfItsTags() {
+        Task task = new Task();
+        task.setTitle("Cached tags");
+        task.setStatus("OPEN");
+        task.setPriority("LOW");
+        task.setTags(new HashSet<>(Set.of("cached")));
+        task.setCreatedAt(new Date());
+        task.setUpdatedAt(new Date());
+        task = taskRepository.save(task);
+
+        Set<String> tags = taskService.getTask(task.getId()).getTags();
+        org.junit.jupiter.api.Assertions.assertEquals(HashSet.class, tags.getClass());
+        org.junit.jupiter.api.Assertions.assertEquals(Set.of("cached"), taskService.getTask(task.getId()).getTags());
+    }
 }
@@ -0,0 +1,192 @@
+package com.example.tasksmanage.notification;
+
+import com.example.tasksmanage.model.Notification;
+import com.example.tasksmanage.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationDispatcherTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final NotificationDeliveryProperties properties = new NotificationDeliveryProperties();
+    private NotificationDispatcher dispatcher;
+
+    private static class RecordingChannel implements NotificationChannel {
+        final String name;
+        final List<UUID> delivered = new CopyOnWriteArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        volatile int failuresLeft;
+        volatile boolean accepting = true;
+        volatile CountDownLatch gate;
+
+        RecordingChannel(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean accepts(NotificationMessage message) {
+            return accepting;
+        }
+
+        @Override
+        public void deliver(NotificationMessage message) throws Exception {
+            attempts.incrementAndGet();
+            if (gate != null) gate.await();
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("unavailable");
+            }
+            delivered.add(message.id());
+        }
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (dispatcher != null) dispatcher.destroy();
+    }
+
+    private NotificationDispatcher start(NotificationChannel... channels) {
+        dispatcher = new NotificationDispatcher(List.of(channels), properties, registry, true);
+        dispatcher.afterPropertiesSet();
+        return dispatcher;
+    }
+
+    private static NotificationMessage message() {
+        return new NotificationMessage(UUID.randomUUID(), UUID.randomUUID(), "TASK_ASSIGNED", "hello", "user@example.com");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private double deliveries(String channel, String outcome) {
+        return registry.get("notifications.deliveries").tag("channel", channel).tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void deliversToAcceptingChannelsAndRecordsLatency() throws Exception {
+        RecordingChannel email = new RecordingChannel("email");
+        RecordingChannel push = new RecordingChannel("push");
+        push.accepting = false;
+        start(email, push);
+        NotificationMessage message = message();
+
+        dispatcher.enqueue(message);
+
+        await(() -> email.delivered.size() == 1);
+        assertEquals(List.of(message.id()), email.delivered);
+        assertEquals(0, push.attempts.get());
+        await(() -> deliveries("email", "delivered") == 1);
+        assertEquals(1, registry.get("notifications.delivery.latency").tag("channel", "email").timer().count());
+    }
+
+    @Test
+    void slowChannelDoesNotHoldUpOthers() throws Exception {
+        RecordingChannel email = new RecordingChannel("email");
+        RecordingChannel websocket = new RecordingChannel("websocket");
+        email.gate = new CountDownLatch(1);
+        start(email, websocket);
+
+        for (int i = 0; i < 10; i++) dispatcher.enqueue(message());
+
+        await(() -> websocket.delivered.size() == 10);
+        assertTrue(email.delivered.isEmpty());
+        // Each worker holds one delivery, the rest wait in the queue
+        await(() -> dispatcher.queueDepth("email") == 10 - properties.getWorkers());
+        assertEquals(10.0 - properties.getWorkers(),
+                registry.get("notifications.queue.depth").tag("channel", "email").gauge().value());
+        email.gate.countDown();
+        await(() -> email.delivered.size() == 10);
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedWithBackoffUntilAttemptsRunOut() throws Exception {
+        properties.setInitialBackoff(Duration.ofMillis(5));
+        properties.setMaxAttempts(3);
+        RecordingChannel flaky = new RecordingChannel("flaky");
+        flaky.failuresLeft = 2;
+        RecordingChannel down = new RecordingChannel("down");
+        down.failuresLeft = Integer.MAX_VALUE;
+        start(flaky, down);
+
+        dispatcher.enqueue(message());
+
+        await(() -> flaky.delivered.size() == 1);
+        await(() -> deliveries("down", "failed") == 1);
+        assertEquals(3, flaky.attempts.get());
+        assertEquals(3, down.attempts.get());
+        assertEquals(2, deliveries("flaky", "retried"));
+        assertEquals(2, deliveries("down", "retried"));
+    }
+
+    @Test
+    void fullQueueDropsAfterEnqueueTimeout() throws Exception {
+        properties.setQueueCapacity(2);
+        properties.setWorkers(1);
+        properties.setEnqueueTimeout(Duration.ofMillis(10));
+        RecordingChannel stuck = new RecordingChannel("stuck");
+        stuck.gate = new CountDownLatch(1);
+        start(stuck);
+
+        dispatcher.enqueue(message());
+        await(() -> stuck.attempts.get() == 1);
+        for (int i = 0; i < 3; i++) dispatcher.enqueue(message());
+
+        assertEquals(2, dispatcher.queueDepth("stuck"));
+        assertEquals(1, deliveries("stuck", "dropped"));
+        stuck.gate.countDown();
+        await(() -> stuck.delivered.size() == 3);
+    }
+
+    @Test
+    void publishedNotificationsAreQueuedOnlyAfterCommit() throws Exception {
+        RecordingChannel websocket = new RecordingChannel("websocket");
+        start(websocket);
+        TransactionTemplate transaction = new TransactionTemplate(
+                new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:notification-dispatch", "sa", "")));
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Notification committed = new Notification();
+        committed.setId(UUID.randomUUID());
+        committed.setUser(user);
+        Notification rolledBack = new Notification();
+        rolledBack.setId(UUID.randomUUID());
+        rolledBack.setUser(user);
+
+        transaction.executeWithoutResult(status -> {
+            dispatcher.publish(committed);
+            assertEquals(0, websocket.attempts.get());
+        });
+        transaction.executeWithoutResult(status -> {
+            dispatcher.publish(rolledBack);
+            status.setRollbackOnly();
+        });
+
+        await(() -> websocket.delivered.size() == 1);
+        assertEquals(List.of(committed.getId()), websocket.delivered);
+    }
+}
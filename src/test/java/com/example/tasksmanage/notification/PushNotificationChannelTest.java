@@ -0,0 +1,143 @@
+package com.example.tasksmanage.notification;
+
+import com.example.tasksmanage.model.PushSubscription;
+import com.example.tasksmanage.repository.PushSubscriptionRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PushNotificationChannelTest {
+    private final PushSubscriptionRepository subscriptionRepository = mock(PushSubscriptionRepository.class);
+    // Authorization and TTL headers received per path
+    private final Map<String, String[]> received = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private KeyPair vapidKeys;
+    private PushNotificationChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        Map<String, Integer> statuses = Map.of("/push/ok", 201, "/push/gone", 410, "/push/missing", 404, "/push/down", 503);
+        server.createContext("/push", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            received.put(path, new String[]{exchange.getRequestHeaders().getFirst("Authorization"),
+                    exchange.getRequestHeaders().getFirst("TTL")});
+            exchange.sendResponseHeaders(statuses.get(path), -1);
+            exchange.close();
+        });
+        server.start();
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        vapidKeys = generator.generateKeyPair();
+        channel = new PushNotificationChannel(subscriptionRepository, 8);
+        ReflectionTestUtils.setField(channel, "enablePush", true);
+        ReflectionTestUtils.setField(channel, "vapidPublicKey", publicKey());
+        ReflectionTestUtils.setField(channel, "vapidPrivateKey", base64Url(((ECPrivateKey) vapidKeys.getPrivate()).getS()));
+        ReflectionTestUtils.setField(channel, "vapidSubject", "mailto:ops@example.com");
+        channel.loadSigningKey();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void pushesSignedRequestsAndRemovesExpiredSubscriptions() throws Exception {
+        UUID userId = UUID.randomUUID();
+        PushSubscription ok = subscription(1L, "/push/ok");
+        PushSubscription gone = subscription(2L, "/push/gone");
+        PushSubscription missing = subscription(3L, "/push/missing");
+        when(subscriptionRepository.findByUserId(userId)).thenReturn(List.of(ok, gone, missing));
+        NotificationMessage message = new NotificationMessage(UUID.randomUUID(), userId, "TASK_ASSIGNED", "hello", null);
+        assertTrue(channel.accepts(message));
+
+        channel.deliver(message);
+
+        assertEquals(3, received.size());
+        assertEquals(String.valueOf(PushNotificationChannel.TIME_TO_LIVE_SECONDS), received.get("/push/ok")[1]);
+        String authorization = received.get("/push/ok")[0];
+        assertTrue(authorization.startsWith("vapid t="));
+        assertTrue(authorization.endsWith(", k=" + publicKey()));
+        String token = authorization.substring("vapid t=".length(), authorization.indexOf(','));
+        Claims claims = Jwts.parserBuilder().setSigningKey(vapidKeys.getPublic()).build().parseClaimsJws(token).getBody();
+        assertEquals("http://localhost:" + server.getAddress().getPort(), claims.getAudience());
+        assertEquals("mailto:ops@example.com", claims.getSubject());
+        verify(subscriptionRepository).delete(gone);
+        verify(subscriptionRepository).delete(missing);
+        verify(subscriptionRepository, never()).delete(ok);
+    }
+
+    @Test
+    void otherFailuresFailTheDeliveryAndKeepTheSubscription() {
+        UUID userId = UUID.randomUUID();
+        PushSubscription down = subscription(4L, "/push/down");
+        when(subscriptionRepository.findByUserId(userId)).thenReturn(List.of(down));
+
+        assertThrows(HttpServerErrorException.class,
+                () -> channel.deliver(new NotificationMessage(UUID.randomUUID(), userId, "TASK_ASSIGNED", "hello", null)));
+        verify(subscriptionRepository, never()).delete(down);
+    }
+
+    @Test
+    void channelIsOffWithoutVapidKeys() throws Exception {
+        PushNotificationChannel unconfigured = new PushNotificationChannel(subscriptionRepository, 8);
+        ReflectionTestUtils.setField(unconfigured, "enablePush", true);
+        unconfigured.loadSigningKey();
+        assertFalse(unconfigured.accepts(new NotificationMessage(UUID.randomUUID(), UUID.randomUUID(), "TASK_ASSIGNED", "hello", null)));
+    }
+
+    private PushSubscription subscription(long id, String path) {
+        PushSubscription subscription = new PushSubscription();
+        subscription.setId(id);
+        subscription.setEndpoint("http://localhost:" + server.getAddress().getPort() + path);
+        return subscription;
+    }
+
+    // Uncompressed P-256 point, as browsers expect the application server key
+    private String publicKey() {
+        ECPublicKey key = (ECPublicKey) vapidKeys.getPublic();
+        byte[] point = new byte[65];
+        point[0] = 4;
+        System.arraycopy(unsigned(key.getW().getAffineX()), 0, point, 1, 32);
+        System.arraycopy(unsigned(key.getW().getAffineY()), 0, point, 33, 32);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(point);
+    }
+
+    private static String base64Url(BigInteger value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(unsigned(value));
+    }
+
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return fixed;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.tasksmanage.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutocompleteTrieTest {
+    @Test
+    void suggest_matchesWordStartsAndOrdersByFrequency() {
+        AutocompleteTrie trie = new AutocompleteTrie(10);
+        trie.put(UUID.randomUUID(), List.of("Sprint review"));
+        trie.put(UUID.randomUUID(), List.of("Review PR"));
+        trie.put(UUID.randomUUID(), List.of("Review PR"));
+
+        assertEquals(List.of("Review PR", "Sprint review"), trie.suggest("rev", 10));
+        assertEquals(List.of("Sprint review"), trie.suggest("SPRINT R", 10));
+        assertEquals(List.of("Review PR"), trie.suggest("re", 1));
+        assertTrue(trie.suggest("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void putAndRemove_keepTopKInSyncWithOwners() {
+        AutocompleteTrie trie = new AutocompleteTrie(1);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        trie.put(first, List.of("alpha"));
+        trie.put(second, List.of("alpine"));
+        trie.put(UUID.randomUUID(), List.of("alpine"));
+        assertEquals(List.of("alpine"), trie.suggest("al", 10));
+
+        trie.put(second, List.of("beta"));
+        trie.remove(first);
+        assertEquals(List.of("alpine"), trie.suggest("al", 10));
+        assertEquals(List.of("beta"), trie.suggest("b", 10));
+
+        trie.remove(second);
+        assertTrue(trie.suggest("b", 10).isEmpty());
+    }
+}
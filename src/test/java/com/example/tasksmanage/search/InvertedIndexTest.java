@@ -0,0 +1,42 @@
+package com.example.tasksmanage.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvertedIndexTest {
+    @Test
+    void search_ranksTitleHitsAboveBodyHitsAndMatchesPrefixOfLastTerm() {
+        InvertedIndex index = new InvertedIndex();
+        UUID titleHit = UUID.randomUUID();
+        UUID bodyHit = UUID.randomUUID();
+        UUID miss = UUID.randomUUID();
+        index.put(titleHit, Map.of("Release checklist", 3, "Prepare notes", 1));
+        index.put(bodyHit, Map.of("Sprint review", 3, "Go over the release plan", 1));
+        index.put(miss, Map.of("Unrelated", 3));
+
+        assertEquals(List.of(titleHit, bodyHit), index.search("RELEASE", 10));
+        assertEquals(List.of(titleHit), index.search("release check", 10));
+        assertEquals(List.of(titleHit), index.search("release", 1));
+        assertTrue(index.search("missing", 10).isEmpty());
+    }
+
+    @Test
+    void putAndRemove_replacePostingsForDocument() {
+        InvertedIndex index = new InvertedIndex();
+        UUID id = UUID.randomUUID();
+        index.put(id, Map.of("old title", 3));
+        index.put(id, Map.of("new title", 3));
+
+        assertTrue(index.search("old", 10).isEmpty());
+        assertEquals(List.of(id), index.search("new", 10));
+
+        index.remove(id);
+        assertTrue(index.search("title", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
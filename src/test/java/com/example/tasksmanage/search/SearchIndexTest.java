@@ -0,0 +1,113 @@
+package com.example.tasksmanage.search;
+
+import com.example.tasksmanage.cache.InvalidationBus;
+import com.example.tasksmanage.model.Project;
+import com.example.tasksmanage.model.ProjectStatus;
+import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.ProjectRepository;
+import com.example.tasksmanage.repository.TaskRepository;
+import com.example.tasksmanage.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SearchIndexTest {
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void taskChangesFromOtherNodesReachTheTagBitmaps() throws Exception {
+        String tag = "bus-" + UUID.randomUUID().toString().substring(0, 8);
+        Task task = new Task();
+        task.setTitle("Tagged elsewhere");
+        task.setStatus("OPEN");
+        task.setPriority("LOW");
+        task.setTags(new HashSet<>(Set.of(tag)));
+        task.setCreatedAt(new Date());
+        task.setUpdatedAt(new Date());
+        // Saved behind the index's back, as by another node
+        task = taskRepository.save(task);
+        assertFalse(searchIndex.taskTagFacets(List.of(tag), true).containsKey(tag));
+
+        invalidationBus.publish(InvalidationBus.TASK, task.getId());
+
+        await(() -> Long.valueOf(1).equals(searchIndex.taskTagFacets(List.of(tag), true).get(tag)));
+    }
+
+    @Test
+    void taskChangesFromOtherNodesReachSearchAndAutocomplete() throws Exception {
+        String word = "zq" + UUID.randomUUID().toString().substring(0, 8);
+        Task task = new Task();
+        task.setTitle(word + " written elsewhere");
+        task.setStatus("OPEN");
+        task.setPriority("LOW");
+        task.setCreatedAt(new Date());
+        task.setUpdatedAt(new Date());
+        task = taskRepository.save(task);
+        UUID id = task.getId();
+
+        invalidationBus.publish(InvalidationBus.TASK, id);
+        await(() -> searchIndex.searchTasks(word, 10).contains(id));
+        assertTrue(searchIndex.suggestTaskTitles(word, 10).contains(task.getTitle()));
+
+        taskRepository.deleteById(id);
+        invalidationBus.publish(InvalidationBus.TASK, id);
+        await(() -> searchIndex.searchTasks(word, 10).isEmpty());
+        assertTrue(searchIndex.suggestTaskTitles(word, 10).isEmpty());
+    }
+
+    @Test
+    void projectAndUserChangesFromOtherNodesReachSearchAndAutocomplete() throws Exception {
+        String word = "zq" + UUID.randomUUID().toString().substring(0, 8);
+        Project project = new Project();
+        project.setName(word + " project");
+        project.setStatus(ProjectStatus.ACTIVE);
+        project.setCreatedAt(new Date());
+        project.setUpdatedAt(new Date());
+        UUID projectId = projectRepository.save(project).getId();
+        User user = new User();
+        user.setUsername(word);
+        user.setEmail(word + "@example.com");
+        user.setFirstName("Elsewhere");
+        user.setLastName("Registered");
+        user.setPassword("x");
+        user.setCreatedAt(new Date());
+        user.setUpdatedAt(new Date());
+        userRepository.save(user);
+
+        invalidationBus.publish(InvalidationBus.PROJECT, projectId);
+        invalidationBus.publish(InvalidationBus.USER, user.getId());
+
+        await(() -> searchIndex.searchProjects(word, 10).contains(projectId));
+        assertTrue(searchIndex.suggestProjectNames(word, 10).contains(project.getName()));
+        await(() -> searchIndex.suggestUsers(word, 10).contains(word));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.tasksmanage.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TagBitmapIndexTest {
+    @Test
+    void match_answersAndOrFiltersAndFacetsOnNormalizedTags() {
+        TagBitmapIndex index = new TagBitmapIndex();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        index.put(a, List.of("Backend", "urgent"));
+        index.put(b, List.of(" backend "));
+        index.put(c, List.of("frontend", "URGENT"));
+
+        assertEquals(Set.of(a), new HashSet<>(index.match(List.of("backend", "urgent"), true, 10)));
+        assertEquals(Set.of(a, b, c), new HashSet<>(index.match(List.of("backend", "urgent"), false, 10)));
+        assertTrue(index.match(List.of("backend", "missing"), true, 10).isEmpty());
+        assertNull(index.match(List.of("backend", "urgent"), false, 2));
+
+        Map<String, Long> facets = index.facets(List.of("urgent"), true);
+        assertEquals(List.of("urgent", "backend", "frontend"), new ArrayList<>(facets.keySet()));
+        assertEquals(2L, facets.get("urgent"));
+    }
+
+    @Test
+    void renameRemoveAndReplace_keepBitmapsConsistent() {
+        TagBitmapIndex index = new TagBitmapIndex();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        index.put(a, List.of("old", "new"));
+        index.put(b, List.of("old"));
+
+        index.renameTag("old", "new");
+        assertEquals(Map.of("new", 2L), index.facets(List.of(), false));
+
+        index.removeTag("new");
+        assertTrue(index.facets(List.of(), false).isEmpty());
+
+        index.put(a, List.of("fresh"));
+        index.remove(b);
+        UUID c = UUID.randomUUID();
+        index.put(c, List.of("fresh"));
+        assertEquals(Set.of(a, c), new HashSet<>(index.match(List.of("fresh"), true, 10)));
+        assertEquals(2, index.size());
+    }
+}
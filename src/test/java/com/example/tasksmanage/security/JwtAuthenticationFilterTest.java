@@ -0,0 +1,72 @@
+package com.example.tasksmanage.security;
+
+import com.example.tasksmanage.config.JwtAuthenticationFilter;
+import com.example.tasksmanage.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class JwtAuthenticationFilterTest {
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil());
+        filter = new JwtAuthenticationFilter(100);
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenIsParsedOnceAndServedFromCache() throws Exception {
+        String token = jwtUtil.generateToken("alice", Map.of("roles", List.of("ADMIN", "ROLE_USER")));
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            Authentication auth = authenticate(token);
+            assertNotNull(auth);
+            assertEquals("alice", auth.getName());
+            assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                    auth.getAuthorities().stream().map(Object::toString).toList());
+        }
+        verify(jwtUtil, times(1)).getClaims(anyString());
+    }
+
+    @Test
+    void invalidTokensAreRejectedAndNotCached() throws Exception {
+        String token = jwtUtil.generateToken("bob", Map.of());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(authenticate(tampered));
+        assertNull(authenticate(tampered));
+        assertNull(authenticate("not-a-jwt"));
+        verify(jwtUtil, times(3)).getClaims(anyString());
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
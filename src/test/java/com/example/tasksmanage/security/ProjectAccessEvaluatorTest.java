@@ -0,0 +1,93 @@
+package com.example.tasksmanage.security;
+
+import com.example.tasksmanage.dto.ProjectMemberAddRequest;
+import com.example.tasksmanage.model.Project;
+import com.example.tasksmanage.model.ProjectMemberRole;
+import com.example.tasksmanage.model.ProjectStatus;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.ProjectMemberRepository;
+import com.example.tasksmanage.repository.ProjectRepository;
+import com.example.tasksmanage.repository.UserRepository;
+import com.example.tasksmanage.service.ProjectMemberService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+public class ProjectAccessEvaluatorTest {
+    @Autowired
+    private ProjectAccessEvaluator evaluator;
+    @Autowired
+    private ProjectMemberService projectMemberService;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @SpyBean
+    private ProjectMemberRepository projectMemberRepository;
+
+    private User user;
+    private Project project;
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = new User();
+        user.setUsername("member-" + suffix);
+        user.setEmail("member-" + suffix + "@example.com");
+        user.setFirstName("Mem");
+        user.setLastName("Ber");
+        user.setPassword("password");
+        user.setCreatedAt(new Date());
+        user.setUpdatedAt(new Date());
+        user = userRepository.save(user);
+
+        project = new Project();
+        project.setName("Access " + suffix);
+        project.setStatus(ProjectStatus.ACTIVE);
+        project.setCreatedAt(new Date());
+        project.setUpdatedAt(new Date());
+        project = projectRepository.save(project);
+
+        authentication = new UsernamePasswordAuthenticationToken(user.getUsername(), null, Collections.emptyList());
+    }
+
+    @Test
+    void membershipChecksAreCachedAndFollowMembershipChanges() {
+        assertFalse(evaluator.isMember(authentication, project.getId()));
+
+        ProjectMemberAddRequest request = new ProjectMemberAddRequest();
+        request.setUserIds(Set.of(user.getId()));
+        request.setRole(ProjectMemberRole.MEMBER);
+        projectMemberService.addMembers(project.getId(), request);
+        clearInvocations(projectMemberRepository);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(evaluator.isMember(authentication, project.getId()));
+            assertFalse(evaluator.hasRole(authentication, project.getId(), "OWNER", "MANAGER"));
+        }
+        verify(projectMemberRepository, times(1)).findRole(any(), any());
+
+        projectMemberService.updateRole(project.getId(), user.getId(), ProjectMemberRole.MANAGER);
+        assertTrue(evaluator.hasRole(authentication, project.getId(), "OWNER", "MANAGER"));
+
+        projectMemberService.removeMember(project.getId(), user.getId());
+        assertFalse(evaluator.isMember(authentication, project.getId()));
+    }
+}
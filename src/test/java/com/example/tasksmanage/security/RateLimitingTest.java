@@ -8,10 +8,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import com.example.tasksmanage.config.RateLimitingFilter;
 import com.example.tasksmanage.controller.TaskController;
+import com.example.tasksmanage.ratelimit.RateLimitProperties;
+import com.example.tasksmanage.ratelimit.RateLimiter;
 import com.example.tasksmanage.service.TaskService;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,10 +28,11 @@ public class RateLimitingTest {
     private TaskService taskService;
     
     private MockMvc mockMvc;
+    private TaskController taskController;
     
     @BeforeEach
     void setUp() {
-        TaskController taskController = new TaskController();
+        taskController = new TaskController();
         // Use reflection to inject the mock service
         try {
             java.lang.reflect.Field field = TaskController.class.getDeclaredField("taskService");
@@ -45,4 +53,54 @@ public class RateLimitingTest {
         mockMvc.perform(get("/api/v1/tasks"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void testLimitIsEnforcedPerClientWithRateLimitHeaders() throws Exception {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName("tasks");
+        policy.setPaths(List.of("/api/v1/tasks/**"));
+        policy.setLimit(2);
+        policy.setWindow(Duration.ofHours(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(List.of(policy));
+        MockMvc limited = MockMvcBuilders.standaloneSetup(taskController)
+                .addFilters(new RateLimitingFilter(new RateLimiter(properties)))
+                .build();
+
+        limited.perform(get("/api/v1/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Limit", "2"))
+                .andExpect(header().string("RateLimit-Remaining", "1"))
+                .andExpect(header().string("RateLimit-Policy", "2;w=3600"));
+        limited.perform(get("/api/v1/tasks")).andExpect(status().isOk());
+        limited.perform(get("/api/v1/tasks"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("RateLimit-Remaining", "0"))
+                .andExpect(header().exists("Retry-After"));
+        // Another client has its own quota
+        limited.perform(get("/api/v1/tasks").with(request -> {
+                    request.setRemoteAddr("10.0.0.2");
+                    return request;
+                }))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void madeUpApiKeysShareTheCallersIpQuota() throws Exception {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName("tasks");
+        policy.setPaths(List.of("/api/v1/tasks/**"));
+        policy.setLimit(2);
+        policy.setWindow(Duration.ofHours(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(List.of(policy));
+        MockMvc limited = MockMvcBuilders.standaloneSetup(taskController)
+                .addFilters(new RateLimitingFilter(new RateLimiter(properties)))
+                .build();
+
+        // None of these keys authenticates, so each request counts against the IP
+        limited.perform(get("/api/v1/tasks").header("X-API-KEY", "fake-1")).andExpect(status().isOk());
+        limited.perform(get("/api/v1/tasks").header("X-API-KEY", "fake-2")).andExpect(status().isOk());
+        limited.perform(get("/api/v1/tasks").header("X-API-KEY", "fake-3")).andExpect(status().isTooManyRequests());
+    }
 }
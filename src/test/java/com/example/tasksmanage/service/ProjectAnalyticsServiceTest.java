@@ -0,0 +1,94 @@
+package com.example.tasksmanage.service;
+
+import com.example.tasksmanage.model.Project;
+import com.example.tasksmanage.model.ProjectStatus;
+import com.example.tasksmanage.model.Task;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.ProjectRepository;
+import com.example.tasksmanage.repository.TaskRepository;
+import com.example.tasksmanage.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class ProjectAnalyticsServiceTest {
+    @Autowired
+    private ProjectAnalyticsService analyticsService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Project project;
+    private User assignee;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+
+        assignee = new User();
+        assignee.setUsername("analytics");
+        assignee.setEmail("analytics@example.com");
+        assignee.setFirstName("Ana");
+        assignee.setLastName("Lytics");
+        assignee.setPassword("password");
+        assignee.setCreatedAt(new Date());
+        assignee.setUpdatedAt(new Date());
+        assignee = userRepository.save(assignee);
+
+        project = new Project();
+        project.setName("Analytics Project");
+        project.setStatus(ProjectStatus.ACTIVE);
+        project.setCreatedAt(new Date());
+        project.setUpdatedAt(new Date());
+        project = projectRepository.save(project);
+
+        Date yesterday = new Date(System.currentTimeMillis() - 86_400_000L);
+        saveTask("OPEN", yesterday, assignee);
+        saveTask("IN_PROGRESS", null, assignee);
+        saveTask("COMPLETED", yesterday, null);
+    }
+
+    private void saveTask(String status, Date dueDate, User assignedTo) {
+        Task task = new Task();
+        task.setTitle("Task " + status);
+        task.setStatus(status);
+        task.setPriority("MEDIUM");
+        task.setDueDate(dueDate);
+        task.setAssignedTo(assignedTo);
+        task.setProject(project);
+        task.setCreatedAt(new Date());
+        task.setUpdatedAt(new Date());
+        taskRepository.save(task);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dashboardAndReports_areComputedFromGroupedCounts() {
+        Map<String, Object> metrics = (Map<String, Object>) analyticsService.getDashboard(project.getId()).get("metrics");
+        assertEquals(3L, metrics.get("totalTasks"));
+        assertEquals(1L, metrics.get("openTasks"));
+        assertEquals(1L, metrics.get("inProgressTasks"));
+        assertEquals(1L, metrics.get("doneTasks"));
+        assertEquals(1L, metrics.get("overdueTasks"));
+
+        assertEquals(Map.of(assignee.getId().toString(), 2L), analyticsService.getWorkload(project.getId()));
+        assertEquals(3, analyticsService.getTimeline(project.getId()).size());
+
+        List<Map<String, Object>> burndown = analyticsService.getBurndown(project.getId());
+        assertEquals(1, burndown.size());
+        assertEquals(2L, burndown.get(0).get("remaining"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.tasksmanage.service;
+
+import com.example.tasksmanage.dto.ProjectCreateDTO;
+import com.example.tasksmanage.dto.ProjectDTO;
+import com.example.tasksmanage.dto.UserProfileUpdateDTO;
+import com.example.tasksmanage.dto.UserSummaryDTO;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ProjectServiceTest {
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void cachedProjectFollowsItsMembersProfiles() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User member = new User();
+        member.setUsername("member-" + suffix);
+        member.setEmail("member-" + suffix + "@example.com");
+        member.setFirstName("Old");
+        member.setLastName("Name");
+        member.setPassword("password");
+        member.setCreatedAt(new Date());
+        member.setUpdatedAt(new Date());
+        member = userRepository.save(member);
+        ProjectCreateDTO create = new ProjectCreateDTO();
+        create.setName("Members " + suffix);
+        create.setTeamMemberIds(Set.of(member.getId()));
+        UUID projectId = projectService.createProject(create).getId();
+        assertEquals("Old", memberOf(projectService.getProject(projectId)).getFirstName());
+
+        UserProfileUpdateDTO update = new UserProfileUpdateDTO();
+        update.setFirstName("New");
+        update.setLastName("Name");
+        update.setAvatarUrl("/api/files/avatar.png");
+        userService.updateProfile(member, update);
+
+        UserSummaryDTO summary = memberOf(projectService.getProject(projectId));
+        assertEquals("New", summary.getFirstName());
+        assertEquals("/api/files/avatar.png", summary.getImageUrl());
+    }
+
+    private static UserSummaryDTO memberOf(ProjectDTO project) {
+        assertEquals(1, project.getMembers().size());
+        return project.getMembers().get(0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.tasksmanage.service;
+
+import com.example.tasksmanage.model.AccountStatus;
+import com.example.tasksmanage.model.Role;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.RoleRepository;
+import com.example.tasksmanage.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class UserServiceTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private String suffix;
+    private User admin;
+    private User suspended;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        Role editor = roleRepository.save(new Role("EDITOR_" + suffix));
+        Role auditor = roleRepository.save(new Role("AUDITOR_" + suffix));
+        admin = user("admin", AccountStatus.ACTIVE, new Date(1_700_000_000_000L), Set.of(editor, auditor));
+        suspended = user("suspended", AccountStatus.SUSPENDED, null, Set.of());
+    }
+
+    private User user(String name, AccountStatus status, Date lastLogin, Set<Role> roles) {
+        User user = new User();
+        user.setUsername(name + "-" + suffix);
+        user.setEmail(name + "-" + suffix + "@example.com");
+        user.setFirstName("Export");
+        user.setLastName(name);
+        user.setPassword("password");
+        user.setStatus(status);
+        user.setCreatedAt(new Date(1_600_000_000_000L));
+        user.setUpdatedAt(new Date());
+        user.setLastLogin(lastLogin);
+        user.setRoles(roles);
+        return userRepository.save(user);
+    }
+
+    private String export(String format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userService.exportUsers(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void csvExportHasOneRowPerUserWithSortedRoles() throws Exception {
+        List<String> lines = export("csv").lines().toList();
+
+        assertEquals("id,email,username,firstName,lastName,status,roles,createdAt,lastLogin", lines.get(0));
+        assertEquals(userRepository.count(), lines.size() - 1);
+        assertEquals(String.join(",", admin.getId().toString(), admin.getEmail(), admin.getUsername(), "Export", "admin",
+                        "ACTIVE", "AUDITOR_" + suffix + ";EDITOR_" + suffix, exported(admin.getCreatedAt()), exported(admin.getLastLogin())),
+                rowOf(lines, admin));
+        // No roles and no last login leave empty columns
+        assertEquals(String.join(",", suspended.getId().toString(), suspended.getEmail(), suspended.getUsername(), "Export",
+                        "suspended", "SUSPENDED", "", exported(suspended.getCreatedAt()), ""),
+                rowOf(lines, suspended));
+    }
+
+    @Test
+    void jsonExportIsAnArrayOfTheSameColumns() throws Exception {
+        JsonNode users = new ObjectMapper().readTree(export("json"));
+
+        assertTrue(users.isArray());
+        assertEquals(userRepository.count(), users.size());
+        JsonNode row = nodeOf(users, admin);
+        assertEquals(admin.getEmail(), row.get("email").asText());
+        assertEquals(admin.getUsername(), row.get("username").asText());
+        assertEquals("ACTIVE", row.get("status").asText());
+        assertEquals("AUDITOR_" + suffix + ";EDITOR_" + suffix, row.get("roles").asText());
+        assertEquals(exported(admin.getLastLogin()), row.get("lastLogin").asText());
+        JsonNode other = nodeOf(users, suspended);
+        assertEquals("SUSPENDED", other.get("status").asText());
+        assertEquals("", other.get("roles").asText());
+        assertTrue(other.get("lastLogin").isNull());
+    }
+
+    // Dates are written as read back from the database, i.e. as timestamps
+    private static String exported(Date date) {
+        return new Timestamp(date.getTime()).toString();
+    }
+
+    private static String rowOf(List<String> lines, User user) {
+        return lines.stream().filter(line -> line.startsWith(user.getId() + ",")).findFirst().orElseThrow();
+    }
+
+    private static JsonNode nodeOf(JsonNode users, User user) {
+        for (JsonNode node : users) {
+            if (user.getId().toString().equals(node.get("id").asText())) return node;
+        }
+        throw new AssertionError("No export row for " + user.getUsername());
+    }
+}
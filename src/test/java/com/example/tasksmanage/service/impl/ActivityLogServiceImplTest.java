@@ -0,0 +1,55 @@
+package com.example.tasksmanage.service.impl;
+
+import com.example.tasksmanage.model.ActivityLog;
+import com.example.tasksmanage.repository.ActivityLogRepository;
+import com.example.tasksmanage.service.ActivityLogService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ActivityLogServiceImplTest {
+    @Autowired
+    private ActivityLogService activityLogService;
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @BeforeEach
+    void setUp() {
+        activityLogRepository.deleteAll();
+        // Same timestamp for every row so batches have to continue on the id tie-breaker
+        Date timestamp = new Date();
+        List<ActivityLog> logs = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            ActivityLog log = new ActivityLog();
+            log.setAction(i % 2 == 0 ? "EXPORTED" : "OTHER");
+            log.setDetails("row " + i + ", with comma");
+            log.setTimestamp(timestamp);
+            logs.add(log);
+        }
+        activityLogRepository.saveAll(logs);
+    }
+
+    @Test
+    void exportActivities_streamsEveryMatchingRowAcrossBatches() throws Exception {
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        activityLogService.exportActivities(Map.of("action", "EXPORTED"), "csv", csv);
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ActivityLogExportUtil.CSV_HEADER, lines[0]);
+        assertEquals(600, lines.length - 1);
+        assertEquals(600, Arrays.stream(lines).skip(1).map(l -> l.split(",")[0]).distinct().count());
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        activityLogService.exportActivities(Map.of(), "json", json);
+        List<String> ids = JsonPath.read(json.toString(StandardCharsets.UTF_8), "$[*].id");
+        assertEquals(1200, new HashSet<>(ids).size());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.tasksmanage.service.impl;
+
+import com.example.tasksmanage.model.ApiKey;
+import com.example.tasksmanage.repository.ApiKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ApiKeyServiceImplTest {
+    @Autowired
+    private ApiKeyServiceImpl apiKeyService;
+    @SpyBean
+    private ApiKeyRepository apiKeyRepository;
+
+    @Test
+    void keysAreResolvedOnceAndRevocationAppliesImmediately() {
+        UUID userId = UUID.randomUUID();
+        ApiKey key = apiKeyService.generateApiKey(userId, "ci");
+        clearInvocations(apiKeyRepository);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(userId, apiKeyService.validateApiKey(key.getApiKey()).getUserId());
+        }
+        verify(apiKeyRepository, times(1)).findByApiKey(anyString());
+
+        apiKeyService.revokeApiKey(key.getId(), userId);
+        assertNull(apiKeyService.validateApiKey(key.getApiKey()));
+    }
+
+    @Test
+    void unknownKeysAreCachedNegatively() {
+        clearInvocations(apiKeyRepository);
+        String unknown = "unknown-" + UUID.randomUUID();
+
+        assertNull(apiKeyService.validateApiKey(unknown));
+        assertNull(apiKeyService.validateApiKey(unknown));
+        verify(apiKeyRepository, times(1)).findByApiKey(anyString());
+    }
+
+    @Test
+    void lastUsedIsWrittenOnFlush() {
+        ApiKey key = apiKeyService.generateApiKey(UUID.randomUUID(), "sync");
+        assertNull(apiKeyRepository.findById(key.getId()).orElseThrow().getLastUsedAt());
+
+        apiKeyService.validateApiKey(key.getApiKey());
+        apiKeyService.flushLastUsed();
+
+        assertNotNull(apiKeyRepository.findById(key.getId()).orElseThrow().getLastUsedAt());
+    }
+
+    @Test
+    void failedFlushKeepsLastUsedForTheNextOne() {
+        ApiKey key = apiKeyService.generateApiKey(UUID.randomUUID(), "retry");
+        apiKeyService.validateApiKey(key.getApiKey());
+
+        doThrow(new QueryTimeoutException("timeout")).when(apiKeyRepository).recordLastUsed(any(), any());
+        assertThrows(QueryTimeoutException.class, apiKeyService::flushLastUsed);
+        assertNull(apiKeyRepository.findById(key.getId()).orElseThrow().getLastUsedAt());
+
+        reset(apiKeyRepository);
+        apiKeyService.flushLastUsed();
+        assertNotNull(apiKeyRepository.findById(key.getId()).orElseThrow().getLastUsedAt());
+    }
+}
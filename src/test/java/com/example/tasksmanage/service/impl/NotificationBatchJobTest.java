@@ -0,0 +1,203 @@
+package com.example.tasksmanage.service.impl;
+
+import com.example.tasksmanage.model.Notification;
+import com.example.tasksmanage.model.NotificationPreferences;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.NotificationPreferencesRepository;
+import com.example.tasksmanage.repository.NotificationRepository;
+import com.example.tasksmanage.repository.UserRepository;
+import com.example.tasksmanage.service.JobLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// A page size of two makes digests span pages
+@SpringBootTest(properties = "app.notifications.digest.page-size=2")
+class NotificationBatchJobTest {
+    @Autowired
+    private NotificationBatchJob batchJob;
+    @SpyBean
+    private JobLockService jobLockService;
+    @Autowired
+    private UserRepository userRepository;
+    @SpyBean
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private NotificationPreferencesRepository preferencesRepository;
+    @MockBean
+    private MailDispatcher mailDispatcher;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        when(mailDispatcher.isEnabled()).thenReturn(true);
+        when(mailDispatcher.send(any())).thenAnswer(invocation -> {
+            SimpleMailMessage message = invocation.getArgument(0);
+            return message.getTo()[0].startsWith("failing-")
+                    ? CompletableFuture.failedFuture(new IllegalStateException("Mail delivery failed"))
+                    : CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private User user(String name, boolean batchEnabled) {
+        User user = new User();
+        user.setUsername(name + "-" + suffix);
+        user.setEmail(name + "-" + suffix + "@example.com");
+        user.setFirstName("Digest");
+        user.setLastName("User");
+        user.setPassword("password");
+        user.setCreatedAt(new Date());
+        user.setUpdatedAt(new Date());
+        user = userRepository.save(user);
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setUser(user);
+        preferences.setBatchEnabled(batchEnabled);
+        preferencesRepository.save(preferences);
+        return user;
+    }
+
+    private Notification notification(User user, String content, boolean read) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setType("TASK_ASSIGNED");
+        notification.setContent(content);
+        notification.setRead(read);
+        return notificationRepository.save(notification);
+    }
+
+    private Map<String, String> sentDigests() {
+        ArgumentCaptor<SimpleMailMessage> messages = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailDispatcher, atLeast(0)).send(messages.capture());
+        return messages.getAllValues().stream()
+                .filter(message -> message.getTo()[0].contains(suffix))
+                .collect(Collectors.toMap(message -> message.getTo()[0], SimpleMailMessage::getText));
+    }
+
+    @Test
+    void sendsOneDigestPerUserAndMarksOnlySentItemsBatched() {
+        User alice = user("alice", true);
+        User bob = user("bob", true);
+        User carol = user("carol", false);
+        User failing = user("failing", true);
+        List<Notification> aliceItems = List.of(notification(alice, "a1", false), notification(alice, "a2", false),
+                notification(alice, "a3", false));
+        Notification aliceRead = notification(alice, "a-read", true);
+        Notification bobItem = notification(bob, "b1", false);
+        Notification carolItem = notification(carol, "c1", false);
+        Notification failingItem = notification(failing, "f1", false);
+
+        batchJob.sendBatchNotifications();
+
+        Map<String, String> digests = sentDigests();
+        assertEquals(3, digests.size());
+        String aliceDigest = digests.get(alice.getEmail());
+        assertTrue(aliceDigest.contains("- a1") && aliceDigest.contains("- a2") && aliceDigest.contains("- a3"));
+        assertFalse(aliceDigest.contains("a-read"));
+        assertTrue(digests.get(bob.getEmail()).contains("- b1"));
+        assertTrue(digests.containsKey(failing.getEmail()));
+        for (Notification item : aliceItems) assertTrue(batched(item));
+        assertTrue(batched(bobItem));
+        assertFalse(batched(aliceRead));
+        assertFalse(batched(carolItem));
+        // Failed digests are tried again on the next run
+        assertFalse(batched(failingItem));
+
+        clearInvocations(mailDispatcher);
+        batchJob.sendBatchNotifications();
+        assertEquals(List.of(failing.getEmail()), List.copyOf(sentDigests().keySet()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void sentItemsAreMarkedInPageSizedChunks() {
+        User erin = user("erin", true);
+        List<Notification> items = List.of(notification(erin, "e1", false), notification(erin, "e2", false),
+                notification(erin, "e3", false), notification(erin, "e4", false), notification(erin, "e5", false));
+        clearInvocations(notificationRepository);
+
+        batchJob.sendBatchNotifications();
+
+        for (Notification item : items) assertTrue(batched(item));
+        ArgumentCaptor<Collection<UUID>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationRepository, atLeast(3)).markBatched(chunks.capture());
+        for (Collection<UUID> chunk : chunks.getAllValues()) assertTrue(chunk.size() <= 2);
+    }
+
+    @Test
+    void leaseIsRenewedPerPageAndALostLeaseStopsTheRun() {
+        List<Notification> items = List.of(notification(user("frank", true), "f1", false),
+                notification(user("gina", true), "g1", false), notification(user("hal", true), "h1", false));
+        doReturn(false).when(jobLockService).renew(any(), any());
+        clearInvocations(mailDispatcher);
+
+        batchJob.sendBatchNotifications();
+
+        // The first page's last user is carried, so at most one digest goes out before the renewal fails
+        verify(jobLockService, times(1)).renew(any(), eq(NotificationBatchJob.LOCK_LEASE));
+        assertTrue(sentDigests().size() <= 1);
+        assertTrue(items.stream().anyMatch(item -> !batched(item)));
+
+        doCallRealMethod().when(jobLockService).renew(any(), any());
+        batchJob.sendBatchNotifications();
+        for (Notification item : items) assertTrue(batched(item));
+    }
+
+    @Test
+    void renewalOnlyExtendsAHeldLease() {
+        JobLockService.Lease lease = jobLockService.tryLock("renewal-test-" + suffix, Duration.ofMinutes(1));
+        assertTrue(jobLockService.renew(lease, Duration.ofMinutes(5)));
+        jobLockService.unlock(lease);
+        assertFalse(jobLockService.renew(lease, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void runIsSkippedWhileAnotherHoldsTheLock() {
+        User dave = user("dave", true);
+        Notification item = notification(dave, "d1", false);
+        JobLockService.Lease lease = jobLockService.tryLock(NotificationBatchJob.JOB_NAME, Duration.ofMinutes(1));
+        assertNotNull(lease);
+        try {
+            clearInvocations(mailDispatcher);
+            batchJob.sendBatchNotifications();
+            verify(mailDispatcher, never()).send(any());
+            assertNull(jobLockService.tryLock(NotificationBatchJob.JOB_NAME, Duration.ofMinutes(1)));
+        } finally {
+            jobLockService.unlock(lease);
+        }
+
+        batchJob.sendBatchNotifications();
+        assertTrue(batched(item));
+    }
+
+    private boolean batched(Notification notification) {
+        return notificationRepository.findById(notification.getId()).orElseThrow().isBatched();
+    }
+}
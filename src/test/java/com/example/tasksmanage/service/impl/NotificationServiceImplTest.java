@@ -0,0 +1,147 @@
+package com.example.tasksmanage.service.impl;
+
+import com.example.tasksmanage.dto.CursorPageDTO;
+import com.example.tasksmanage.dto.NotificationDTO;
+import com.example.tasksmanage.model.Notification;
+import com.example.tasksmanage.model.User;
+import com.example.tasksmanage.repository.NotificationRepository;
+import com.example.tasksmanage.repository.UserRepository;
+import com.example.tasksmanage.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class NotificationServiceImplTest {
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = new User();
+        user.setUsername("inbox-" + suffix);
+        user.setEmail("inbox-" + suffix + "@example.com");
+        user.setFirstName("In");
+        user.setLastName("Box");
+        user.setPassword("password");
+        user.setCreatedAt(new Date());
+        user.setUpdatedAt(new Date());
+        user = userRepository.save(user);
+    }
+
+    private Notification notify(String content) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setType("TASK_ASSIGNED");
+        notification.setContent(content);
+        return notificationService.createNotification(notification);
+    }
+
+    private List<String> readAll(Boolean read, Boolean archived) {
+        List<String> contents = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<NotificationDTO> page = notificationService.listNotifications(user.getId(), read, archived, cursor, 2);
+            page.getContent().forEach(n -> contents.add(n.getContent()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return contents;
+    }
+
+    @Test
+    void inboxPagesNewestFirstAcrossEqualTimestamps() {
+        Instant base = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        for (int i = 0; i < 5; i++) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setType("TASK_ASSIGNED");
+            notification.setContent("n" + i);
+            // Two pairs share a timestamp, so pages have to break ties on id
+            notification.setCreatedAt(base.plusSeconds(i / 2));
+            notificationService.createNotification(notification);
+        }
+
+        List<String> contents = readAll(null, false);
+
+        assertEquals(5, contents.size());
+        assertEquals(5, contents.stream().distinct().count());
+        assertEquals("n4", contents.get(0));
+        assertTrue(contents.subList(3, 5).containsAll(List.of("n0", "n1")));
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationService.listNotifications(user.getId(), null, null, "not-a-cursor", 2));
+    }
+
+    @Test
+    void unreadCounterFollowsEveryChange() {
+        List<Notification> created = new ArrayList<>();
+        for (int i = 0; i < 4; i++) created.add(notify("n" + i));
+        assertEquals(4, notificationService.getUnreadCount(user.getId()));
+
+        assertEquals(2, notificationService.markRead(user.getId(), List.of(created.get(0).getId(), created.get(1).getId())));
+        // Already read: nothing changes
+        assertEquals(0, notificationService.markRead(user.getId(), List.of(created.get(0).getId())));
+        assertEquals(2, notificationService.getUnreadCount(user.getId()));
+        assertEquals(List.of("n3", "n2"), readAll(false, null));
+
+        notificationService.markAsUnread(created.get(0).getId());
+        notificationService.markAsRead(created.get(3).getId());
+        notificationService.markAsRead(created.get(3).getId());
+        assertEquals(2, notificationService.getUnreadCount(user.getId()));
+
+        notificationService.deleteNotification(created.get(2).getId());
+        assertEquals(1, notificationService.getUnreadCount(user.getId()));
+
+        assertEquals(1, notificationService.markRead(user.getId(), null));
+        assertEquals(0, notificationService.getUnreadCount(user.getId()));
+        assertEquals(0, notificationService.markRead(UUID.randomUUID(), List.of(created.get(1).getId())));
+    }
+
+    @Test
+    void counterIsBuiltFromExistingNotificationsOnFirstUse() {
+        for (int i = 0; i < 3; i++) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setType("LEGACY");
+            notification.setContent("legacy" + i);
+            notification.setRead(i == 0);
+            // Written without the service, as rows from before the counter existed
+            notificationRepository.save(notification);
+        }
+
+        assertEquals(2, notificationService.getUnreadCount(user.getId()));
+        notify("new");
+        assertEquals(3, notificationService.getUnreadCount(user.getId()));
+    }
+
+    @Test
+    void bulkArchiveHidesNotificationsFromTheInbox() {
+        Notification kept = notify("kept");
+        Notification archived = notify("archived");
+
+        assertEquals(1, notificationService.archive(user.getId(), List.of(archived.getId())));
+
+        assertEquals(List.of("kept"), readAll(null, false));
+        assertEquals(List.of("archived"), readAll(null, true));
+        assertEquals(List.of("archived", "kept"), readAll(null, null));
+        assertEquals(1, notificationService.archive(user.getId(), null));
+        assertTrue(readAll(null, false).isEmpty());
+        assertNotNull(notificationRepository.findById(kept.getId()).orElseThrow().getArchivedAt());
+    }
+}
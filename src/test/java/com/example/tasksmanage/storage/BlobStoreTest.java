@@ -0,0 +1,106 @@
+package com.example.tasksmanage.storage;
+
+import com.example.tasksmanage.model.StoredBlob;
+import com.example.tasksmanage.repository.StoredBlobRepository;
+import com.example.tasksmanage.storage.codec.CompressionCodecRegistry;
+import com.example.tasksmanage.storage.codec.GzipCodec;
+import com.example.tasksmanage.storage.codec.IdentityCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BlobStoreTest {
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private StoredBlobRepository blobRepository;
+    @Autowired
+    private CompressionCodecRegistry codecs;
+    @Autowired
+    private StorageProperties storage;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void storesUnderTheConfiguredUploadDirectory() throws Exception {
+        BlobStore.StagedBlob staged = blobStore.stage(content("configured"), codecs.byId(GzipCodec.ID));
+        try {
+            StoredBlob blob = blobStore.commit(staged);
+            assertTrue(blobStore.path(blob).startsWith(storage.uploadRoot()));
+            assertTrue(Files.exists(blobStore.path(blob)));
+        } finally {
+            staged.discard();
+        }
+    }
+
+    @Test
+    void concurrentFirstUploadsWithDifferentCodecsShareOneBlob() throws Exception {
+        String text = "concurrent " + UUID.randomUUID();
+        BlobStore.StagedBlob gzip = blobStore.stage(content(text), codecs.byId(GzipCodec.ID));
+        BlobStore.StagedBlob identity = blobStore.stage(content(text), codecs.byId(IdentityCodec.ID));
+        assertEquals(gzip.getDigest(), identity.getDigest());
+        CyclicBarrier start = new CyclicBarrier(2);
+        try {
+            List<CompletableFuture<StoredBlob>> commits = Stream.of(gzip, identity)
+                    .map(staged -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            start.await();
+                        } catch (Exception ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                        return blobStore.commit(staged);
+                    }))
+                    .toList();
+            StoredBlob first = commits.get(0).join();
+            StoredBlob second = commits.get(1).join();
+
+            assertEquals(first.getCodec(), second.getCodec());
+            Path file = blobStore.path(first);
+            assertTrue(Files.exists(file));
+            try (Stream<Path> siblings = Files.list(file.getParent())) {
+                assertEquals(1, siblings.filter(path -> path.getFileName().toString().startsWith(gzip.getDigest())).count());
+            }
+        } finally {
+            gzip.discard();
+            identity.discard();
+        }
+    }
+
+    @Test
+    void rolledBackCallerLeavesACollectableBlobWithItsFile() throws Exception {
+        BlobStore.StagedBlob staged = blobStore.stage(content("rolled back " + UUID.randomUUID()), codecs.byId(GzipCodec.ID));
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                blobStore.commit(staged);
+                status.setRollbackOnly();
+            });
+
+            // Row and file survive together, so the sweep finds the unreferenced blob and removes both
+            StoredBlob blob = blobRepository.findById(staged.getDigest()).orElseThrow();
+            assertTrue(Files.exists(blobStore.path(blob)));
+            assertTrue(blobStore.releaseIfUnreferenced(staged.getDigest()));
+            assertFalse(Files.exists(blobStore.path(blob)));
+        } finally {
+            staged.discard();
+        }
+    }
+
+    private static ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
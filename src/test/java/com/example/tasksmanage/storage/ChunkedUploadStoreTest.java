@@ -0,0 +1,60 @@
+package com.example.tasksmanage.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedUploadStoreTest {
+    @TempDir
+    Path root;
+
+    private ChunkedUploadStore store;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties storage = new StorageProperties();
+        storage.setUploadDir(root.toString());
+        store = new ChunkedUploadStore(storage);
+    }
+
+    @Test
+    void failedCompletionKeepsTheSessionForARetry() throws Exception {
+        byte[] content = "hello chunks".getBytes(StandardCharsets.UTF_8);
+        ChunkedUploadStore.UploadSession session = store.start("notes.txt", "text/plain", content.length, null);
+        store.append(session.getId(), 0, new ByteArrayInputStream(content, 0, 5));
+        store.append(session.getId(), 5, new ByteArrayInputStream(content, 5, content.length - 5));
+
+        assertThrows(IOException.class, () -> store.complete(session.getId(), completed -> {
+            throw new IOException("disk full");
+        }));
+        assertEquals(content.length, store.get(session.getId()).getOffset());
+        assertTrue(Files.exists(session.getPart()));
+
+        String stored = store.complete(session.getId(),
+                completed -> new String(Files.readAllBytes(completed.getPart()), StandardCharsets.UTF_8));
+        assertEquals("hello chunks", stored);
+        assertFalse(Files.exists(session.getPart()));
+        assertThrows(NoSuchElementException.class, () -> store.get(session.getId()));
+        assertThrows(NoSuchElementException.class, () -> store.complete(session.getId(), completed -> null));
+    }
+
+    @Test
+    void incompleteUploadCannotBeCompleted() throws Exception {
+        ChunkedUploadStore.UploadSession session = store.start("notes.txt", "text/plain", 10, UUID.randomUUID());
+        store.append(session.getId(), 0, new ByteArrayInputStream(new byte[4]));
+
+        assertThrows(IllegalArgumentException.class, () -> store.complete(session.getId(), completed -> fail("Stored early")));
+        assertThrows(IllegalStateException.class, () -> store.append(session.getId(), 0, new ByteArrayInputStream(new byte[1])));
+        assertEquals(4, store.append(session.getId(), 4, new ByteArrayInputStream(new byte[0])));
+    }
+}
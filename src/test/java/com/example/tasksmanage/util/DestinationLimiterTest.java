@@ -0,0 +1,46 @@
+package com.example.tasksmanage.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DestinationLimiterTest {
+    @Test
+    void permitsAreCountedPerDestination() {
+        DestinationLimiter limiter = new DestinationLimiter(1);
+        assertTrue(limiter.tryAcquire("a.example.com"));
+        assertFalse(limiter.tryAcquire("a.example.com"));
+        assertTrue(limiter.tryAcquire("b.example.com"));
+        limiter.release("a.example.com");
+        assertEquals(1, limiter.available("a.example.com"));
+    }
+
+    @Test
+    void callWaitsForAPermitOnVirtualThreads() throws Exception {
+        DestinationLimiter limiter = new DestinationLimiter(2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    limiter.call("smtp", () -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        Thread.sleep(2);
+                        return inFlight.decrementAndGet();
+                    });
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        assertTrue(maxInFlight.get() <= 2);
+        assertEquals(2, limiter.available("smtp"));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.tasksmanage.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryBackoffTest {
+    @Test
+    void doublesPerAttemptWithinJitterAndStopsAtTheCap() {
+        for (int i = 0; i < 100; i++) {
+            assertInRange(1_000, RetryBackoff.millis(1, 1_000, 60_000));
+            assertInRange(8_000, RetryBackoff.millis(4, 1_000, 60_000));
+            assertInRange(60_000, RetryBackoff.millis(10, 1_000, 60_000));
+            // Large attempt counts must not overflow the shift
+            assertInRange(60_000, RetryBackoff.millis(200, 1_000, 60_000));
+        }
+    }
+
+    private static void assertInRange(long expected, long actual) {
+        assertTrue(actual >= expected * 0.8 && actual <= expected * 1.2, actual + " not within 20% of " + expected);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.tasksmanage.webhook;
+
+import com.example.tasksmanage.model.Webhook;
+import com.example.tasksmanage.model.WebhookDelivery;
+import com.example.tasksmanage.repository.WebhookDeliveryRepository;
+import com.example.tasksmanage.repository.WebhookEventLogRepository;
+import com.example.tasksmanage.repository.WebhookOutboxEventRepository;
+import com.example.tasksmanage.repository.WebhookRepository;
+import com.example.tasksmanage.service.WebhookService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.webhooks.initial-backoff-ms=1")
+public class WebhookDispatcherTest {
+    @Autowired
+    private WebhookService webhookService;
+    @Autowired
+    private WebhookDispatcher dispatcher;
+    @Autowired
+    private WebhookRepository webhookRepository;
+    @Autowired
+    private WebhookDeliveryRepository deliveryRepository;
+    @Autowired
+    private WebhookOutboxEventRepository eventRepository;
+    @Autowired
+    private WebhookEventLogRepository logRepository;
+
+    private HttpServer server;
+    private final List<String[]> received = new CopyOnWriteArrayList<>();
+    // Bodies of the requests answered with success
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    @BeforeEach
+    void startReceiver() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/hook", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            received.add(new String[]{body, exchange.getRequestHeaders().getFirst("X-Signature"),
+                    exchange.getRequestHeaders().getFirst("X-Delivery-Id")});
+            boolean failed = failuresLeft.getAndDecrement() > 0;
+            if (!failed) delivered.add(body);
+            exchange.sendResponseHeaders(failed ? 503 : 204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void cleanUp() throws InterruptedException {
+        server.stop(0);
+        // Sends still running on the I/O executor would log attempts for webhooks deleted below
+        List<Webhook> webhooks = webhookRepository.findAll();
+        webhooks.forEach(webhook -> webhook.setActive(false));
+        webhookRepository.saveAll(webhooks);
+        awaitIdle();
+        logRepository.deleteAll();
+        deliveryRepository.deleteAll();
+        eventRepository.deleteAll();
+        webhookRepository.deleteAll();
+    }
+
+    /**
+     * Waits until no poll is running and no send is under way. Polls starting later find nothing, as
+     * every webhook is inactive by then.
+     */
+    private void awaitIdle() throws InterruptedException {
+        ReentrantLock pollLock = (ReentrantLock) ReflectionTestUtils.getField(dispatcher, "pollLock");
+        Set<?> sendingWebhooks = (Set<?>) ReflectionTestUtils.getField(dispatcher, "sendingWebhooks");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pollLock.isLocked() || !sendingWebhooks.isEmpty() || deliveryRepository.findAll().stream()
+                .anyMatch(delivery -> WebhookDelivery.IN_FLIGHT.equals(delivery.getStatus()))) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Dispatcher did not go idle");
+            Thread.sleep(20);
+        }
+    }
+
+    private Webhook saveWebhook(Integer batchMaxSize) {
+        Webhook webhook = new Webhook();
+        webhook.setCallbackUrl("http://localhost:" + server.getAddress().getPort() + "/hook");
+        webhook.setSecret("s3cr3t");
+        webhook.setEvents(List.of("task.deleted"));
+        webhook.setBatchMaxSize(batchMaxSize);
+        webhook.setBatchLingerMs(60_000L);
+        return webhookRepository.save(webhook);
+    }
+
+    private void dispatchUntilReceived(int requests) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (received.size() < requests && System.currentTimeMillis() < deadline) {
+            dispatcher.dispatchDue();
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void failedDeliveryIsRetriedWithTheSamePayloadAndSignature() throws Exception {
+        failuresLeft.set(1);
+        Webhook webhook = saveWebhook(null);
+
+        webhookService.sendEvent("task.deleted", Map.of("id", "42"));
+
+        dispatchUntilReceived(2);
+        assertEquals(2, received.size());
+        String[] first = received.get(0);
+        String[] retry = received.get(1);
+        assertEquals("{\"id\":\"42\"}", first[0]);
+        assertEquals("sha256=" + WebhookService.signPayload("s3cr3t", first[0]), first[1]);
+        assertArrayEquals(first, retry);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        WebhookDelivery delivery;
+        do {
+            delivery = deliveryRepository.findByWebhook_IdOrderByCreatedAt(webhook.getId()).get(0);
+        } while (!WebhookDelivery.DELIVERED.equals(delivery.getStatus()) && System.currentTimeMillis() < deadline);
+        assertEquals(WebhookDelivery.DELIVERED, delivery.getStatus());
+        assertEquals(2, delivery.getAttempts());
+        assertEquals(2, logRepository.count());
+    }
+
+    @Test
+    void batchingWebhookReceivesAFullBatchAsOneSignedArray() throws Exception {
+        saveWebhook(3);
+        webhookService.sendEvent("task.deleted", Map.of("id", "1"));
+        webhookService.sendEvent("task.deleted", Map.of("id", "2"));
+        // Within the linger time and short of a full batch nothing is sent
+        dispatcher.dispatchDue();
+        Thread.sleep(200);
+        assertTrue(received.isEmpty());
+
+        webhookService.sendEvent("task.deleted", Map.of("id", "3"));
+        dispatchUntilReceived(1);
+        assertEquals(1, received.size());
+        String body = received.get(0)[0];
+        assertEquals("sha256=" + WebhookService.signPayload("s3cr3t", body), received.get(0)[1]);
+        assertTrue(body.startsWith("[{\"deliveryId\":"));
+        assertTrue(body.contains("\"eventType\":\"task.deleted\",\"data\":{\"id\":\"1\"}"));
+        assertTrue(body.contains("{\"id\":\"3\"}"));
+        Thread.sleep(200);
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void deliveriesQueuedBehindARetryWaitForIt() throws Exception {
+        // Keeps failing until released, so a retry racing the setup below changes nothing
+        failuresLeft.set(Integer.MAX_VALUE);
+        Webhook webhook = saveWebhook(null);
+        webhookService.sendEvent("task.deleted", Map.of("id", "1"));
+        dispatchUntilReceived(1);
+        WebhookDelivery failed = holdBack(webhook);
+
+        webhookService.sendEvent("task.deleted", Map.of("id", "2"));
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatchDue();
+            Thread.sleep(20);
+        }
+        assertTrue(received.stream().noneMatch(request -> request[0].equals("{\"id\":\"2\"}")));
+
+        failuresLeft.set(0);
+        failed = deliveryRepository.findById(failed.getId()).orElseThrow();
+        failed.setNextAttemptAt(Instant.now());
+        deliveryRepository.save(failed);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (delivered.size() < 2 && System.currentTimeMillis() < deadline) {
+            dispatcher.dispatchDue();
+            Thread.sleep(20);
+        }
+        assertEquals(List.of("{\"id\":\"1\"}", "{\"id\":\"2\"}"), delivered);
+    }
+
+    /**
+     * Puts the webhook's first delivery off for an hour, as after several failures, once no attempt is
+     * under way that could reschedule it again.
+     */
+    private WebhookDelivery holdBack(Webhook webhook) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        do {
+            WebhookDelivery delivery = awaitDelivery(webhook, 0, 1);
+            delivery.setNextAttemptAt(Instant.now().plus(Duration.ofHours(1)));
+            deliveryRepository.save(delivery);
+            int requests = received.size();
+            Thread.sleep(100);
+            delivery = deliveryRepository.findById(delivery.getId()).orElseThrow();
+            if (received.size() == requests && WebhookDelivery.PENDING.equals(delivery.getStatus())
+                    && delivery.getNextAttemptAt().isAfter(Instant.now().plus(Duration.ofMinutes(30)))) {
+                return delivery;
+            }
+        } while (System.currentTimeMillis() < deadline);
+        throw new AssertionError("Delivery could not be held back");
+    }
+
+    private WebhookDelivery awaitDelivery(Webhook webhook, int index, int attempts) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        WebhookDelivery delivery;
+        do {
+            delivery = deliveryRepository.findByWebhook_IdOrderByCreatedAt(webhook.getId()).get(index);
+            if (delivery.getAttempts() >= attempts && WebhookDelivery.PENDING.equals(delivery.getStatus())) return delivery;
+            Thread.sleep(10);
+        } while (System.currentTimeMillis() < deadline);
+        throw new AssertionError("Delivery not back in the queue after " + attempts + " attempts");
+    }
+}